@@ -4,6 +4,7 @@ import com.hypixel.hytale.common.plugin.AuthorInfo;
 import com.hypixel.hytale.common.plugin.PluginManifest;
 import com.hypixel.hytale.common.semver.Semver;
 import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.ResourceType;
 import com.hypixel.hytale.server.core.asset.AssetModule;
 import com.hypixel.hytale.server.core.event.events.entity.LivingEntityInventoryChangeEvent;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.config.Interaction;
@@ -20,9 +21,26 @@ import lucis.lux.hff.components.HoldingFirearmComponent;
 import lucis.lux.hff.components.ReloadingComponent;
 import lucis.lux.hff.data.HFFAssetPackGenerator;
 import lucis.lux.hff.data.HFFConfig;
+import lucis.lux.hff.data.registry.BlockHardnessIndex;
+import lucis.lux.hff.events.HFFEvents;
 import lucis.lux.hff.interactions.*;
 import lucis.lux.hff.listeners.FirearmUuidInitializer;
+import lucis.lux.hff.resources.BallisticSimulationResource;
+import lucis.lux.hff.resources.EntityGridResource;
+import lucis.lux.hff.resources.HitQueueResource;
+import lucis.lux.hff.resources.KnockbackAccumulatorResource;
+import lucis.lux.hff.resources.ProjectileLifetimeResource;
+import lucis.lux.hff.resources.RecoilAccumulatorResource;
 import lucis.lux.hff.storage.HFFStateStorage;
+import lucis.lux.hff.systems.BallisticSimulationSystem;
+import lucis.lux.hff.systems.EntityGridSystem;
+import lucis.lux.hff.systems.EntityGridTrackingSystem;
+import lucis.lux.hff.systems.HitResolutionSystem;
+import lucis.lux.hff.systems.KnockbackFlushSystem;
+import lucis.lux.hff.systems.ProjectileLifetimeSystem;
+import lucis.lux.hff.systems.ProjectileTrackingSystem;
+import lucis.lux.hff.systems.RecoilFlushSystem;
+import lucis.lux.hff.systems.ReloadCleanupSystem;
 import lucis.lux.hff.systems.ReloadSystem;
 
 import javax.annotation.Nonnull;
@@ -81,6 +99,35 @@ public class HFF extends JavaPlugin {
 
     private ComponentType<EntityStore, HoldingFirearmComponent> holdingFirearmComponentType;
 
+    /**
+     * Resource type for the timing wheel that despawns expired projectiles.
+     */
+    private ResourceType<EntityStore, ProjectileLifetimeResource> projectileLifetimeResourceType;
+
+    /**
+     * Resource type for the rounds simulated by HFF's ballistic simulation.
+     */
+    private ResourceType<EntityStore, BallisticSimulationResource> ballisticSimulationResourceType;
+
+    /**
+     * Resource type for the broad-phase grid of hittable entities.
+     */
+    private ResourceType<EntityStore, EntityGridResource> entityGridResourceType;
+
+    /**
+     * Resource type for the recoil accumulated by players during a tick.
+     */
+    private ResourceType<EntityStore, RecoilAccumulatorResource> recoilAccumulatorResourceType;
+
+    /**
+     * Resource type for the hits collected during a tick.
+     */
+    private ResourceType<EntityStore, HitQueueResource> hitQueueResourceType;
+
+    /**
+     * Resource type for the knockback accumulated during a tick.
+     */
+    private ResourceType<EntityStore, KnockbackAccumulatorResource> knockbackAccumulatorResourceType;
 
     /**
      * Constructs a new instance of the HFF plugin.
@@ -128,6 +175,7 @@ public class HFF extends JavaPlugin {
         this.getCodecRegistry(Interaction.CODEC).register("hff:toggle_aim", ToggleAimInteraction.class, ToggleAimInteraction.CODEC);
         this.getCodecRegistry(Interaction.CODEC).register("hff:reload", ReloadInteraction.class, ReloadInteraction.CODEC);
         this.getCodecRegistry(Interaction.CODEC).register("hff:hitEnemy", HitEnemyInteraction.class, HitEnemyInteraction.CODEC);
+        this.getCodecRegistry(Interaction.CODEC).register("hff:detonate", DetonateInteraction.class, DetonateInteraction.CODEC);
         this.getCodecRegistry(Interaction.CODEC).register("hff:openHFFMenu", OpenMenuInteraction.class, OpenMenuInteraction.CODEC);
         this.getCodecRegistry(Interaction.CODEC).register("hff:toggleFireMode", ToggleFireModeInteraction.class, ToggleFireModeInteraction.CODEC);
 
@@ -137,12 +185,27 @@ public class HFF extends JavaPlugin {
 
         this.reloadingComponentType = this.getEntityStoreRegistry().registerComponent(ReloadingComponent.class, "ReloadingComponent", ReloadingComponent.CODEC);
         this.getEntityStoreRegistry().registerSystem(new ReloadSystem(this.reloadingComponentType));
+        this.getEntityStoreRegistry().registerSystem(new ReloadCleanupSystem(this.reloadingComponentType));
 
         this.damageComponentType = this.getEntityStoreRegistry().registerComponent(DamageComponent.class, "DamageComponent", DamageComponent.CODEC);
 
         this.holdingFirearmComponentType = this.getEntityStoreRegistry().registerComponent(HoldingFirearmComponent.class, "HoldingFirearmComponent", HoldingFirearmComponent.CODEC);
 
         // Register resources
+        this.projectileLifetimeResourceType = this.getEntityStoreRegistry().registerResource(ProjectileLifetimeResource.class, ProjectileLifetimeResource::new);
+        this.getEntityStoreRegistry().registerSystem(new ProjectileTrackingSystem(this.damageComponentType, this.projectileLifetimeResourceType));
+        this.getEntityStoreRegistry().registerSystem(new ProjectileLifetimeSystem(this.projectileLifetimeResourceType));
+        this.entityGridResourceType = this.getEntityStoreRegistry().registerResource(EntityGridResource.class, EntityGridResource::new);
+        this.getEntityStoreRegistry().registerSystem(new EntityGridSystem(this.damageComponentType, this.entityGridResourceType));
+        this.getEntityStoreRegistry().registerSystem(new EntityGridTrackingSystem(this.damageComponentType, this.entityGridResourceType));
+        this.ballisticSimulationResourceType = this.getEntityStoreRegistry().registerResource(BallisticSimulationResource.class, BallisticSimulationResource::new);
+        this.getEntityStoreRegistry().registerSystem(new BallisticSimulationSystem(this.ballisticSimulationResourceType));
+        this.recoilAccumulatorResourceType = this.getEntityStoreRegistry().registerResource(RecoilAccumulatorResource.class, RecoilAccumulatorResource::new);
+        this.getEntityStoreRegistry().registerSystem(new RecoilFlushSystem(this.recoilAccumulatorResourceType));
+        this.hitQueueResourceType = this.getEntityStoreRegistry().registerResource(HitQueueResource.class, HitQueueResource::new);
+        this.knockbackAccumulatorResourceType = this.getEntityStoreRegistry().registerResource(KnockbackAccumulatorResource.class, KnockbackAccumulatorResource::new);
+        this.getEntityStoreRegistry().registerSystem(new HitResolutionSystem(this.hitQueueResourceType, this.knockbackAccumulatorResourceType));
+        this.getEntityStoreRegistry().registerSystem(new KnockbackFlushSystem(this.knockbackAccumulatorResourceType));
 
         // Register commands
         this.getCommandRegistry().registerCommand(new ShowFirearmRegistryCommand());
@@ -220,13 +283,70 @@ public class HFF extends JavaPlugin {
         return holdingFirearmComponentType;
     }
 
+    /**
+     * Returns the resource type for the projectile lifetime wheel.
+     *
+     * @return The resource type for {@link ProjectileLifetimeResource}.
+     */
+    public ResourceType<EntityStore, ProjectileLifetimeResource> getProjectileLifetimeResourceType() {
+        return projectileLifetimeResourceType;
+    }
+
+    /**
+     * Returns the resource type for the ballistic simulation.
+     *
+     * @return The resource type for {@link BallisticSimulationResource}.
+     */
+    public ResourceType<EntityStore, BallisticSimulationResource> getBallisticSimulationResourceType() {
+        return ballisticSimulationResourceType;
+    }
+
+    /**
+     * Returns the resource type for the broad-phase grid of hittable entities.
+     *
+     * @return The resource type for {@link EntityGridResource}.
+     */
+    public ResourceType<EntityStore, EntityGridResource> getEntityGridResourceType() {
+        return entityGridResourceType;
+    }
+
+    /**
+     * Returns the resource type for the per-tick recoil accumulator.
+     *
+     * @return The resource type for {@link RecoilAccumulatorResource}.
+     */
+    public ResourceType<EntityStore, RecoilAccumulatorResource> getRecoilAccumulatorResourceType() {
+        return recoilAccumulatorResourceType;
+    }
+
+    /**
+     * Returns the resource type for the per-tick hit queue.
+     *
+     * @return The resource type for {@link HitQueueResource}.
+     */
+    public ResourceType<EntityStore, HitQueueResource> getHitQueueResourceType() {
+        return hitQueueResourceType;
+    }
+
+    /**
+     * Returns the resource type for the knockback accumulator.
+     *
+     * @return The resource type for {@link KnockbackAccumulatorResource}.
+     */
+    public ResourceType<EntityStore, KnockbackAccumulatorResource> getKnockbackAccumulatorResourceType() {
+        return knockbackAccumulatorResourceType;
+    }
+
     /**
      * Called when the plugin is started.
-     * This method can be used to perform additional initialization tasks.
+     * Block assets are loaded at this point, so the {@link BlockHardnessIndex} is built here. All plugins have
+     * registered their listeners, so the event handles of {@link HFFEvents} are refreshed as well.
      */
     @Override
     protected void start() {
         super.start();
+        BlockHardnessIndex.build();
+        HFFEvents.refresh();
     }
 
     /**
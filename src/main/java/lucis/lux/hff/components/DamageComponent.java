@@ -1,13 +1,24 @@
 package lucis.lux.hff.components;
 
 import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.ExtraInfo;
 import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.codec.schema.SchemaContext;
+import com.hypixel.hytale.codec.schema.config.ArraySchema;
+import com.hypixel.hytale.codec.schema.config.Schema;
 import com.hypixel.hytale.component.Component;
 import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.data.FalloffTable;
+import lucis.lux.hff.data.ShotDescriptor;
+import org.bson.BsonBinary;
+import org.bson.BsonValue;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
+import java.nio.ByteBuffer;
+
 /**
  * The {@code DamageComponent} class is a component that represents the damage properties of a projectile.
  * This component is used to track and manage various attributes related to damage, such as the base damage,
@@ -16,59 +27,84 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
  * <p>This component is part of the Entity Component System (ECS) architecture in Hytale and is used to
  * calculate the damage dealt by projectiles based on their flight distance and other factors.</p>
  *
+ * <p>Everything a projectile shares with the other pellets of its shot, such as its origin, ranges, falloff and
+ * knockback, lives in an immutable {@link ShotDescriptor} that is referenced instead of copied. Only the damage
+ * and the flight direction of the pellet are stored inline, so creating and cloning the component is cheap.</p>
+ *
+ * <p>The {@link #CODEC} covers the whole component, so projectiles keep their origin, ranges, falloff and direction
+ * when their chunk is saved and loaded. Vectors are packed as raw doubles, and the falloff is stored as the ID of
+ * its curve and compiled again when the projectile is loaded.</p>
+ *
  * <p>Example usage:</p>
  * <pre>
- *     // Create a new DamageComponent with default values
- *     DamageComponent damageComponent = new DamageComponent();
+ *     // Create one descriptor per shot
+ *     ShotDescriptor shot = new ShotDescriptor(origin, weaponUuid, ammoId, ammo, falloffId, falloff,
+ *             stats.optimalRange, stats.maxRange, stats.minDamageMultiplier, ammo.knockbackForce());
+ *
+ *     // Create one component per pellet
+ *     DamageComponent damageComponent = new DamageComponent(ammo.damage(), shot, direction);
  *
- *     // Set custom damage properties
- *     damageComponent.setDamage(10.0f);
- *     damageComponent.setOptimalRange(20.0f);
- *     damageComponent.setMaxRange(100.0f);
- *     damageComponent.setMinDamageMultiplier(0.1f);
- *     damageComponent.setKnockbackForce(0.5f);
- *     damageComponent.setFlightDirection(new Vector3d(0, 0, 1));
+ *     float finalDamage = damageComponent.getFinalDamage(distance);
  * </pre>
  */
 public class DamageComponent implements Component<EntityStore> {
 
     /**
-     * The {@link BuilderCodec} for serializing and deserializing this component.
+     * A custom {@link Codec} that packs a {@link Vector3d} into a {@link BsonBinary} of three doubles.
      */
-    public static final BuilderCodec<DamageComponent> CODEC = BuilderCodec.builder(DamageComponent.class, DamageComponent::new)
-            .append(new KeyedCodec<>("Damage", Codec.FLOAT), (c, v) -> c.damage = v, c -> c.damage)
-            .add()
-            .build();
+    public static final Codec<Vector3d> VECTOR_CODEC = new Codec<Vector3d>() {
+        @NullableDecl
+        @Override
+        public Vector3d decode(BsonValue bsonValue, ExtraInfo extraInfo) {
+            if (bsonValue instanceof BsonBinary binary) {
+                ByteBuffer buffer = ByteBuffer.wrap(binary.getData());
+                return new Vector3d(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+            }
+            return new Vector3d();
+        }
 
-    /**
-     * The base damage dealt by the projectile.
-     */
-    private float damage;
+        @Override
+        public BsonValue encode(Vector3d vector, ExtraInfo extraInfo) {
+            return new BsonBinary(ByteBuffer.allocate(VECTOR_BYTES)
+                    .putDouble(vector.x)
+                    .putDouble(vector.y)
+                    .putDouble(vector.z)
+                    .array());
+        }
 
-    /**
-     * The starting position of the projectile.
-     */
-    private Vector3d startPosition;
+        @NonNullDecl
+        @Override
+        public Schema toSchema(@NonNullDecl SchemaContext schemaContext) {
+            return new ArraySchema();
+        }
+    };
 
     /**
-     * The optimal range at which the projectile deals full damage.
+     * The {@link BuilderCodec} for serializing and deserializing this component.
      */
-    private float optimalRange;
+    public static final BuilderCodec<DamageComponent> CODEC = BuilderCodec.builder(DamageComponent.class, DamageComponent::new)
+            .append(new KeyedCodec<>("Damage", Codec.FLOAT), (c, v) -> c.damage = v, c -> c.damage)
+            .add()
+            .append(new KeyedCodec<>("FlightDirection", VECTOR_CODEC), (c, v) -> c.flightDirection = v, c -> c.flightDirection)
+            .add()
+            .append(new KeyedCodec<>("Shot", ShotDescriptor.CODEC), (c, v) -> c.shot = v, c -> c.shot)
+            .add()
+            .build();
 
     /**
-     * The maximum range at which the projectile can deal damage.
+     * The number of bytes of a packed vector.
      */
-    private float maxRange;
+    private static final int VECTOR_BYTES = 3 * Double.BYTES;
 
     /**
-     * The minimum damage multiplier applied when the projectile is at maximum range.
+     * The base damage dealt by the projectile.
      */
-    private float minDamageMultiplier;
+    private float damage;
 
     /**
-     * The force of the knockback applied when the projectile hits a target.
+     * The data shared with the other pellets of the shot.
      */
-    private float knockbackForce;
+    private ShotDescriptor shot;
 
     /**
      * The direction in which the projectile is flying.
@@ -80,57 +116,59 @@ public class DamageComponent implements Component<EntityStore> {
      * Default values are:
      * <ul>
      *   <li>Damage: 1</li>
-     *   <li>Optimal Range: 15.0</li>
-     *   <li>Maximum Range: 30.0</li>
-     *   <li>Minimum Damage Multiplier: 0.2</li>
-     *   <li>Knockback Force: 0.1</li>
-     *   <li>Start Position: (0, 0, 0)</li>
+     *   <li>Shot: {@link ShotDescriptor#DEFAULT}</li>
      *   <li>Flight Direction: (0, 0, 0)</li>
      * </ul>
      */
     public DamageComponent() {
         this.damage = 1;
-        this.maxRange = 30.0f;
-        this.minDamageMultiplier = 0.2f;
-        this.optimalRange = 15.0f;
-        this.startPosition = new Vector3d();
-        this.knockbackForce = 0.1f;
+        this.shot = ShotDescriptor.DEFAULT;
         this.flightDirection = new Vector3d();
     }
 
     /**
      * Constructs a new {@code DamageComponent} with the specified damage properties.
      *
+     * @param damage          The base damage dealt by the projectile.
+     * @param shot            The data shared with the other pellets of the shot.
+     * @param flightDirection The direction in which the projectile is flying.
+     */
+    public DamageComponent(float damage, ShotDescriptor shot, Vector3d flightDirection) {
+        this.damage = damage;
+        this.shot = shot;
+        this.flightDirection = flightDirection;
+    }
+
+    /**
+     * Constructs a new {@code DamageComponent} with its own {@link ShotDescriptor}.
+     *
      * @param damage              The base damage dealt by the projectile.
      * @param startPosition       The starting position of the projectile.
      * @param optimalRange        The optimal range at which the projectile deals full damage.
      * @param maxRange            The maximum range at which the projectile can deal damage.
-     * @param minDamageMultiplier The minimum damage multiplier applied when the projectile is at maximum range.
+     * @param minDamageMultiplier The minimum damage multiplier applied at maximum range.
      * @param knockbackForce      The force of the knockback applied when the projectile hits a target.
      * @param flightDirection     The direction in which the projectile is flying.
+     * @param falloff             The precompiled damage falloff, or {@code null} to use a linear falloff.
+     * @deprecated Creates one descriptor per pellet. Create one {@link ShotDescriptor} per shot and use
+     * {@link #DamageComponent(float, ShotDescriptor, Vector3d)} instead.
      */
-    public DamageComponent(float damage, Vector3d startPosition, float optimalRange, float maxRange, float minDamageMultiplier, float knockbackForce, Vector3d flightDirection) {
-        this.damage = damage;
-        this.startPosition = startPosition;
-        this.minDamageMultiplier = minDamageMultiplier;
-        this.maxRange = maxRange;
-        this.optimalRange = optimalRange;
-        this.knockbackForce = knockbackForce;
-        this.flightDirection = flightDirection;
+    @Deprecated
+    public DamageComponent(float damage, Vector3d startPosition, float optimalRange, float maxRange, float minDamageMultiplier,
+                           float knockbackForce, Vector3d flightDirection, FalloffTable falloff) {
+        this(damage, new ShotDescriptor(startPosition, null, null, null, null, falloff, optimalRange, maxRange, minDamageMultiplier, knockbackForce),
+                flightDirection);
     }
 
     /**
      * Constructs a new {@code DamageComponent} by copying the state from another component.
+     * The shot descriptor is shared, not copied.
      *
      * @param other The component to copy.
      */
     public DamageComponent(DamageComponent other) {
         this.damage = other.damage;
-        this.optimalRange = other.optimalRange;
-        this.minDamageMultiplier = other.minDamageMultiplier;
-        this.maxRange = other.maxRange;
-        this.startPosition = other.startPosition;
-        this.knockbackForce = other.knockbackForce;
+        this.shot = other.shot;
         this.flightDirection = other.flightDirection;
     }
 
@@ -164,21 +202,43 @@ public class DamageComponent implements Component<EntityStore> {
     }
 
     /**
-     * Returns the starting position of the projectile.
+     * Returns the data shared with the other pellets of the shot.
+     *
+     * @return The shot descriptor.
+     */
+    public ShotDescriptor getShot() {
+        return shot;
+    }
+
+    /**
+     * Sets the data shared with the other pellets of the shot.
+     *
+     * @param shot The shot descriptor to set.
+     */
+    public void setShot(ShotDescriptor shot) {
+        this.shot = shot;
+    }
+
+    /**
+     * Returns a copy of the starting position of the projectile.
      *
-     * @return The starting position.
+     * @return A new vector holding the starting position.
      */
     public Vector3d getStartPosition() {
-        return startPosition;
+        return shot.getOrigin();
     }
 
     /**
      * Sets the starting position of the projectile.
      *
      * @param startPosition The starting position to set.
+     * @deprecated The starting position is shared with the other pellets of the shot. This method replaces the
+     * {@link ShotDescriptor} of this projectile with a modified copy, so the other pellets are not affected.
+     * Create the component with the right {@link ShotDescriptor} instead.
      */
+    @Deprecated
     public void setStartPosition(Vector3d startPosition) {
-        this.startPosition = startPosition;
+        this.shot = copyShot(startPosition, shot.getFalloff(), shot.getOptimalRange(), shot.getMaxRange(), shot.getMinDamageMultiplier(), shot.getKnockbackForce());
     }
 
     /**
@@ -187,16 +247,20 @@ public class DamageComponent implements Component<EntityStore> {
      * @return The optimal range.
      */
     public float getOptimalRange() {
-        return optimalRange;
+        return shot.getOptimalRange();
     }
 
     /**
      * Sets the optimal range at which the projectile deals full damage.
      *
      * @param optimalRange The optimal range to set.
+     * @deprecated The optimal range is shared with the other pellets of the shot. This method replaces the
+     * {@link ShotDescriptor} of this projectile with a modified copy, so the other pellets are not affected.
+     * Create the component with the right {@link ShotDescriptor} instead.
      */
+    @Deprecated
     public void setOptimalRange(float optimalRange) {
-        this.optimalRange = optimalRange;
+        this.shot = copyShot(shot.getOrigin(), shot.getFalloff(), optimalRange, shot.getMaxRange(), shot.getMinDamageMultiplier(), shot.getKnockbackForce());
     }
 
     /**
@@ -205,16 +269,20 @@ public class DamageComponent implements Component<EntityStore> {
      * @return The maximum range.
      */
     public float getMaxRange() {
-        return maxRange;
+        return shot.getMaxRange();
     }
 
     /**
      * Sets the maximum range at which the projectile can deal damage.
      *
      * @param maxRange The maximum range to set.
+     * @deprecated The maximum range is shared with the other pellets of the shot. This method replaces the
+     * {@link ShotDescriptor} of this projectile with a modified copy, so the other pellets are not affected.
+     * Create the component with the right {@link ShotDescriptor} instead.
      */
+    @Deprecated
     public void setMaxRange(float maxRange) {
-        this.maxRange = maxRange;
+        this.shot = copyShot(shot.getOrigin(), shot.getFalloff(), shot.getOptimalRange(), maxRange, shot.getMinDamageMultiplier(), shot.getKnockbackForce());
     }
 
     /**
@@ -223,16 +291,20 @@ public class DamageComponent implements Component<EntityStore> {
      * @return The minimum damage multiplier.
      */
     public float getMinDamageMultiplier() {
-        return minDamageMultiplier;
+        return shot.getMinDamageMultiplier();
     }
 
     /**
      * Sets the minimum damage multiplier applied when the projectile is at maximum range.
      *
      * @param minDamageMultiplier The minimum damage multiplier to set.
+     * @deprecated The multiplier is shared with the other pellets of the shot. This method replaces the
+     * {@link ShotDescriptor} of this projectile with a modified copy, so the other pellets are not affected.
+     * Create the component with the right {@link ShotDescriptor} instead.
      */
+    @Deprecated
     public void setMinDamageMultiplier(float minDamageMultiplier) {
-        this.minDamageMultiplier = minDamageMultiplier;
+        this.shot = copyShot(shot.getOrigin(), shot.getFalloff(), shot.getOptimalRange(), shot.getMaxRange(), minDamageMultiplier, shot.getKnockbackForce());
     }
 
     /**
@@ -241,16 +313,63 @@ public class DamageComponent implements Component<EntityStore> {
      * @return The knockback force.
      */
     public float getKnockbackForce() {
-        return knockbackForce;
+        return shot.getKnockbackForce();
     }
 
     /**
      * Sets the force of the knockback applied when the projectile hits a target.
      *
      * @param knockbackForce The knockback force to set.
+     * @deprecated The knockback force is shared with the other pellets of the shot. This method replaces the
+     * {@link ShotDescriptor} of this projectile with a modified copy, so the other pellets are not affected.
+     * Create the component with the right {@link ShotDescriptor} instead.
      */
+    @Deprecated
     public void setKnockbackForce(float knockbackForce) {
-        this.knockbackForce = knockbackForce;
+        this.shot = copyShot(shot.getOrigin(), shot.getFalloff(), shot.getOptimalRange(), shot.getMaxRange(), shot.getMinDamageMultiplier(), knockbackForce);
+    }
+
+    /**
+     * Returns the precompiled damage falloff of the projectile.
+     *
+     * @return The falloff table, or {@code null} if the damage falls off linearly.
+     */
+    public FalloffTable getFalloff() {
+        return shot.getFalloff();
+    }
+
+    /**
+     * Sets the precompiled damage falloff of the projectile.
+     *
+     * @param falloff The falloff table to set, or {@code null} to use a linear falloff.
+     * @deprecated The falloff is shared with the other pellets of the shot. This method replaces the
+     * {@link ShotDescriptor} of this projectile with a modified copy, so the other pellets are not affected.
+     * Create the component with the right {@link ShotDescriptor} instead.
+     */
+    @Deprecated
+    public void setFalloff(FalloffTable falloff) {
+        this.shot = copyShot(shot.getOrigin(), falloff, shot.getOptimalRange(), shot.getMaxRange(), shot.getMinDamageMultiplier(), shot.getKnockbackForce());
+    }
+
+    /**
+     * Creates a copy of the shot descriptor of this projectile with the given values, keeping its firearm and
+     * ammunition. Used by the deprecated setters, which must not change the other pellets of the shot.
+     *
+     * @param origin              The position the shot was fired from.
+     * @param falloff             The precompiled damage falloff.
+     * @param optimalRange        The range up to which the shot deals full damage.
+     * @param maxRange            The range at which the shot reaches its minimum damage.
+     * @param minDamageMultiplier The damage multiplier applied at and beyond the maximum range.
+     * @param knockbackForce      The force of the knockback.
+     * @return The new shot descriptor.
+     */
+    private ShotDescriptor copyShot(Vector3d origin, FalloffTable falloff, float optimalRange, float maxRange, float minDamageMultiplier, float knockbackForce) {
+        // The falloff can only be compiled again from its curve if neither the table nor its ranges changed
+        boolean recompilable = falloff == shot.getFalloff() && optimalRange == shot.getOptimalRange()
+                && maxRange == shot.getMaxRange() && minDamageMultiplier == shot.getMinDamageMultiplier();
+        return new ShotDescriptor(origin, shot.getWeaponUuid(), shot.getAmmoId(), shot.getAmmo(),
+                recompilable ? shot.getFalloffId() : null, falloff,
+                optimalRange, maxRange, minDamageMultiplier, knockbackForce);
     }
 
     /**
@@ -270,4 +389,14 @@ public class DamageComponent implements Component<EntityStore> {
     public void setFlightDirection(Vector3d flightDirection) {
         this.flightDirection = flightDirection;
     }
+
+    /**
+     * Calculates the damage dealt at the given distance, including the global damage multiplier.
+     *
+     * @param distance The distance between the projectile's starting position and the hit position.
+     * @return The final damage after applying distance-based falloff.
+     */
+    public float getFinalDamage(double distance) {
+        return damage * shot.getDamageMultiplier(distance);
+    }
 }
@@ -4,21 +4,41 @@ import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.data.FirearmStats;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
+import java.util.Arrays;
+import java.util.UUID;
+
 /**
  * The {@code ReloadingComponent} class is a component that represents the reloading state of a firearm.
- * This component is used to track whether a firearm is currently in the process of reloading.
+ * It tracks whether a reload is in progress, how far it has progressed, and what will be loaded once it completes.
+ *
+ * <p>A reload is a small state machine:</p>
+ * <ol>
+ *     <li>The {@link lucis.lux.hff.interactions.ReloadInteraction} marks the slots holding the rounds or the magazine
+ *     as pending, calls {@link #start} and adds the component to the player. The items stay in the inventory.</li>
+ *     <li>The {@link lucis.lux.hff.systems.ReloadSystem} advances the reload every tick.</li>
+ *     <li>Once the duration has elapsed, the system takes the pending rounds or the pending magazine out of their
+ *     slots and loads them into the firearm. If the reload is interrupted instead, nothing has been taken. In both
+ *     cases the component is removed again.</li>
+ * </ol>
+ *
+ * <p>A player therefore only has this component while a reload is in progress. Since the items are only taken
+ * when the reload completes, a reload that ends in any other way, including a logout, a crash or a world save, never
+ * loses them. This is also why only the reloading flag is persisted.</p>
  *
- * <p>This component is typically used in conjunction with the {@link lucis.lux.hff.systems.ReloadSystem}
- * to manage the reloading process of firearms in the HFF (Hytale Firearm Framework) plugin.</p>
+ * <p>HUDs can read the progress of the current reload through {@link #getProgress()}.</p>
  *
  * <p>Example usage:</p>
  * <pre>
- *     ReloadingComponent reloadingComponent = new ReloadingComponent();
- *     reloadingComponent.setReloading(true);
- *     boolean isReloading = reloadingComponent.isReloading();
+ *     reloading.addPendingRounds(storage, slot, "9mm_ammo", 15);
+ *     reloading.start(weaponUuid, weapon, stats, 2.5f);
+ *
+ *     float progress = reloading.getProgress();
  * </pre>
  */
 public class ReloadingComponent implements Component<EntityStore> {
@@ -36,6 +56,76 @@ public class ReloadingComponent implements Component<EntityStore> {
      */
     private boolean isReloading;
 
+    /**
+     * The time in seconds that has passed since the reload started.
+     */
+    private float elapsed;
+
+    /**
+     * The total duration of the reload in seconds.
+     */
+    private float duration;
+
+    /**
+     * The UUID of the firearm being reloaded.
+     */
+    private UUID weaponUuid;
+
+    /**
+     * The firearm item being reloaded.
+     */
+    private ItemStack weapon;
+
+    /**
+     * The modified statistics of the firearm being reloaded.
+     */
+    private FirearmStats stats;
+
+    /**
+     * The container of each slot the pending rounds are taken from when the reload completes.
+     */
+    private ItemContainer[] pendingContainers = new ItemContainer[2];
+
+    /**
+     * The slot the pending rounds of each source are taken from.
+     */
+    private short[] pendingSlots = new short[2];
+
+    /**
+     * The item ID of the pending rounds of each source.
+     */
+    private String[] pendingAmmoIds = new String[2];
+
+    /**
+     * The number of pending rounds of each source.
+     */
+    private int[] pendingCounts = new int[2];
+
+    /**
+     * The number of slots pending rounds are taken from.
+     */
+    private int pendingSources;
+
+    /**
+     * The container of the magazine that is inserted when the reload completes.
+     */
+    private ItemContainer pendingMagazineContainer;
+
+    /**
+     * The slot of the magazine that is inserted when the reload completes.
+     */
+    private short pendingMagazineSlot;
+
+    /**
+     * The UUID of the magazine that is inserted when the reload completes.
+     */
+    private UUID pendingMagazineUuid;
+
+    /**
+     * The item ID of the magazine that is inserted when the reload completes.
+     */
+    private String pendingMagazineName;
+
     /**
      * Constructs a new {@code ReloadingComponent} with the default reloading state set to false.
      */
@@ -59,6 +149,20 @@ public class ReloadingComponent implements Component<EntityStore> {
      */
     public ReloadingComponent(ReloadingComponent other) {
         this.isReloading = other.isReloading;
+        this.elapsed = other.elapsed;
+        this.duration = other.duration;
+        this.weaponUuid = other.weaponUuid;
+        this.weapon = other.weapon;
+        this.stats = other.stats;
+        this.pendingContainers = Arrays.copyOf(other.pendingContainers, other.pendingContainers.length);
+        this.pendingSlots = Arrays.copyOf(other.pendingSlots, other.pendingSlots.length);
+        this.pendingAmmoIds = Arrays.copyOf(other.pendingAmmoIds, other.pendingAmmoIds.length);
+        this.pendingCounts = Arrays.copyOf(other.pendingCounts, other.pendingCounts.length);
+        this.pendingSources = other.pendingSources;
+        this.pendingMagazineContainer = other.pendingMagazineContainer;
+        this.pendingMagazineSlot = other.pendingMagazineSlot;
+        this.pendingMagazineUuid = other.pendingMagazineUuid;
+        this.pendingMagazineName = other.pendingMagazineName;
     }
 
     /**
@@ -82,7 +186,18 @@ public class ReloadingComponent implements Component<EntityStore> {
     }
 
     /**
-     * Sets the reloading state of the firearm.
+     * Returns whether a reload is actually in progress, that is whether the component is reloading and has been
+     * {@link #start started}. A component loaded from storage never is, as the reload it belonged to is gone.
+     *
+     * @return {@code true} if a started reload is in progress.
+     */
+    public boolean isActive() {
+        return isReloading && weaponUuid != null;
+    }
+
+    /**
+     * Sets the reloading state of the firearm. Setting it to {@code false} while a reload is in progress
+     * interrupts the reload on the next tick, and the pending items stay where they are.
      *
      * @param reloading The new reloading state.
      */
@@ -96,4 +211,235 @@ public class ReloadingComponent implements Component<EntityStore> {
     public void toggleReloading() {
         this.isReloading = !isReloading;
     }
+
+    /**
+     * Starts a reload of the pending rounds or magazine.
+     *
+     * @param weaponUuid The UUID of the firearm being reloaded.
+     * @param weapon     The firearm item being reloaded.
+     * @param stats      The modified statistics of the firearm.
+     * @param duration   The duration of the reload in seconds.
+     */
+    public void start(UUID weaponUuid, ItemStack weapon, FirearmStats stats, float duration) {
+        this.isReloading = true;
+        this.elapsed = 0;
+        this.duration = duration;
+        this.weaponUuid = weaponUuid;
+        this.weapon = weapon;
+        this.stats = stats;
+    }
+
+    /**
+     * Advances the reload.
+     *
+     * @param dt The time in seconds since the last tick.
+     * @return {@code true} if the reload has completed.
+     */
+    public boolean advance(float dt) {
+        elapsed += dt;
+        return elapsed >= duration;
+    }
+
+    /**
+     * Returns the progress of the current reload.
+     *
+     * @return The progress, from {@code 0} to {@code 1}, or {@code 0} if no reload is in progress.
+     */
+    public float getProgress() {
+        if (!isReloading) {
+            return 0;
+        }
+        return duration > 0 ? Math.min(1.0f, elapsed / duration) : 1.0f;
+    }
+
+    /**
+     * Marks rounds in a slot as pending. They are taken out of the slot and loaded when the reload completes.
+     *
+     * @param container The container holding the rounds.
+     * @param slot      The slot holding the rounds.
+     * @param ammoId    The item ID of the rounds.
+     * @param count     The number of rounds.
+     */
+    public void addPendingRounds(ItemContainer container, short slot, String ammoId, int count) {
+        if (pendingSources == pendingAmmoIds.length) {
+            int length = pendingSources * 2;
+            pendingContainers = Arrays.copyOf(pendingContainers, length);
+            pendingSlots = Arrays.copyOf(pendingSlots, length);
+            pendingAmmoIds = Arrays.copyOf(pendingAmmoIds, length);
+            pendingCounts = Arrays.copyOf(pendingCounts, length);
+        }
+        pendingContainers[pendingSources] = container;
+        pendingSlots[pendingSources] = slot;
+        pendingAmmoIds[pendingSources] = ammoId;
+        pendingCounts[pendingSources] = count;
+        pendingSources++;
+    }
+
+    /**
+     * Marks a magazine in a slot as pending. It is taken out of the slot and inserted when the reload completes.
+     *
+     * @param container The container holding the magazine.
+     * @param slot      The slot holding the magazine.
+     * @param uuid      The UUID of the magazine.
+     * @param name      The item ID of the magazine.
+     */
+    public void setPendingMagazine(ItemContainer container, short slot, UUID uuid, String name) {
+        this.pendingMagazineContainer = container;
+        this.pendingMagazineSlot = slot;
+        this.pendingMagazineUuid = uuid;
+        this.pendingMagazineName = name;
+    }
+
+    /**
+     * Returns whether rounds or a magazine are pending.
+     *
+     * @return {@code true} if anything is pending.
+     */
+    public boolean hasPending() {
+        return pendingSources > 0 || pendingMagazineName != null;
+    }
+
+    /**
+     * Returns the number of pending rounds.
+     *
+     * @return The number of pending rounds.
+     */
+    public int getPendingRoundCount() {
+        int count = 0;
+        for (int i = 0; i < pendingSources; i++) {
+            count += pendingCounts[i];
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of slots pending rounds are taken from.
+     *
+     * @return The number of sources.
+     */
+    public int getPendingSources() {
+        return pendingSources;
+    }
+
+    /**
+     * Returns the container of a source of pending rounds.
+     *
+     * @param index The index of the source.
+     * @return The container.
+     */
+    public ItemContainer getPendingContainer(int index) {
+        return pendingContainers[index];
+    }
+
+    /**
+     * Returns the slot of a source of pending rounds.
+     *
+     * @param index The index of the source.
+     * @return The slot.
+     */
+    public short getPendingSlot(int index) {
+        return pendingSlots[index];
+    }
+
+    /**
+     * Returns the item ID of the rounds of a source.
+     *
+     * @param index The index of the source.
+     * @return The item ID.
+     */
+    public String getPendingAmmoId(int index) {
+        return pendingAmmoIds[index];
+    }
+
+    /**
+     * Returns the number of pending rounds of a source.
+     *
+     * @param index The index of the source.
+     * @return The number of rounds.
+     */
+    public int getPendingCount(int index) {
+        return pendingCounts[index];
+    }
+
+    /**
+     * Returns the container of the pending magazine.
+     *
+     * @return The container, or {@code null} if no magazine is pending.
+     */
+    public ItemContainer getPendingMagazineContainer() {
+        return pendingMagazineContainer;
+    }
+
+    /**
+     * Returns the slot of the pending magazine.
+     *
+     * @return The slot.
+     */
+    public short getPendingMagazineSlot() {
+        return pendingMagazineSlot;
+    }
+
+    /**
+     * Returns the UUID of the pending magazine.
+     *
+     * @return The UUID of the pending magazine, or {@code null} if none is pending.
+     */
+    public UUID getPendingMagazineUuid() {
+        return pendingMagazineUuid;
+    }
+
+    /**
+     * Returns the item ID of the pending magazine.
+     *
+     * @return The item ID of the pending magazine, or {@code null} if none is pending.
+     */
+    public String getPendingMagazineName() {
+        return pendingMagazineName;
+    }
+
+    /**
+     * Returns the UUID of the firearm being reloaded.
+     *
+     * @return The UUID of the firearm.
+     */
+    public UUID getWeaponUuid() {
+        return weaponUuid;
+    }
+
+    /**
+     * Returns the firearm item being reloaded.
+     *
+     * @return The firearm item.
+     */
+    public ItemStack getWeapon() {
+        return weapon;
+    }
+
+    /**
+     * Returns the modified statistics of the firearm being reloaded.
+     *
+     * @return The statistics of the firearm.
+     */
+    public FirearmStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Clears the current reload and everything pending. The pending arrays are kept for the next reload.
+     */
+    public void reset() {
+        this.isReloading = false;
+        this.elapsed = 0;
+        this.duration = 0;
+        this.weaponUuid = null;
+        this.weapon = null;
+        this.stats = null;
+        Arrays.fill(pendingContainers, 0, pendingSources, null);
+        Arrays.fill(pendingAmmoIds, 0, pendingSources, null);
+        this.pendingSources = 0;
+        this.pendingMagazineContainer = null;
+        this.pendingMagazineSlot = 0;
+        this.pendingMagazineUuid = null;
+        this.pendingMagazineName = null;
+    }
 }
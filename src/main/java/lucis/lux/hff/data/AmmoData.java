@@ -1,8 +1,12 @@
 package lucis.lux.hff.data;
 
+import lucis.lux.hff.data.registry.CalibreIndex;
+
 /**
  * The {@code AmmoData} record represents the data associated with the type of ammunition.
- * This record stores the calibre, projectile ID, and damage value of the ammunition.
+ * This record stores the calibre, projectile ID, damage value, hitscan threshold, ballistic
+ * coefficients, armor penetration, wall penetration, ricochet behaviour, knockback and explosive properties of the
+ * ammunition.
  *
  * <p>This record is immutable and provides a convenient way to store and retrieve
  * ammunition data. It is typically used in conjunction with firearm components to
@@ -14,14 +18,62 @@ package lucis.lux.hff.data;
  *          .calibre("9mm")
  *          .projectileId("9mm_projectile")
  *          .damage(5.0f)
+ *          .hitscanVelocity(300.0f)
+ *          .drag(0.05f)
+ *          .gravity(9.81f)
+ *          .armorPenetration(0.3f)
+ *          .penetrationPower(2.0f)
+ *          .ricochetAngle(15.0f)
+ *          .knockbackForce(0.1f)
+ *          .build();
+ *
+ *     AmmoData rocket = AmmoData.builder()
+ *          .calibre("rocket")
+ *          .damage(40.0f)
+ *          .blastRadius(4.0f)
+ *          .blastFalloff(1.5f)
+ *          .fragmentCount(24)
+ *          .fragmentDamage(3.0f)
  *          .build();
  * </pre>
  *
- * @param calibre      The calibre of the ammunition.
- * @param projectileId The ID of the projectile associated with the ammunition.
- * @param damage       The damage value of the ammunition.
+ * @param calibre          The calibre of the ammunition.
+ * @param calibreId        The interned ID of the calibre, see {@link CalibreIndex}.
+ * @param projectileId     The ID of the projectile associated with the ammunition.
+ * @param damage           The damage value of the ammunition.
+ * @param hitscanVelocity  The projectile velocity at or above which rounds are resolved instantly as hitscan
+ *                         instead of spawning a projectile entity. {@code 0} disables hitscan.
+ * @param drag             The fraction of velocity lost per second to air resistance in the ballistic simulation.
+ * @param gravity          The downward acceleration in blocks per second squared applied in the ballistic simulation.
+ * @param armorPenetration The fraction of the armor of the hit zone ({@code 0} to {@code 1}) the round ignores,
+ *                         see {@link HitboxTable#getDamageMultiplier(int, float)}.
+ * @param penetrationPower The total block hardness a round can pass through before it stops,
+ *                         see {@link lucis.lux.hff.data.registry.BlockHardnessIndex}. {@code 0} stops at the first solid block.
+ * @param ricochetAngle    The largest angle in degrees between the flight direction and a block surface at which
+ *                         a round ricochets instead of penetrating or stopping. {@code 0} disables ricochets.
+ * @param knockbackForce   The force of the knockback applied when a round hits a target.
+ * @param blastRadius      The radius in blocks of the explosion when the round detonates. {@code 0} makes the round
+ *                         non-explosive; explosive rounds deal their {@code damage} as blast damage instead of to the
+ *                         entity they hit, see {@link lucis.lux.hff.util.ExplosionResolver}.
+ * @param blastFalloff     The exponent of the blast damage falloff. Blast damage is scaled by
+ *                         {@code (1 - distance / blastRadius) ^ blastFalloff}; {@code 0} deals full damage within the radius.
+ * @param fragmentCount    The number of fragments an explosion throws, each traced as a ray up to the blast radius.
+ * @param fragmentDamage   The damage of each fragment that hits an entity.
+ * @param selfDamage       Whether the explosion of the round damages the entity that fired it.
  */
-public record AmmoData(String calibre, String projectileId, float damage) {
+public record AmmoData(String calibre, int calibreId, String projectileId, float damage, float hitscanVelocity, float drag, float gravity,
+                       float armorPenetration, float penetrationPower, float ricochetAngle, float knockbackForce,
+                       float blastRadius, float blastFalloff, int fragmentCount, float fragmentDamage,
+                       boolean selfDamage) {
+
+    /**
+     * Returns whether the ammunition explodes when it hits something.
+     *
+     * @return {@code true} if the blast radius is greater than {@code 0}.
+     */
+    public boolean isExplosive() {
+        return blastRadius > 0;
+    }
 
     /**
      * Creates a new {@link Builder} instance for constructing an {@code AmmoData} object.
@@ -41,7 +93,19 @@ public record AmmoData(String calibre, String projectileId, float damage) {
         return new Builder()
                 .calibre(calibre)
                 .damage(damage)
-                .projectileId(projectileId);
+                .projectileId(projectileId)
+                .hitscanVelocity(hitscanVelocity)
+                .drag(drag)
+                .gravity(gravity)
+                .armorPenetration(armorPenetration)
+                .penetrationPower(penetrationPower)
+                .ricochetAngle(ricochetAngle)
+                .knockbackForce(knockbackForce)
+                .blastRadius(blastRadius)
+                .blastFalloff(blastFalloff)
+                .fragmentCount(fragmentCount)
+                .fragmentDamage(fragmentDamage)
+                .selfDamage(selfDamage);
     }
 
     /**
@@ -61,6 +125,54 @@ public record AmmoData(String calibre, String projectileId, float damage) {
          * The damage value of the ammunition. Defaults to 1.0.
          */
         private float damage = 1.0f;
+        /**
+         * The velocity threshold for hitscan resolution. Defaults to 0.0 (disabled).
+         */
+        private float hitscanVelocity = 0.0f;
+        /**
+         * The fraction of velocity lost per second to air resistance. Defaults to 0.0.
+         */
+        private float drag = 0.0f;
+        /**
+         * The downward acceleration in blocks per second squared. Defaults to 9.81.
+         */
+        private float gravity = 9.81f;
+        /**
+         * The fraction of armor the round ignores. Defaults to 0.0.
+         */
+        private float armorPenetration = 0.0f;
+        /**
+         * The total block hardness a round can pass through. Defaults to 0.0.
+         */
+        private float penetrationPower = 0.0f;
+        /**
+         * The largest angle in degrees at which a round ricochets. Defaults to 0.0 (disabled).
+         */
+        private float ricochetAngle = 0.0f;
+        /**
+         * The force of the knockback applied when a round hits a target. Defaults to 0.1.
+         */
+        private float knockbackForce = 0.1f;
+        /**
+         * The radius of the explosion. Defaults to 0.0 (not explosive).
+         */
+        private float blastRadius = 0.0f;
+        /**
+         * The exponent of the blast damage falloff. Defaults to 1.0 (linear).
+         */
+        private float blastFalloff = 1.0f;
+        /**
+         * The number of fragments an explosion throws. Defaults to 0.
+         */
+        private int fragmentCount = 0;
+        /**
+         * The damage of each fragment. Defaults to 0.0.
+         */
+        private float fragmentDamage = 0.0f;
+        /**
+         * Whether the explosion damages the entity that fired the round. Defaults to false.
+         */
+        private boolean selfDamage = false;
 
         /**
          * Constructs a new builder with default values.
@@ -101,13 +213,147 @@ public record AmmoData(String calibre, String projectileId, float damage) {
             return this;
         }
 
+        /**
+         * Sets the projectile velocity at or above which rounds are resolved as hitscan.
+         *
+         * @param hitscanVelocity The velocity threshold, or {@code 0} to disable hitscan.
+         * @return This builder instance.
+         */
+        public Builder hitscanVelocity(float hitscanVelocity) {
+            this.hitscanVelocity = hitscanVelocity;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of velocity lost per second to air resistance.
+         *
+         * @param drag The drag coefficient.
+         * @return This builder instance.
+         */
+        public Builder drag(float drag) {
+            this.drag = drag;
+            return this;
+        }
+
+        /**
+         * Sets the downward acceleration applied to the round.
+         *
+         * @param gravity The gravity in blocks per second squared.
+         * @return This builder instance.
+         */
+        public Builder gravity(float gravity) {
+            this.gravity = gravity;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of the armor of the hit zone the round ignores.
+         *
+         * @param armorPenetration The armor penetration, from {@code 0} to {@code 1}.
+         * @return This builder instance.
+         */
+        public Builder armorPenetration(float armorPenetration) {
+            this.armorPenetration = armorPenetration;
+            return this;
+        }
+
+        /**
+         * Sets the total block hardness a round can pass through before it stops.
+         *
+         * @param penetrationPower The penetration power, or {@code 0} to stop at the first solid block.
+         * @return This builder instance.
+         */
+        public Builder penetrationPower(float penetrationPower) {
+            this.penetrationPower = penetrationPower;
+            return this;
+        }
+
+        /**
+         * Sets the largest angle between the flight direction and a block surface at which a round ricochets.
+         *
+         * @param ricochetAngle The ricochet angle in degrees, or {@code 0} to disable ricochets.
+         * @return This builder instance.
+         */
+        public Builder ricochetAngle(float ricochetAngle) {
+            this.ricochetAngle = ricochetAngle;
+            return this;
+        }
+
+        /**
+         * Sets the force of the knockback applied when a round hits a target.
+         *
+         * @param knockbackForce The knockback force.
+         * @return This builder instance.
+         */
+        public Builder knockbackForce(float knockbackForce) {
+            this.knockbackForce = knockbackForce;
+            return this;
+        }
+
+        /**
+         * Sets the radius of the explosion when the round detonates.
+         *
+         * @param blastRadius The blast radius in blocks, or {@code 0} to make the round non-explosive.
+         * @return This builder instance.
+         */
+        public Builder blastRadius(float blastRadius) {
+            this.blastRadius = blastRadius;
+            return this;
+        }
+
+        /**
+         * Sets the exponent of the blast damage falloff.
+         *
+         * @param blastFalloff The falloff exponent, or {@code 0} for full damage within the radius.
+         * @return This builder instance.
+         */
+        public Builder blastFalloff(float blastFalloff) {
+            this.blastFalloff = blastFalloff;
+            return this;
+        }
+
+        /**
+         * Sets the number of fragments an explosion throws.
+         *
+         * @param fragmentCount The number of fragments.
+         * @return This builder instance.
+         */
+        public Builder fragmentCount(int fragmentCount) {
+            this.fragmentCount = fragmentCount;
+            return this;
+        }
+
+        /**
+         * Sets the damage of each fragment that hits an entity.
+         *
+         * @param fragmentDamage The fragment damage.
+         * @return This builder instance.
+         */
+        public Builder fragmentDamage(float fragmentDamage) {
+            this.fragmentDamage = fragmentDamage;
+            return this;
+        }
+
+        /**
+         * Sets whether the explosion of the round damages the entity that fired it.
+         *
+         * @param selfDamage {@code true} if the shooter is caught in its own explosions.
+         * @return This builder instance.
+         */
+        public Builder selfDamage(boolean selfDamage) {
+            this.selfDamage = selfDamage;
+            return this;
+        }
+
         /**
          * Builds a new {@code AmmoData} object with the values set in this builder.
          *
          * @return A new {@code AmmoData} object.
          */
         public AmmoData build() {
-            return new AmmoData(calibre, projectileId, damage);
+            return new AmmoData(calibre, CalibreIndex.intern(calibre), projectileId, damage, hitscanVelocity, drag, gravity, armorPenetration,
+                    penetrationPower, ricochetAngle, knockbackForce, blastRadius, blastFalloff, fragmentCount, fragmentDamage,
+                    selfDamage);
         }
     }
 }
@@ -0,0 +1,149 @@
+package lucis.lux.hff.data;
+
+import lucis.lux.hff.enums.FalloffType;
+
+/**
+ * The {@code FalloffCurve} class describes how the damage of a round drops between the optimal and the maximum range.
+ * Curves are defined in the {@code firearm_stats} or {@code ammo} block of an item and compiled into a
+ * {@link FalloffTable} once per firearm, so resolving a hit is a table lookup instead of evaluating the curve.
+ *
+ * <p>Distances along the curve are expressed as a fraction of the way from the optimal range ({@code 0}) to the
+ * maximum range ({@code 1}). The following curve types are supported:</p>
+ * <ul>
+ *     <li><b>{@link FalloffType#LINEAR}:</b> The damage drops linearly to the minimum damage multiplier.</li>
+ *     <li><b>{@link FalloffType#STEPPED}:</b> The damage drops in {@code steps} equal steps.</li>
+ *     <li><b>{@link FalloffType#EXPONENTIAL}:</b> The damage loss follows {@code fraction ^ exponent}.</li>
+ *     <li><b>{@link FalloffType#CUSTOM}:</b> The damage follows a list of {@code [fraction, multiplier]} points.
+ *     The multipliers are absolute, so the minimum damage multiplier of the firearm is ignored.</li>
+ * </ul>
+ *
+ * <p>If both the firearm and its ammunition define a curve, the curve of the ammunition is used.</p>
+ *
+ * <p>Example JSON:</p>
+ * <pre>
+ *     "falloff": { "type": "STEPPED", "steps": 3 }
+ *     "falloff": { "type": "EXPONENTIAL", "exponent": 2.0 }
+ *     "falloff": { "type": "CUSTOM", "points": [[0.0, 1.0], [0.5, 0.9], [1.0, 0.3]] }
+ * </pre>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     FalloffCurve curve = Registries.FALLOFF_CURVES.get(itemId);
+ *     FalloffTable table = curve.compile(optimalRange, maxRange, minDamageMultiplier, globalDamageMultiplier);
+ * </pre>
+ */
+public final class FalloffCurve {
+
+    /**
+     * The curve used by items that do not define one.
+     */
+    public static final FalloffCurve LINEAR = new FalloffCurve(FalloffType.LINEAR, 1, 1.0f, new float[0], new float[0]);
+
+    /**
+     * The shape of the curve.
+     */
+    private final FalloffType type;
+
+    /**
+     * The number of steps of a {@link FalloffType#STEPPED} curve.
+     */
+    private final int steps;
+
+    /**
+     * The exponent of an {@link FalloffType#EXPONENTIAL} curve.
+     */
+    private final float exponent;
+
+    /**
+     * The distance fraction of each point of a {@link FalloffType#CUSTOM} curve, in ascending order.
+     */
+    private final float[] pointDistances;
+
+    /**
+     * The damage multiplier of each point of a {@link FalloffType#CUSTOM} curve.
+     */
+    private final float[] pointMultipliers;
+
+    /**
+     * Constructs a new {@code FalloffCurve}. The point arrays must have the same length and are only used by
+     * {@link FalloffType#CUSTOM} curves; a custom curve without points behaves like a linear one.
+     *
+     * @param type             The shape of the curve.
+     * @param steps            The number of steps of a stepped curve.
+     * @param exponent         The exponent of an exponential curve.
+     * @param pointDistances   The distance fraction of each point, in ascending order.
+     * @param pointMultipliers The damage multiplier of each point.
+     */
+    public FalloffCurve(FalloffType type, int steps, float exponent, float[] pointDistances, float[] pointMultipliers) {
+        this.type = type;
+        this.steps = Math.max(1, steps);
+        this.exponent = exponent;
+        this.pointDistances = pointDistances;
+        this.pointMultipliers = pointMultipliers;
+    }
+
+    /**
+     * Returns the shape of the curve.
+     *
+     * @return The shape of the curve.
+     */
+    public FalloffType getType() {
+        return type;
+    }
+
+    /**
+     * Evaluates the curve.
+     *
+     * @param fraction            The fraction of the way from the optimal range to the maximum range, from {@code 0} to {@code 1}.
+     * @param minDamageMultiplier The damage multiplier at the maximum range.
+     * @return The damage multiplier at the given distance.
+     */
+    public float evaluate(float fraction, float minDamageMultiplier) {
+        float maxDamageLoss = 1.0f - minDamageMultiplier;
+        return switch (type) {
+            case LINEAR -> 1.0f - fraction * maxDamageLoss;
+            case STEPPED -> 1.0f - ((float) Math.floor(fraction * steps) / steps) * maxDamageLoss;
+            case EXPONENTIAL -> 1.0f - (float) Math.pow(fraction, exponent) * maxDamageLoss;
+            case CUSTOM -> pointDistances.length == 0 ? 1.0f - fraction * maxDamageLoss : evaluatePoints(fraction);
+        };
+    }
+
+    /**
+     * Interpolates linearly between the points of a custom curve. Before the first and after the last point,
+     * the multiplier of that point is held.
+     *
+     * @param fraction The fraction of the way from the optimal range to the maximum range.
+     * @return The damage multiplier at the given distance.
+     */
+    private float evaluatePoints(float fraction) {
+        if (fraction <= pointDistances[0]) {
+            return pointMultipliers[0];
+        }
+
+        for (int i = 1; i < pointDistances.length; i++) {
+            if (fraction <= pointDistances[i]) {
+                float span = pointDistances[i] - pointDistances[i - 1];
+                float t = span > 0 ? (fraction - pointDistances[i - 1]) / span : 1.0f;
+                return pointMultipliers[i - 1] + (pointMultipliers[i] - pointMultipliers[i - 1]) * t;
+            }
+        }
+        return pointMultipliers[pointMultipliers.length - 1];
+    }
+
+    /**
+     * Compiles this curve into a lookup table for the given ranges.
+     *
+     * @param optimalRange        The range up to which the round deals full damage.
+     * @param maxRange            The range at which the end of the curve is reached.
+     * @param minDamageMultiplier The damage multiplier at the maximum range.
+     * @param scale               A multiplier folded into every entry, usually the global damage multiplier.
+     * @return The compiled table.
+     */
+    public FalloffTable compile(float optimalRange, float maxRange, float minDamageMultiplier, float scale) {
+        float[] samples = new float[FalloffTable.RESOLUTION + 1];
+        for (int i = 0; i <= FalloffTable.RESOLUTION; i++) {
+            samples[i] = evaluate((float) i / FalloffTable.RESOLUTION, minDamageMultiplier) * scale;
+        }
+        return new FalloffTable(this, samples, optimalRange, maxRange, scale, type != FalloffType.STEPPED);
+    }
+}
@@ -0,0 +1,159 @@
+package lucis.lux.hff.data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The {@code FalloffTable} class is a {@link FalloffCurve} compiled for the ranges of a specific firearm and ammunition.
+ * It holds {@link #RESOLUTION} + 1 evenly spaced damage multipliers between the optimal and the maximum range,
+ * with the global damage multiplier already folded in, so the damage of a hit is a single lookup.
+ *
+ * <p>Tables are compiled once per firearm and cached on its {@link FirearmState}. They are immutable and can be
+ * shared by every round fired with the same firearm and ammunition.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     FalloffTable table = curve.compile(stats.optimalRange, stats.maxRange, stats.minDamageMultiplier, 1.0f);
+ *     float finalDamage = ammo.damage() * table.sample(distance);
+ * </pre>
+ */
+public final class FalloffTable {
+
+    /**
+     * The number of intervals the range between the optimal and the maximum range is divided into.
+     */
+    public static final int RESOLUTION = 64;
+
+    /**
+     * The number of bytes {@link #write(ByteBuffer)} writes.
+     */
+    public static final int BYTES = 3 * Float.BYTES + 1 + (RESOLUTION + 1) * Float.BYTES;
+
+    /**
+     * The curve this table was compiled from.
+     */
+    private final FalloffCurve curve;
+
+    /**
+     * The damage multiplier at each sample point, including the scale.
+     */
+    private final float[] samples;
+
+    /**
+     * The range up to which the first sample is returned.
+     */
+    private final float optimalRange;
+
+    /**
+     * The range from which the last sample is returned.
+     */
+    private final float maxRange;
+
+    /**
+     * The number of samples per block between the optimal and the maximum range.
+     */
+    private final float samplesPerBlock;
+
+    /**
+     * The multiplier folded into every sample.
+     */
+    private final float scale;
+
+    /**
+     * Indicates whether values between two samples are interpolated. Stepped curves are not interpolated,
+     * so their steps stay sharp.
+     */
+    private final boolean interpolate;
+
+    /**
+     * Constructs a new {@code FalloffTable}. Use {@link FalloffCurve#compile} instead.
+     *
+     * @param curve        The curve this table was compiled from.
+     * @param samples      The damage multiplier at each of the {@link #RESOLUTION} + 1 sample points.
+     * @param optimalRange The range up to which the first sample is returned.
+     * @param maxRange     The range from which the last sample is returned.
+     * @param scale        The multiplier folded into every sample.
+     * @param interpolate  Whether values between two samples are interpolated.
+     */
+    FalloffTable(FalloffCurve curve, float[] samples, float optimalRange, float maxRange, float scale, boolean interpolate) {
+        this.curve = curve;
+        this.samples = samples;
+        this.optimalRange = optimalRange;
+        this.maxRange = maxRange;
+        this.samplesPerBlock = maxRange > optimalRange ? RESOLUTION / (maxRange - optimalRange) : 0;
+        this.scale = scale;
+        this.interpolate = interpolate;
+    }
+
+    /**
+     * Returns the damage multiplier at the given distance.
+     *
+     * @param distance The distance between the shot's origin and the hit position.
+     * @return The damage multiplier, including the scale.
+     */
+    public float sample(double distance) {
+        if (distance <= optimalRange) {
+            return samples[0];
+        }
+        if (distance >= maxRange) {
+            return samples[RESOLUTION];
+        }
+
+        float position = (float) (distance - optimalRange) * samplesPerBlock;
+        int index = Math.min((int) position, RESOLUTION - 1);
+        if (!interpolate) {
+            return samples[index];
+        }
+        return samples[index] + (samples[index + 1] - samples[index]) * (position - index);
+    }
+
+    /**
+     * Writes this table into a buffer. The curve is not written, as it is only needed to validate cached tables.
+     *
+     * @param buffer The buffer to write to. Must have at least {@link #BYTES} bytes remaining.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putFloat(optimalRange);
+        buffer.putFloat(maxRange);
+        buffer.putFloat(scale);
+        buffer.put((byte) (interpolate ? 1 : 0));
+        for (float sample : samples) {
+            buffer.putFloat(sample);
+        }
+    }
+
+    /**
+     * Reads a table written by {@link #write(ByteBuffer)}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The table. Its curve is {@code null}.
+     */
+    public static FalloffTable read(ByteBuffer buffer) {
+        float optimalRange = buffer.getFloat();
+        float maxRange = buffer.getFloat();
+        float scale = buffer.getFloat();
+        boolean interpolate = buffer.get() != 0;
+        float[] samples = new float[RESOLUTION + 1];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = buffer.getFloat();
+        }
+        return new FalloffTable(null, samples, optimalRange, maxRange, scale, interpolate);
+    }
+
+    /**
+     * Returns the curve this table was compiled from.
+     *
+     * @return The curve, or {@code null} if the table was read from a buffer.
+     */
+    public FalloffCurve getCurve() {
+        return curve;
+    }
+
+    /**
+     * Returns the multiplier folded into every sample.
+     *
+     * @return The scale.
+     */
+    public float getScale() {
+        return scale;
+    }
+}
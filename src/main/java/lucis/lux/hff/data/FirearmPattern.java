@@ -0,0 +1,130 @@
+package lucis.lux.hff.data;
+
+/**
+ * The {@code FirearmPattern} class holds the precompiled recoil and spread patterns of a firearm.
+ * Patterns are defined in the {@code firearm_stats} block of a firearm and compiled into primitive lookup tables
+ * when the asset is loaded, so reading them during a shot is a plain array access.
+ *
+ * <p>A firearm can define two patterns:</p>
+ * <ul>
+ *     <li><b>Recoil pattern:</b> A list of {@code [horizontal, vertical]} multipliers applied to the firearm's
+ *     recoil for consecutive shots. Once the end of the list is reached, the last entry is held.</li>
+ *     <li><b>Spread pattern:</b> A list of {@code [yaw, pitch]} offsets in units of the current spread cone
+ *     ({@code -1} to {@code 1}). Each pellet of consecutive shots takes the next entry, wrapping around at the
+ *     end of the list. If a spread pattern is defined, spread is no longer random.</li>
+ * </ul>
+ *
+ * <p>Example JSON:</p>
+ * <pre>
+ *     "recoilPattern": [[0.0, 1.0], [0.2, 1.1], [-0.3, 1.25]],
+ *     "spreadPattern": [[0.0, 0.0], [1.0, 0.0], [-1.0, 0.0], [0.0, 1.0], [0.0, -1.0]]
+ * </pre>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     FirearmPattern pattern = Registries.FIREARM_PATTERNS.get(itemId);
+ *     float vertical = stats.verticalRecoil() * pattern.verticalRecoil(shotIndex);
+ * </pre>
+ */
+public final class FirearmPattern {
+
+    /**
+     * The horizontal recoil multiplier of each consecutive shot.
+     */
+    private final float[] horizontalRecoil;
+
+    /**
+     * The vertical recoil multiplier of each consecutive shot.
+     */
+    private final float[] verticalRecoil;
+
+    /**
+     * The yaw offset of each pattern entry in units of the spread cone.
+     */
+    private final float[] spreadYaw;
+
+    /**
+     * The pitch offset of each pattern entry in units of the spread cone.
+     */
+    private final float[] spreadPitch;
+
+    /**
+     * Constructs a new {@code FirearmPattern}. The arrays of each pattern must have the same length;
+     * an empty pair disables that pattern.
+     *
+     * @param horizontalRecoil The horizontal recoil multiplier of each consecutive shot.
+     * @param verticalRecoil   The vertical recoil multiplier of each consecutive shot.
+     * @param spreadYaw        The yaw offset of each pattern entry in units of the spread cone.
+     * @param spreadPitch      The pitch offset of each pattern entry in units of the spread cone.
+     */
+    public FirearmPattern(float[] horizontalRecoil, float[] verticalRecoil, float[] spreadYaw, float[] spreadPitch) {
+        this.horizontalRecoil = horizontalRecoil;
+        this.verticalRecoil = verticalRecoil;
+        this.spreadYaw = spreadYaw;
+        this.spreadPitch = spreadPitch;
+    }
+
+    /**
+     * Returns whether this pattern defines a recoil pattern.
+     *
+     * @return {@code true} if a recoil pattern is defined.
+     */
+    public boolean hasRecoilPattern() {
+        return horizontalRecoil.length > 0;
+    }
+
+    /**
+     * Returns whether this pattern defines a spread pattern.
+     *
+     * @return {@code true} if a spread pattern is defined.
+     */
+    public boolean hasSpreadPattern() {
+        return spreadYaw.length > 0;
+    }
+
+    /**
+     * Returns the horizontal recoil multiplier of a shot.
+     *
+     * @param shotIndex The index of the shot within the current string of fire.
+     * @return The horizontal recoil multiplier, or {@code 1} if no recoil pattern is defined.
+     */
+    public float horizontalRecoil(int shotIndex) {
+        if (horizontalRecoil.length == 0) {
+            return 1.0f;
+        }
+        return horizontalRecoil[Math.min(shotIndex, horizontalRecoil.length - 1)];
+    }
+
+    /**
+     * Returns the vertical recoil multiplier of a shot.
+     *
+     * @param shotIndex The index of the shot within the current string of fire.
+     * @return The vertical recoil multiplier, or {@code 1} if no recoil pattern is defined.
+     */
+    public float verticalRecoil(int shotIndex) {
+        if (verticalRecoil.length == 0) {
+            return 1.0f;
+        }
+        return verticalRecoil[Math.min(shotIndex, verticalRecoil.length - 1)];
+    }
+
+    /**
+     * Returns the yaw offset of a pattern entry.
+     *
+     * @param index The index of the pellet within the current string of fire.
+     * @return The yaw offset in units of the spread cone.
+     */
+    public float spreadYaw(int index) {
+        return spreadYaw[index % spreadYaw.length];
+    }
+
+    /**
+     * Returns the pitch offset of a pattern entry.
+     *
+     * @param index The index of the pellet within the current string of fire.
+     * @return The pitch offset in units of the spread cone.
+     */
+    public float spreadPitch(int index) {
+        return spreadPitch[index % spreadPitch.length];
+    }
+}
@@ -41,6 +41,13 @@ import java.util.*;
  */
 public class FirearmState implements Serializable {
 
+    /**
+     * The serialization version, pinned to the value computed for the first release, so states saved by
+     * {@link lucis.lux.hff.storage.HFFStateStorage} stay readable when members are added. Fields added later are
+     * left at their default value when an older state is read.
+     */
+    private static final long serialVersionUID = -715126853032118012L;
+
     /**
      * A custom {@link Codec} for serializing and deserializing a {@link LinkedList} of strings.
      * This codec is used to handle the list of loaded projectiles.
@@ -189,6 +196,52 @@ public class FirearmState implements Serializable {
      */
     private boolean isBursting = false;
 
+    /**
+     * The index of the next shot within the current string of fire, used to look up recoil and spread patterns.
+     * This is runtime-only data and is not persisted.
+     */
+    private transient int shotIndex = 0;
+
+    /**
+     * The time of the last shot in milliseconds, used to reset the {@link #shotIndex}.
+     */
+    private transient long lastShotMillis = 0;
+
+    /**
+     * A counter that is incremented whenever an attachment is installed or removed.
+     */
+    private transient int attachmentVersion = 0;
+
+    /**
+     * The base statistics the {@link #cachedStats} were calculated from.
+     */
+    private transient FirearmStats cachedBaseStats = null;
+
+    /**
+     * The stamp of the modifier sources the {@link #cachedStats} were calculated with.
+     */
+    private transient long cachedStamp = 0;
+
+    /**
+     * The last effective statistics calculated for this firearm.
+     */
+    private transient FirearmStats cachedStats = null;
+
+    /**
+     * The hot view of the {@link #cachedStats}.
+     */
+    private transient HotFirearmStats cachedHotStats = null;
+
+    /**
+     * The hot statistics the {@link #cachedFalloff} was compiled for.
+     */
+    private transient HotFirearmStats cachedFalloffStats = null;
+
+    /**
+     * The damage falloff table of the firearm and its last fired ammunition.
+     */
+    private transient FalloffTable cachedFalloff = null;
+
     /**
      * Constructs a new {@code FirearmState} with an empty list of loaded projectiles and attachments.
      */
@@ -280,6 +333,7 @@ public class FirearmState implements Serializable {
      */
     public void installAttachment(AttachmentType type, String attachmentItemId) {
         activeAttachments.put(type, attachmentItemId);
+        attachmentVersion++;
     }
 
     /**
@@ -289,6 +343,7 @@ public class FirearmState implements Serializable {
      */
     public void removeAttachment(AttachmentType type) {
         activeAttachments.remove(type);
+        attachmentVersion++;
     }
 
     /**
@@ -319,6 +374,19 @@ public class FirearmState implements Serializable {
         loadedProjectiles.push(projectileId);
     }
 
+    /**
+     * Loads several projectiles of the same type into the firearm at once.
+     * The projectiles are added to the front of the list of loaded projectiles.
+     *
+     * @param projectileId The ID of the projectiles to load.
+     * @param count        The number of projectiles to load.
+     */
+    public void loadProjectiles(String projectileId, int count) {
+        for (int i = 0; i < count; i++) {
+            loadedProjectiles.push(projectileId);
+        }
+    }
+
     /**
      * Consumes the next projectile from the firearm.
      * The projectile is removed from the front of the list of loaded projectiles.
@@ -354,4 +422,95 @@ public class FirearmState implements Serializable {
     public void setInsertedMagazineName(String insertedMagazineName) {
         this.insertedMagazineName = insertedMagazineName;
     }
+
+    /**
+     * Returns the index of the next shot within the current string of fire and advances it.
+     * The string of fire starts over if more than {@code resetMillis} passed since the last shot.
+     *
+     * @param nowMillis   The current time in milliseconds.
+     * @param resetMillis The pause after which the string of fire starts over.
+     * @return The index of the shot.
+     */
+    public int nextShotIndex(long nowMillis, long resetMillis) {
+        if (nowMillis - lastShotMillis > resetMillis) {
+            shotIndex = 0;
+        }
+        lastShotMillis = nowMillis;
+        return shotIndex++;
+    }
+
+    /**
+     * Returns the attachment version of the firearm, which changes whenever an attachment is installed or removed.
+     *
+     * @return The attachment version.
+     */
+    public int getAttachmentVersion() {
+        return attachmentVersion;
+    }
+
+    /**
+     * Returns the cached effective statistics if they were calculated from the same base statistics
+     * and with the same stamp.
+     *
+     * @param baseStats The base statistics of the firearm.
+     * @param stamp     The stamp of the modifier sources.
+     * @return The cached statistics, or {@code null} if the cache is stale.
+     */
+    public FirearmStats getCachedStats(FirearmStats baseStats, long stamp) {
+        if (cachedStats != null && cachedBaseStats == baseStats && cachedStamp == stamp) {
+            return cachedStats;
+        }
+        return null;
+    }
+
+    /**
+     * Caches the effective statistics of the firearm.
+     *
+     * @param baseStats The base statistics the effective statistics were calculated from.
+     * @param stamp     The stamp of the modifier sources.
+     * @param stats     The effective statistics.
+     */
+    public void cacheStats(FirearmStats baseStats, long stamp, FirearmStats stats) {
+        this.cachedBaseStats = baseStats;
+        this.cachedStamp = stamp;
+        this.cachedStats = stats;
+        this.cachedHotStats = new HotFirearmStats(stats);
+    }
+
+    /**
+     * Returns the hot view of the last effective statistics cached for this firearm.
+     * Callers must validate the cache through {@link #getCachedStats(FirearmStats, long)} first.
+     *
+     * @return The hot view, or {@code null} if no statistics have been cached.
+     */
+    public HotFirearmStats getCachedHotStats() {
+        return cachedHotStats;
+    }
+
+    /**
+     * Returns the cached damage falloff table if it was compiled from the same curve, for the same statistics
+     * and with the same scale.
+     *
+     * @param stats The hot statistics of the firearm.
+     * @param curve The falloff curve of the firearm or its ammunition.
+     * @param scale The multiplier folded into the table.
+     * @return The cached table, or {@code null} if the cache is stale.
+     */
+    public FalloffTable getCachedFalloff(HotFirearmStats stats, FalloffCurve curve, float scale) {
+        if (cachedFalloff != null && cachedFalloffStats == stats && cachedFalloff.getCurve() == curve && cachedFalloff.getScale() == scale) {
+            return cachedFalloff;
+        }
+        return null;
+    }
+
+    /**
+     * Caches the damage falloff table of the firearm.
+     *
+     * @param stats The hot statistics the table was compiled for.
+     * @param table The compiled table.
+     */
+    public void cacheFalloff(HotFirearmStats stats, FalloffTable table) {
+        this.cachedFalloffStats = stats;
+        this.cachedFalloff = table;
+    }
 }
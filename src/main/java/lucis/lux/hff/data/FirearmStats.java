@@ -1,5 +1,6 @@
 package lucis.lux.hff.data;
 
+import lucis.lux.hff.data.registry.CalibreIndex;
 import lucis.lux.hff.enums.FireMode;
 import lucis.lux.hff.enums.FirearmClass;
 import lucis.lux.hff.enums.FirearmType;
@@ -57,6 +58,7 @@ import lucis.lux.hff.enums.MagazineType;
  * @param fireMode            Firing mode of the firearm (e.g., semi-automatic, automatic).
  * @param disabled            Whether the HFF mechanics are disabled.
  * @param calibre             The calibre of the ammunition used by the firearm.
+ * @param calibreId           The interned ID of the calibre, see {@link CalibreIndex}.
  * @param burstRounds         Number of rounds fired in burst mode (0 for non-burst fire).
  * @param optimalRange        Optimal range at which the projectile deals full damage.
  * @param maxRange            Maximum range at which the projectile can deal damage.
@@ -80,6 +82,7 @@ public record FirearmStats(
         FireMode fireMode,
         boolean disabled,
         String calibre,
+        int calibreId,
         int burstRounds,
         float optimalRange,
         float maxRange,
@@ -430,6 +433,7 @@ public record FirearmStats(
                     fireMode,
                     disabled,
                     calibre,
+                    CalibreIndex.intern(calibre),
                     burstRounds,
                     optimalRange,
                     maxRange,
@@ -1,10 +1,15 @@
 package lucis.lux.hff.data;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import lucis.lux.hff.HFF;
+import lucis.lux.hff.data.registry.BlockHardnessIndex;
+import lucis.lux.hff.data.registry.CalibreIndex;
 import lucis.lux.hff.data.registry.Registries;
 import lucis.lux.hff.enums.*;
+import lucis.lux.hff.resources.EntityGridResource;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -12,6 +17,7 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.*;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
@@ -44,6 +50,7 @@ public class HFFAssetPackGenerator {
      * <ol>
      *   <li>Creates the parent directory for the output asset pack if it does not exist.</li>
      *   <li>Deletes the output file if it already exists.</li>
+     *   <li>Resets the {@link CalibreIndex} and clears the registries holding calibre IDs of a previous load.</li>
      *   <li>Creates a new ZIP file system for the output asset pack.</li>
      *   <li>Scans the specified directories for JAR and ZIP files containing assets.</li>
      * </ol>
@@ -63,6 +70,12 @@ public class HFFAssetPackGenerator {
                 Files.delete(outputPath);
             }
 
+            // Calibre IDs are assigned anew, so everything holding an ID of the previous load is dropped
+            CalibreIndex.reset();
+            Registries.FIREARM_STATS.clear();
+            Registries.AMMO_DATA.clear();
+            Registries.MAGAZINE_DATA.clear();
+
             try (FileSystem zipFs = createNewZip(outputPackPath)) {
                 scanModsDirectory(zipFs, Paths.get("../../Mods/").toString());
                 scanModsDirectory(zipFs, modsDir);
@@ -202,6 +215,8 @@ public class HFFAssetPackGenerator {
      * <p>The following data is registered:</p>
      * <ul>
      *   <li>Firearm statistics</li>
+     *   <li>Firearm recoil and spread patterns</li>
+     *   <li>Damage falloff curves of firearms and ammunition</li>
      *   <li>Ammunition data</li>
      *   <li>Magazine data</li>
      *   <li>Attachment data</li>
@@ -217,23 +232,53 @@ public class HFFAssetPackGenerator {
                 JsonObject statsJson = hffBlock.getAsJsonObject("firearm_stats");
                 FirearmStats stats = loadFirearmStats(statsJson);
                 Registries.FIREARM_STATS.register(itemName, stats);
+
+                FirearmPattern pattern = loadFirearmPattern(statsJson);
+                if (pattern != null) {
+                    Registries.FIREARM_PATTERNS.register(itemName, pattern);
+                }
+
+                FalloffCurve falloff = loadFalloffCurve(statsJson);
+                if (falloff != null) {
+                    Registries.FALLOFF_CURVES.register(itemName, falloff);
+                }
             }
 
             if (hffBlock.has("ammo")) {
                 JsonObject ammoJson = hffBlock.getAsJsonObject("ammo");
                 AmmoData data = loadAmmoData(ammoJson);
                 Registries.AMMO_DATA.register(itemName, data);
+                CalibreIndex.indexAmmo(itemName, data.calibreId());
+
+                FalloffCurve falloff = loadFalloffCurve(ammoJson);
+                if (falloff != null) {
+                    Registries.FALLOFF_CURVES.register(itemName, falloff);
+                }
             }
 
             if (hffBlock.has("magazine")) {
                 MagazineData data = loadMagazineData(hffBlock.getAsJsonObject("magazine"));
                 Registries.MAGAZINE_DATA.register(itemName, data);
+                CalibreIndex.indexMagazine(itemName, data.calibreId());
             }
 
             if (hffBlock.has("attachment")) {
                 AttachmentData data = loadAttachmentData(hffBlock.getAsJsonObject("attachment"));
                 Registries.ATTACHMENT_DATA.register(itemName, data);
             }
+
+            if (hffBlock.has("hitboxes")) {
+                JsonObject hitboxJson = hffBlock.getAsJsonObject("hitboxes");
+                if (hitboxJson.has("model")) {
+                    Registries.HITBOX_TABLES.register(hitboxJson.get("model").getAsString(), loadHitboxTable(hitboxJson));
+                }
+            }
+
+            if (hffBlock.has("blockHardness") && hffBlock.get("blockHardness").isJsonObject()) {
+                for (Map.Entry<String, JsonElement> entry : hffBlock.getAsJsonObject("blockHardness").entrySet()) {
+                    BlockHardnessIndex.register(entry.getKey(), entry.getValue().getAsFloat());
+                }
+            }
         }
     }
 
@@ -271,9 +316,90 @@ public class HFFAssetPackGenerator {
         return builder.build();
     }
 
+    /**
+     * Compiles the recoil and spread patterns of a firearm into a {@link FirearmPattern}.
+     * Both patterns are lists of two-element arrays; entries that are not two-element arrays are skipped.
+     *
+     * @param statsJson The JSON object containing the firearm statistics.
+     * @return The compiled {@link FirearmPattern}, or {@code null} if the firearm defines no pattern.
+     */
+    private static FirearmPattern loadFirearmPattern(JsonObject statsJson) {
+        float[][] recoil = loadPairs(statsJson, "recoilPattern");
+        float[][] spread = loadPairs(statsJson, "spreadPattern");
+        if (recoil[0].length == 0 && spread[0].length == 0) {
+            return null;
+        }
+        return new FirearmPattern(recoil[0], recoil[1], spread[0], spread[1]);
+    }
+
+    /**
+     * Loads the damage falloff curve of a firearm or ammunition into a {@link FalloffCurve}.
+     * Missing fields fall back to a linear curve, two steps and an exponent of {@code 2}. An unknown {@code type} is
+     * logged and falls back to a linear curve as well. The points of a custom curve are sorted by their distance.
+     *
+     * @param json The JSON object containing the {@code falloff} block.
+     * @return The loaded {@link FalloffCurve}, or {@code null} if the item defines no curve.
+     */
+    private static FalloffCurve loadFalloffCurve(JsonObject json) {
+        if (!json.has("falloff") || !json.get("falloff").isJsonObject()) {
+            return null;
+        }
+
+        JsonObject falloffJson = json.getAsJsonObject("falloff");
+        FalloffType type = falloffJson.has("type") ? parseEnum(FalloffType.class, falloffJson.get("type").getAsString()) : FalloffType.LINEAR;
+        if (type == null) {
+            HFF.get().getLogger().atWarning().log("Unknown falloff type " + falloffJson.get("type").getAsString() + ", using LINEAR");
+            type = FalloffType.LINEAR;
+        }
+        int steps = falloffJson.has("steps") ? falloffJson.get("steps").getAsInt() : 2;
+        float exponent = falloffJson.has("exponent") ? falloffJson.get("exponent").getAsFloat() : 2.0f;
+
+        float[][] points = loadPairs(falloffJson, "points");
+        Integer[] order = new Integer[points[0].length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(points[0][a], points[0][b]));
+
+        float[] distances = new float[order.length];
+        float[] multipliers = new float[order.length];
+        for (int i = 0; i < order.length; i++) {
+            distances[i] = points[0][order[i]];
+            multipliers[i] = points[1][order[i]];
+        }
+        return new FalloffCurve(type, steps, exponent, distances, multipliers);
+    }
+
+    /**
+     * Reads a list of two-element number arrays into two parallel float arrays.
+     *
+     * @param json The JSON object containing the list.
+     * @param key  The key of the list.
+     * @return An array holding the first and second elements of each pair; both are empty if the key is missing.
+     */
+    private static float[][] loadPairs(JsonObject json, String key) {
+        if (!json.has(key) || !json.get(key).isJsonArray()) {
+            return new float[][]{new float[0], new float[0]};
+        }
+
+        JsonArray array = json.getAsJsonArray(key);
+        float[] first = new float[array.size()];
+        float[] second = new float[array.size()];
+        int count = 0;
+        for (JsonElement element : array) {
+            if (element.isJsonArray() && element.getAsJsonArray().size() == 2) {
+                first[count] = element.getAsJsonArray().get(0).getAsFloat();
+                second[count] = element.getAsJsonArray().get(1).getAsFloat();
+                count++;
+            }
+        }
+        return new float[][]{Arrays.copyOf(first, count), Arrays.copyOf(second, count)};
+    }
+
     /**
      * Loads ammunition data from a JSON object and creates an {@link AmmoData} object.
      * This method safely handles missing fields by only setting values that are present in the JSON object.
+     * A blast radius above {@link EntityGridResource#MAX_QUERY_RADIUS} is clamped with a warning.
      *
      * @param ammoJson The JSON object containing the ammunition data.
      * @return An {@link AmmoData} object created from the JSON data.
@@ -283,9 +409,114 @@ public class HFFAssetPackGenerator {
         if (ammoJson.has("calibre")) builder.calibre(ammoJson.get("calibre").getAsString());
         if (ammoJson.has("projectileId")) builder.projectileId(ammoJson.get("projectileId").getAsString());
         if (ammoJson.has("damage")) builder.damage(ammoJson.get("damage").getAsFloat());
+        if (ammoJson.has("hitscanVelocity")) builder.hitscanVelocity(ammoJson.get("hitscanVelocity").getAsFloat());
+        if (ammoJson.has("drag")) builder.drag(ammoJson.get("drag").getAsFloat());
+        if (ammoJson.has("gravity")) builder.gravity(ammoJson.get("gravity").getAsFloat());
+        if (ammoJson.has("armorPenetration"))
+            builder.armorPenetration(ammoJson.get("armorPenetration").getAsFloat());
+        if (ammoJson.has("penetrationPower"))
+            builder.penetrationPower(ammoJson.get("penetrationPower").getAsFloat());
+        if (ammoJson.has("ricochetAngle")) builder.ricochetAngle(ammoJson.get("ricochetAngle").getAsFloat());
+        if (ammoJson.has("knockbackForce")) builder.knockbackForce(ammoJson.get("knockbackForce").getAsFloat());
+        if (ammoJson.has("blastRadius")) {
+            float blastRadius = ammoJson.get("blastRadius").getAsFloat();
+            if (blastRadius > EntityGridResource.MAX_QUERY_RADIUS) {
+                HFF.get().getLogger().atWarning().log("Blast radius " + blastRadius + " exceeds the maximum of "
+                        + EntityGridResource.MAX_QUERY_RADIUS + " blocks, clamping it");
+                blastRadius = (float) EntityGridResource.MAX_QUERY_RADIUS;
+            }
+            builder.blastRadius(blastRadius);
+        }
+        if (ammoJson.has("blastFalloff")) builder.blastFalloff(ammoJson.get("blastFalloff").getAsFloat());
+        if (ammoJson.has("fragmentCount")) builder.fragmentCount(ammoJson.get("fragmentCount").getAsInt());
+        if (ammoJson.has("fragmentDamage")) builder.fragmentDamage(ammoJson.get("fragmentDamage").getAsFloat());
+        if (ammoJson.has("selfDamage")) builder.selfDamage(ammoJson.get("selfDamage").getAsBoolean());
         return builder.build();
     }
 
+    /**
+     * Looks up the constant of an enum by its name, ignoring case.
+     *
+     * @param type The enum type.
+     * @param name The name of the constant.
+     * @param <E>  The enum type.
+     * @return The constant, or {@code null} if the enum has no constant with that name.
+     */
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(name)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the hitbox table of an entity model into a {@link HitboxTable}.
+     * Zones map to a {@code [multiplier, armor]} pair; zones that are not listed keep the multiplier of
+     * {@link HitboxTable#HUMANOID} and have no armor. If no boxes are listed, the boxes of
+     * {@link HitboxTable#HUMANOID} are used. Zone names are matched ignoring case. Zones with an unknown name and boxes
+     * without a valid {@code zone}, {@code min} and {@code max} are skipped.
+     *
+     * @param hitboxJson The JSON object containing the hitbox table.
+     * @return A {@link HitboxTable} created from the JSON data.
+     */
+    private static HitboxTable loadHitboxTable(JsonObject hitboxJson) {
+        HitZone[] zones = HitZone.values();
+        float[] multipliers = new float[zones.length];
+        float[] armor = new float[zones.length];
+        for (HitZone zone : zones) {
+            multipliers[zone.ordinal()] = HitboxTable.HUMANOID.getMultiplier(zone.ordinal());
+        }
+
+        if (hitboxJson.has("zones") && hitboxJson.get("zones").isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : hitboxJson.getAsJsonObject("zones").entrySet()) {
+                if (!entry.getValue().isJsonArray() || entry.getValue().getAsJsonArray().size() != 2) {
+                    continue;
+                }
+                HitZone zone = parseEnum(HitZone.class, entry.getKey());
+                if (zone == null) {
+                    HFF.get().getLogger().atWarning().log("Skipping unknown hit zone " + entry.getKey());
+                    continue;
+                }
+                multipliers[zone.ordinal()] = entry.getValue().getAsJsonArray().get(0).getAsFloat();
+                armor[zone.ordinal()] = entry.getValue().getAsJsonArray().get(1).getAsFloat();
+            }
+        }
+
+        if (!hitboxJson.has("boxes") || !hitboxJson.get("boxes").isJsonArray()) {
+            return HitboxTable.HUMANOID.withZones(multipliers, armor);
+        }
+
+        JsonArray boxes = hitboxJson.getAsJsonArray("boxes");
+        float[] bounds = new float[boxes.size() * 6];
+        byte[] boxZones = new byte[boxes.size()];
+        int count = 0;
+        for (JsonElement element : boxes) {
+            if (!element.isJsonObject()) {
+                continue;
+            }
+            JsonObject box = element.getAsJsonObject();
+            if (!box.has("zone") || !box.has("min") || !box.has("max")
+                    || !box.get("min").isJsonArray() || !box.get("max").isJsonArray()
+                    || box.getAsJsonArray("min").size() != 3 || box.getAsJsonArray("max").size() != 3) {
+                continue;
+            }
+            HitZone zone = parseEnum(HitZone.class, box.get("zone").getAsString());
+            if (zone == null) {
+                HFF.get().getLogger().atWarning().log("Skipping hitbox with unknown zone " + box.get("zone").getAsString());
+                continue;
+            }
+            for (int axis = 0; axis < 3; axis++) {
+                bounds[count * 6 + axis] = box.getAsJsonArray("min").get(axis).getAsFloat();
+                bounds[count * 6 + 3 + axis] = box.getAsJsonArray("max").get(axis).getAsFloat();
+            }
+            boxZones[count] = (byte) zone.ordinal();
+            count++;
+        }
+        return new HitboxTable(Arrays.copyOf(bounds, count * 6), Arrays.copyOf(boxZones, count), multipliers, armor);
+    }
+
     /**
      * Loads magazine data from a JSON object and creates a {@link MagazineData} object.
      * This method safely handles missing fields by only setting values that are present in the JSON object.
@@ -36,6 +36,18 @@ public class HFFConfig {
             .add()
             .append(new KeyedCodec<>("HardcoreMagazineSystem", Codec.BOOLEAN), (c, v) -> c.hardcoreMagazineSystem = v, c -> c.hardcoreMagazineSystem)
             .add()
+            .append(new KeyedCodec<>("BallisticSimulation", Codec.BOOLEAN), (c, v) -> c.ballisticSimulation = v, c -> c.ballisticSimulation)
+            .add()
+            .append(new KeyedCodec<>("BulkReload", Codec.BOOLEAN), (c, v) -> c.bulkReload = v, c -> c.bulkReload)
+            .add()
+            .append(new KeyedCodec<>("BulkReloadFromInventory", Codec.BOOLEAN), (c, v) -> c.bulkReloadFromInventory = v, c -> c.bulkReloadFromInventory)
+            .add()
+            .append(new KeyedCodec<>("ReloadTimePerRound", Codec.BOOLEAN), (c, v) -> c.reloadTimePerRound = v, c -> c.reloadTimePerRound)
+            .add()
+            .append(new KeyedCodec<>("FastMagazineReload", Codec.BOOLEAN), (c, v) -> c.fastMagazineReload = v, c -> c.fastMagazineReload)
+            .add()
+            .append(new KeyedCodec<>("CoalescePelletHits", Codec.BOOLEAN), (c, v) -> c.coalescePelletHits = v, c -> c.coalescePelletHits)
+            .add()
             .build();
 
     /**
@@ -53,6 +65,36 @@ public class HFFConfig {
      */
     private boolean hardcoreMagazineSystem = false;
 
+    /**
+     * Indicates whether rounds are simulated by HFF's own ballistic simulation instead of being spawned as projectile entities.
+     */
+    private boolean ballisticSimulation = false;
+
+    /**
+     * Indicates whether firearms with an internal magazine are filled completely in a single reload instead of one round per reload.
+     */
+    private boolean bulkReload = false;
+
+    /**
+     * Indicates whether a bulk reload also takes matching rounds from the rest of the inventory once the utility slot is empty.
+     */
+    private boolean bulkReloadFromInventory = false;
+
+    /**
+     * Indicates whether the reload time of a firearm applies to each loaded round instead of the whole reload.
+     */
+    private boolean reloadTimePerRound = false;
+
+    /**
+     * Indicates whether the hardcore magazine system inserts the fullest compatible magazine from the inventory when no magazine is held in the utility slot.
+     */
+    private boolean fastMagazineReload = false;
+
+    /**
+     * Indicates whether pellets of the same shot that hit the same target in the same tick are merged into a single damage application and hit event.
+     */
+    private boolean coalescePelletHits = true;
+
     /**
      * The maximum number of projectiles that can be processed per tick.
      */
@@ -204,4 +246,112 @@ public class HFFConfig {
     public void setHardcoreMagazineSystem(boolean hardcoreMagazineSystem) {
         this.hardcoreMagazineSystem = hardcoreMagazineSystem;
     }
+
+    /**
+     * Returns whether rounds are simulated by HFF's own ballistic simulation.
+     *
+     * @return {@code true} if the ballistic simulation is enabled, {@code false} otherwise.
+     */
+    public boolean isBallisticSimulation() {
+        return ballisticSimulation;
+    }
+
+    /**
+     * Sets whether rounds are simulated by HFF's own ballistic simulation.
+     *
+     * @param ballisticSimulation {@code true} to enable the ballistic simulation, {@code false} to spawn projectile entities.
+     */
+    public void setBallisticSimulation(boolean ballisticSimulation) {
+        this.ballisticSimulation = ballisticSimulation;
+    }
+
+    /**
+     * Returns whether firearms with an internal magazine are filled completely in a single reload.
+     *
+     * @return {@code true} if bulk reloading is enabled, {@code false} otherwise.
+     */
+    public boolean isBulkReload() {
+        return bulkReload;
+    }
+
+    /**
+     * Sets whether firearms with an internal magazine are filled completely in a single reload.
+     *
+     * @param bulkReload {@code true} to enable bulk reloading, {@code false} to load one round per reload.
+     */
+    public void setBulkReload(boolean bulkReload) {
+        this.bulkReload = bulkReload;
+    }
+
+    /**
+     * Returns whether a bulk reload also takes matching rounds from the rest of the inventory.
+     *
+     * @return {@code true} if the whole inventory is used, {@code false} if only the utility slot is used.
+     */
+    public boolean isBulkReloadFromInventory() {
+        return bulkReloadFromInventory;
+    }
+
+    /**
+     * Sets whether a bulk reload also takes matching rounds from the rest of the inventory.
+     *
+     * @param bulkReloadFromInventory {@code true} to use the whole inventory, {@code false} to use only the utility slot.
+     */
+    public void setBulkReloadFromInventory(boolean bulkReloadFromInventory) {
+        this.bulkReloadFromInventory = bulkReloadFromInventory;
+    }
+
+    /**
+     * Returns whether the reload time of a firearm applies to each loaded round.
+     *
+     * @return {@code true} if the reload time applies per round, {@code false} if it applies per reload.
+     */
+    public boolean isReloadTimePerRound() {
+        return reloadTimePerRound;
+    }
+
+    /**
+     * Sets whether the reload time of a firearm applies to each loaded round.
+     *
+     * @param reloadTimePerRound {@code true} to apply the reload time per round, {@code false} to apply it per reload.
+     */
+    public void setReloadTimePerRound(boolean reloadTimePerRound) {
+        this.reloadTimePerRound = reloadTimePerRound;
+    }
+
+    /**
+     * Returns whether the fullest compatible magazine is inserted when no magazine is held in the utility slot.
+     *
+     * @return {@code true} if fast magazine reloads are enabled, {@code false} otherwise.
+     */
+    public boolean isFastMagazineReload() {
+        return fastMagazineReload;
+    }
+
+    /**
+     * Sets whether the fullest compatible magazine is inserted when no magazine is held in the utility slot.
+     *
+     * @param fastMagazineReload {@code true} to enable fast magazine reloads, {@code false} to require a magazine in the utility slot.
+     */
+    public void setFastMagazineReload(boolean fastMagazineReload) {
+        this.fastMagazineReload = fastMagazineReload;
+    }
+
+    /**
+     * Returns whether pellets of the same shot that hit the same target are merged into a single hit.
+     *
+     * @return {@code true} if pellet hits are coalesced, {@code false} otherwise.
+     */
+    public boolean isCoalescePelletHits() {
+        return coalescePelletHits;
+    }
+
+    /**
+     * Sets whether pellets of the same shot that hit the same target are merged into a single hit.
+     *
+     * @param coalescePelletHits {@code true} to coalesce pellet hits, {@code false} to resolve every pellet separately.
+     */
+    public void setCoalescePelletHits(boolean coalescePelletHits) {
+        this.coalescePelletHits = coalescePelletHits;
+    }
 }
@@ -0,0 +1,217 @@
+package lucis.lux.hff.data;
+
+import lucis.lux.hff.enums.HitZone;
+import lucis.lux.hff.util.RayMath;
+
+/**
+ * The {@code HitboxTable} class holds the precomputed hitboxes of an entity model. Each hitbox is an axis-aligned box
+ * given in fractions ({@code 0} to {@code 1}) of the entity's bounding box, facing the entity's yaw, and belongs to a
+ * {@link HitZone}. Each zone has a damage multiplier and an armor value.
+ *
+ * <p>Tables are defined in the {@code hitboxes} block of an asset and registered in
+ * {@link lucis.lux.hff.data.registry.Registries#HITBOX_TABLES} by model ID when the asset is loaded. Entities
+ * whose model has no table use {@link #HUMANOID}.</p>
+ *
+ * <p>A hit is resolved in the following steps:</p>
+ * <ol>
+ *     <li>The ray of the round is rotated into the local space of the entity by its yaw.</li>
+ *     <li>It is intersected with every hitbox using {@link RayMath#intersectAabb}. The zone of the box it enters
+ *     first is the zone that was hit. If it misses every box, the zone is {@link HitZone#TORSO}.</li>
+ *     <li>The damage of the hit is scaled by {@link #getDamageMultiplier(int, float)}, which combines the
+ *     multiplier of the zone with its armor, reduced by the armor penetration of the ammunition.</li>
+ * </ol>
+ *
+ * <p>All hitboxes are stored in flat primitive arrays, so resolving a hit does not allocate.</p>
+ *
+ * <p>Example JSON:</p>
+ * <pre>
+ *     "hitboxes": {
+ *         "model": "Trork_Warrior",
+ *         "zones": { "HEAD": [2.0, 0.5], "TORSO": [1.0, 0.25] },
+ *         "boxes": [
+ *             { "zone": "HEAD", "min": [0.25, 0.8, 0.25], "max": [0.75, 1.0, 0.75] },
+ *             { "zone": "TORSO", "min": [0.2, 0.45, 0.2], "max": [0.8, 0.8, 0.8] }
+ *         ]
+ *     }
+ * </pre>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     int zone = table.resolve(ox, oy, oz, dx, dy, dz, minX, minY, minZ, maxX, maxY, maxZ, yaw, maxT);
+ *     float finalDamage = damage * table.getDamageMultiplier(zone, ammo.armorPenetration());
+ * </pre>
+ */
+public final class HitboxTable {
+
+    /**
+     * The number of floats each hitbox occupies in the bounds array.
+     */
+    private static final int STRIDE = 6;
+
+    /**
+     * The table used for entities whose model has no table of its own. It splits the bounding box of the entity into
+     * a head, a torso, two arms and the legs. No zone has armor.
+     */
+    public static final HitboxTable HUMANOID = new HitboxTable(
+            new float[]{
+                    0.25f, 0.80f, 0.25f, 0.75f, 1.00f, 0.75f,
+                    0.25f, 0.45f, 0.20f, 0.75f, 0.80f, 0.80f,
+                    0.00f, 0.40f, 0.25f, 0.25f, 0.80f, 0.75f,
+                    0.75f, 0.40f, 0.25f, 1.00f, 0.80f, 0.75f,
+                    0.20f, 0.00f, 0.25f, 0.80f, 0.45f, 0.75f
+            },
+            new byte[]{
+                    (byte) HitZone.HEAD.ordinal(),
+                    (byte) HitZone.TORSO.ordinal(),
+                    (byte) HitZone.ARMS.ordinal(),
+                    (byte) HitZone.ARMS.ordinal(),
+                    (byte) HitZone.LEGS.ordinal()
+            },
+            new float[]{2.0f, 1.0f, 0.75f, 0.7f},
+            new float[]{0.0f, 0.0f, 0.0f, 0.0f});
+
+    /**
+     * The bounds of each hitbox as {@code minX, minY, minZ, maxX, maxY, maxZ} in fractions of the entity's bounding box.
+     */
+    private final float[] bounds;
+
+    /**
+     * The ordinal of the {@link HitZone} of each hitbox.
+     */
+    private final byte[] zones;
+
+    /**
+     * The damage multiplier of each zone, indexed by the ordinal of the zone.
+     */
+    private final float[] multipliers;
+
+    /**
+     * The fraction of damage ({@code 0} to {@code 1}) absorbed by the armor of each zone, indexed by the ordinal of the zone.
+     */
+    private final float[] armor;
+
+    /**
+     * Constructs a new {@code HitboxTable}.
+     *
+     * @param bounds      The bounds of each hitbox as six consecutive floats
+     *                    {@code minX, minY, minZ, maxX, maxY, maxZ} in fractions of the entity's bounding box.
+     * @param zones       The ordinal of the {@link HitZone} of each hitbox.
+     * @param multipliers The damage multiplier of each zone, indexed by the ordinal of the zone.
+     * @param armor       The fraction of damage absorbed by the armor of each zone, indexed by the ordinal of the zone.
+     */
+    public HitboxTable(float[] bounds, byte[] zones, float[] multipliers, float[] armor) {
+        this.bounds = bounds;
+        this.zones = zones;
+        this.multipliers = multipliers;
+        this.armor = armor;
+    }
+
+    /**
+     * Resolves the zone a ray hits. The ray must already be known to hit the bounding box of the entity; if it misses
+     * every hitbox, {@link HitZone#TORSO} is returned.
+     *
+     * @param ox   The x coordinate of the ray origin.
+     * @param oy   The y coordinate of the ray origin.
+     * @param oz   The z coordinate of the ray origin.
+     * @param dx   The x component of the ray direction.
+     * @param dy   The y component of the ray direction.
+     * @param dz   The z component of the ray direction.
+     * @param minX The minimum x coordinate of the entity's bounding box.
+     * @param minY The minimum y coordinate of the entity's bounding box.
+     * @param minZ The minimum z coordinate of the entity's bounding box.
+     * @param maxX The maximum x coordinate of the entity's bounding box.
+     * @param maxY The maximum y coordinate of the entity's bounding box.
+     * @param maxZ The maximum z coordinate of the entity's bounding box.
+     * @param yaw  The yaw of the entity in radians.
+     * @param maxT The maximum ray parameter to consider.
+     * @return The ordinal of the {@link HitZone} that was hit.
+     */
+    public int resolve(double ox, double oy, double oz, double dx, double dy, double dz,
+                       double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                       float yaw, double maxT) {
+        double width = maxX - minX;
+        double height = maxY - minY;
+        double depth = maxZ - minZ;
+        double centerX = minX + width * 0.5;
+        double centerZ = minZ + depth * 0.5;
+
+        // Rotate the ray around the center of the entity into its local space
+        double sin = Math.sin(-yaw);
+        double cos = Math.cos(-yaw);
+        double rx = ox - centerX;
+        double rz = oz - centerZ;
+        double lox = rx * cos - rz * sin;
+        double loz = rx * sin + rz * cos;
+        double ldx = dx * cos - dz * sin;
+        double ldz = dx * sin + dz * cos;
+        double loy = oy - minY;
+
+        int zone = HitZone.TORSO.ordinal();
+        double closest = maxT;
+        for (int i = 0, b = 0; i < zones.length; i++, b += STRIDE) {
+            double t = RayMath.intersectAabb(lox, loy, loz, ldx, dy, ldz,
+                    (bounds[b] - 0.5) * width, bounds[b + 1] * height, (bounds[b + 2] - 0.5) * depth,
+                    (bounds[b + 3] - 0.5) * width, bounds[b + 4] * height, (bounds[b + 5] - 0.5) * depth,
+                    closest);
+            if (t >= 0 && t < closest) {
+                closest = t;
+                zone = zones[i];
+            }
+        }
+        return zone;
+    }
+
+    /**
+     * Returns the damage multiplier of a zone, before armor.
+     *
+     * @param zone The ordinal of the zone.
+     * @return The damage multiplier.
+     */
+    public float getMultiplier(int zone) {
+        return zone < multipliers.length ? multipliers[zone] : 1.0f;
+    }
+
+    /**
+     * Returns the fraction of damage absorbed by the armor of a zone.
+     *
+     * @param zone The ordinal of the zone.
+     * @return The armor, from {@code 0} to {@code 1}.
+     */
+    public float getArmor(int zone) {
+        return zone < armor.length ? armor[zone] : 0.0f;
+    }
+
+    /**
+     * Returns the damage multiplier of a hit on a zone. The armor of the zone is reduced by the armor penetration
+     * of the round, so a round with an armor penetration of {@code 1} ignores armor entirely.
+     *
+     * @param zone              The ordinal of the zone.
+     * @param armorPenetration  The fraction of armor ({@code 0} to {@code 1}) the round ignores.
+     * @return The damage multiplier.
+     */
+    public float getDamageMultiplier(int zone, float armorPenetration) {
+        float penetration = Math.max(0.0f, Math.min(1.0f, armorPenetration));
+        float effectiveArmor = getArmor(zone) * (1.0f - penetration);
+        return getMultiplier(zone) * (1.0f - effectiveArmor);
+    }
+
+    /**
+     * Creates a table with the hitboxes of this table and different zone values.
+     *
+     * @param multipliers The damage multiplier of each zone, indexed by the ordinal of the zone.
+     * @param armor       The fraction of damage absorbed by the armor of each zone, indexed by the ordinal of the zone.
+     * @return The new table.
+     */
+    HitboxTable withZones(float[] multipliers, float[] armor) {
+        return new HitboxTable(bounds, zones, multipliers, armor);
+    }
+
+    /**
+     * Returns the number of hitboxes in this table.
+     *
+     * @return The number of hitboxes.
+     */
+    public int size() {
+        return zones.length;
+    }
+}
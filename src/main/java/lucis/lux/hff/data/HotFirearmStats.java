@@ -0,0 +1,125 @@
+package lucis.lux.hff.data;
+
+/**
+ * The {@code HotFirearmStats} class is a compact, flattened view of the {@link FirearmStats} fields read on every
+ * shot and hit.
+ *
+ * <p>The view is derived once whenever the effective statistics of a firearm are recalculated and is cached
+ * alongside them in the {@link FirearmState}. It holds only primitives, including values that would otherwise
+ * be recomputed per shot, such as the spread in radians and the interval between shots. The full statistics
+ * remain reachable through {@link #stats} for rarely used fields and for events.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     HotFirearmStats hot = StatCalculator.getHotStats(baseStats, state, playerRef, commandBuffer);
+ *     for (int i = 0; i &lt; hot.projectileAmount; i++) {
+ *         spawnProjectile(hot, ...);
+ *     }
+ * </pre>
+ */
+public final class HotFirearmStats {
+
+    /**
+     * The factor converting degrees to radians.
+     */
+    private static final double DEG_TO_RAD = Math.PI / 180.0;
+
+    /**
+     * The effective statistics this view was derived from.
+     */
+    public final FirearmStats stats;
+
+    /**
+     * The interval between two shots in milliseconds.
+     */
+    public final double shotIntervalMillis;
+
+    /**
+     * The pause after which a string of fire starts over, in milliseconds.
+     */
+    public final long patternResetMillis;
+
+    /**
+     * The base spread in radians.
+     */
+    public final double spreadRadians;
+
+    /**
+     * The spread multiplier applied while moving.
+     */
+    public final float movementPenalty;
+
+    /**
+     * The number of projectiles fired per shot.
+     */
+    public final int projectileAmount;
+
+    /**
+     * The number of rounds fired in burst mode.
+     */
+    public final int burstRounds;
+
+    /**
+     * The projectile velocity in units per second.
+     */
+    public final float projectileVelocity;
+
+    /**
+     * The vertical recoil strength.
+     */
+    public final float verticalRecoil;
+
+    /**
+     * The horizontal recoil strength.
+     */
+    public final float horizontalRecoil;
+
+    /**
+     * The chance of the firearm jamming.
+     */
+    public final float jamChance;
+
+    /**
+     * The range up to which full damage is dealt.
+     */
+    public final float optimalRange;
+
+    /**
+     * The maximum range of the firearm.
+     */
+    public final float maxRange;
+
+    /**
+     * The damage multiplier applied at maximum range.
+     */
+    public final float minDamageMultiplier;
+
+    /**
+     * Whether the HFF mechanics are disabled.
+     */
+    public final boolean disabled;
+
+    /**
+     * Derives the hot view of the given statistics.
+     *
+     * @param stats The effective statistics of a firearm.
+     */
+    public HotFirearmStats(FirearmStats stats) {
+        this.stats = stats;
+        this.shotIntervalMillis = 60000.0 / stats.rpm();
+        // A pause of two shot intervals starts a new string of fire
+        this.patternResetMillis = (long) (2 * shotIntervalMillis);
+        this.spreadRadians = stats.spreadBase() * DEG_TO_RAD;
+        this.movementPenalty = stats.movementPenalty();
+        this.projectileAmount = stats.projectileAmount();
+        this.burstRounds = stats.burstRounds();
+        this.projectileVelocity = stats.projectileVelocity();
+        this.verticalRecoil = stats.verticalRecoil();
+        this.horizontalRecoil = stats.horizontalRecoil();
+        this.jamChance = stats.jamChance();
+        this.optimalRange = stats.optimalRange();
+        this.maxRange = stats.maxRange();
+        this.minDamageMultiplier = stats.minDamageMultiplier();
+        this.disabled = stats.disabled();
+    }
+}
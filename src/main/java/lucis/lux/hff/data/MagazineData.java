@@ -1,5 +1,7 @@
 package lucis.lux.hff.data;
 
+import lucis.lux.hff.data.registry.CalibreIndex;
+
 /**
  * The {@code MagazineData} record represents the data and properties of a firearm magazine.
  * This record stores the calibre of the ammunition the magazine is designed for and its capacity.
@@ -15,12 +17,13 @@ package lucis.lux.hff.data;
  *         .calibre("9mm")
  *         .capacity(30)
  *         .build();
- *
- *     // Create a new MagazineData object using the record constructor
- *     MagazineData magazine = new MagazineData("9mm", 30);
  * </pre>
+ *
+ * @param calibre   The calibre of the ammunition the magazine is designed for.
+ * @param calibreId The interned ID of the calibre, see {@link CalibreIndex}.
+ * @param capacity  The capacity of the magazine.
  */
-public record MagazineData(String calibre, int capacity) {
+public record MagazineData(String calibre, int calibreId, int capacity) {
 
     /**
      * Creates a new {@link Builder} instance for constructing a {@code MagazineData} object.
@@ -95,7 +98,7 @@ public record MagazineData(String calibre, int capacity) {
          * @return A new {@code MagazineData} object.
          */
         public MagazineData build() {
-            return new MagazineData(calibre, capacity);
+            return new MagazineData(calibre, CalibreIndex.intern(calibre), capacity);
         }
     }
 }
@@ -0,0 +1,253 @@
+package lucis.lux.hff.data;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.server.core.entity.LivingEntity;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import lucis.lux.hff.data.registry.CalibreIndex;
+import lucis.lux.hff.data.registry.Registries;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * The {@code MagazineIndex} class keeps track of the magazines a player carries, grouped by calibre.
+ *
+ * <p>Magazines are added by the {@link lucis.lux.hff.listeners.FirearmUuidInitializer} whenever they appear in
+ * one of the player's containers, together with the container and slot they were seen in. Each calibre keeps its
+ * magazines sorted by the number of loaded rounds in ascending order, so the fullest compatible magazine is the last
+ * entry and is found and removed in constant time, without scanning any container. Entries are validated lazily:
+ * a magazine that is no longer in its slot is dropped the next time it is looked up.</p>
+ *
+ * <p>Every magazine is indexed on its own. Magazines share their UUID, and with it their loaded rounds, only as
+ * long as they are stacked, so {@link #ensureMagazine} splits a stack into single magazines with their own UUIDs
+ * and copies of the stack's state. Magazines that do not fit into the container stay stacked until there is
+ * room.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     MagazineIndex.Entry fullest = MagazineIndex.of(player).findFullest(stats.calibreId());
+ *     if (fullest != null) {
+ *         fullest.container().removeItemStackFromSlot(fullest.slot(), 1);
+ *         MagazineIndex.of(player).remove(fullest.uuid());
+ *     }
+ * </pre>
+ */
+public class MagazineIndex {
+
+    /**
+     * The index of each player. Entries disappear together with the player.
+     */
+    private static final Map<LivingEntity, MagazineIndex> INDICES = new WeakHashMap<>();
+
+    /**
+     * The magazines of each calibre, sorted from emptiest to fullest.
+     */
+    private final Map<Integer, List<Entry>> byCalibre = new HashMap<>();
+
+    /**
+     * All indexed magazines, keyed by their UUID.
+     */
+    private final Map<UUID, Entry> byUuid = new HashMap<>();
+
+    /**
+     * A magazine seen in a player's container.
+     *
+     * @param uuid      The UUID of the magazine.
+     * @param itemId    The item ID of the magazine.
+     * @param calibreId The interned calibre ID of the magazine.
+     * @param rounds    The number of rounds loaded when the magazine was indexed.
+     * @param container The container the magazine was seen in.
+     * @param slot      The slot the magazine was seen in.
+     */
+    public record Entry(UUID uuid, String itemId, int calibreId, int rounds, ItemContainer container, short slot) {
+    }
+
+    /**
+     * Returns the magazine index of a player, creating it if necessary.
+     *
+     * @param owner The player.
+     * @return The magazine index of the player.
+     */
+    public static synchronized MagazineIndex of(LivingEntity owner) {
+        return INDICES.computeIfAbsent(owner, o -> new MagazineIndex());
+    }
+
+    /**
+     * Returns the UUID of a magazine item, creating a UUID and an empty {@link MagazineState} if the magazine has
+     * never been seen before. A stack of several magazines is split, so only one magazine keeps the UUID.
+     *
+     * @param container The container holding the magazine.
+     * @param slot      The slot of the magazine.
+     * @param item      The magazine item.
+     * @return The UUID of the magazine left in the slot.
+     */
+    public static UUID ensureMagazine(ItemContainer container, short slot, ItemStack item) {
+        UUID uuid = item.getFromMetadataOrNull("HFF_STATE", Codec.UUID_BINARY);
+        if (uuid == null) {
+            uuid = UUID.randomUUID();
+            ItemStack tagged = item.withMetadata("HFF_STATE", Codec.UUID_BINARY, uuid);
+            container.replaceItemStackInSlot(slot, item, tagged);
+            item = tagged;
+        }
+
+        MagazineState state = Registries.MAGAZINE_STATES.get(uuid);
+        if (state == null) {
+            state = new MagazineState();
+            Registries.MAGAZINE_STATES.register(uuid, state);
+        }
+
+        if (item.getQuantity() > 1) {
+            splitStack(container, slot, item, state);
+        }
+        return uuid;
+    }
+
+    /**
+     * Splits a stack of magazines into single magazines. The first magazine stays in the slot, every other magazine
+     * gets its own UUID and a copy of the stack's state and is added to the container. Magazines that do not fit
+     * stay stacked in the slot.
+     *
+     * @param container The container holding the stack.
+     * @param slot      The slot of the stack.
+     * @param item      The stack.
+     * @param state     The state shared by the stacked magazines.
+     */
+    private static void splitStack(ItemContainer container, short slot, ItemStack item, MagazineState state) {
+        int extra = item.getQuantity() - 1;
+        ItemStack single = item.withQuantity(1);
+        container.replaceItemStackInSlot(slot, item, single);
+
+        int placed = 0;
+        while (placed < extra) {
+            UUID uuid = UUID.randomUUID();
+            // The state is registered first, as adding the magazine indexes it right away
+            Registries.MAGAZINE_STATES.register(uuid, new MagazineState(state));
+
+            ItemStack magazine = new ItemStack(item.getItemId()).withMetadata("HFF_STATE", Codec.UUID_BINARY, uuid);
+            ItemStack remainder = container.addItemStack(magazine).getRemainder();
+            if (remainder != null && !remainder.isEmpty()) {
+                Registries.MAGAZINE_STATES.remove(uuid);
+                break;
+            }
+            placed++;
+        }
+
+        if (placed < extra) {
+            container.replaceItemStackInSlot(slot, single, item.withQuantity(1 + extra - placed));
+        }
+    }
+
+    /**
+     * Adds a magazine to the index, or moves it if it is already indexed.
+     *
+     * @param uuid      The UUID of the magazine.
+     * @param itemId    The item ID of the magazine.
+     * @param calibreId The interned calibre ID of the magazine.
+     * @param container The container the magazine was seen in.
+     * @param slot      The slot the magazine was seen in.
+     */
+    public synchronized void add(UUID uuid, String itemId, int calibreId, ItemContainer container, short slot) {
+        remove(uuid);
+
+        MagazineState state = Registries.MAGAZINE_STATES.get(uuid);
+        Entry entry = new Entry(uuid, itemId, calibreId, state != null ? state.getCurrentAmmoCount() : 0, container, slot);
+
+        List<Entry> entries = byCalibre.computeIfAbsent(calibreId, id -> new ArrayList<>());
+        entries.add(upperBound(entries, entry.rounds()), entry);
+        byUuid.put(uuid, entry);
+    }
+
+    /**
+     * Removes a magazine from the index.
+     *
+     * @param uuid The UUID of the magazine.
+     */
+    public synchronized void remove(UUID uuid) {
+        Entry entry = byUuid.remove(uuid);
+        if (entry == null) {
+            return;
+        }
+
+        List<Entry> entries = byCalibre.get(entry.calibreId());
+        for (int i = lowerBound(entries, entry.rounds()); i < entries.size(); i++) {
+            if (entries.get(i) == entry) {
+                entries.remove(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the fullest magazine of a calibre that is still in the slot it was indexed in. Magazines that have left
+     * their slot are dropped from the index on the way. The returned magazine stays indexed until it is
+     * {@link #remove(UUID) removed}, so a reload that is interrupted can use it again.
+     *
+     * @param calibreId The interned calibre ID.
+     * @return The fullest magazine, or {@code null} if the player carries no magazine of that calibre.
+     */
+    public synchronized Entry findFullest(int calibreId) {
+        List<Entry> entries = byCalibre.get(calibreId);
+        if (entries == null || calibreId == CalibreIndex.UNKNOWN) {
+            return null;
+        }
+
+        while (!entries.isEmpty()) {
+            Entry entry = entries.get(entries.size() - 1);
+            if (isInSlot(entry)) {
+                return entry;
+            }
+            entries.remove(entries.size() - 1);
+            byUuid.remove(entry.uuid());
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the first entry with at least the given number of rounds.
+     *
+     * @param entries The entries, sorted by rounds in ascending order.
+     * @param rounds  The number of rounds.
+     * @return The index of the first entry with at least {@code rounds} rounds.
+     */
+    private static int lowerBound(List<Entry> entries, int rounds) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).rounds() < rounds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first entry with more than the given number of rounds. Inserting there keeps magazines
+     * with the same number of rounds in the order they were indexed, so the latest one is taken first.
+     *
+     * @param entries The entries, sorted by rounds in ascending order.
+     * @param rounds  The number of rounds.
+     * @return The index of the first entry with more than {@code rounds} rounds.
+     */
+    private static int upperBound(List<Entry> entries, int rounds) {
+        return lowerBound(entries, rounds + 1);
+    }
+
+    /**
+     * Checks whether a magazine is still in the slot it was indexed in.
+     *
+     * @param entry The magazine.
+     * @return {@code true} if the slot still holds the magazine.
+     */
+    private static boolean isInSlot(Entry entry) {
+        ItemStack item = entry.container().getItemStack(entry.slot());
+        return item != null && entry.uuid().equals(item.getFromMetadataOrNull("HFF_STATE", Codec.UUID_BINARY));
+    }
+}
@@ -34,6 +34,13 @@ import java.util.LinkedList;
  */
 public class MagazineState implements Serializable {
 
+    /**
+     * The serialization version, pinned to the value computed for the first release, so states saved by
+     * {@link lucis.lux.hff.storage.HFFStateStorage} stay readable when members are added. Fields added later are
+     * left at their default value when an older state is read.
+     */
+    private static final long serialVersionUID = -999633422027058192L;
+
     /**
      * A custom {@link Codec} for serializing and deserializing a {@link LinkedList} of strings.
      * This codec is used to handle the list of loaded projectiles and ensures that the magazine's contents
@@ -93,6 +100,15 @@ public class MagazineState implements Serializable {
         this.loadedProjectiles = new LinkedList<>();
     }
 
+    /**
+     * Constructs a new {@code MagazineState} by copying the loaded projectiles of another magazine.
+     *
+     * @param other The magazine to copy.
+     */
+    public MagazineState(MagazineState other) {
+        this.loadedProjectiles = new LinkedList<>(other.loadedProjectiles);
+    }
+
     /**
      * Returns the current number of loaded projectiles in the magazine.
      *
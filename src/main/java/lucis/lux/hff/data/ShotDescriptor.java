@@ -0,0 +1,511 @@
+package lucis.lux.hff.data;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.ExtraInfo;
+import com.hypixel.hytale.codec.schema.SchemaContext;
+import com.hypixel.hytale.codec.schema.config.ArraySchema;
+import com.hypixel.hytale.codec.schema.config.Schema;
+import com.hypixel.hytale.math.vector.Vector3d;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.data.registry.Registries;
+import lucis.lux.hff.util.DamageCalculator;
+import org.bson.BsonBinary;
+import org.bson.BsonValue;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * The {@code ShotDescriptor} class holds the data shared by every pellet of a single shot: where it was fired from,
+ * which firearm and ammunition fired it, and how its damage falls off over distance.
+ *
+ * <p>A descriptor is created once per shot and referenced by the {@link lucis.lux.hff.components.DamageComponent}
+ * of each pellet, which only stores its own damage and flight direction inline. A 12-pellet shotgun therefore
+ * allocates one descriptor instead of twelve copies, and cloning a component during an archetype move copies a
+ * single reference.</p>
+ *
+ * <p>Descriptors are immutable. The origin is copied into primitive fields when the descriptor is created, and
+ * {@link #getOrigin()} hands out a new vector on every call, so no caller can move the origin of the other pellets.
+ * Hot paths read it through {@link #getOriginX()}, {@link #getOriginY()}, {@link #getOriginZ()} and
+ * {@link #distanceToOrigin(Vector3d)} without allocating.</p>
+ *
+ * <p>The {@link #CODEC} packs a descriptor into a single binary value: a format version byte, the origin as three
+ * doubles, the ranges and knockback as floats, followed by the weapon UUID, the ammunition item ID and the falloff if
+ * present. If the descriptor has a falloff ID, the falloff is written as that ID and the scale it was compiled with, and the
+ * table is compiled again from the ranges when the descriptor is decoded. Only tables without a falloff ID are
+ * written in full. The ammunition is resolved from the {@link Registries#AMMO_DATA} registry again when it is decoded.
+ * Data of an unknown version, truncated or malformed data decodes to {@link #DEFAULT}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     ShotDescriptor shot = new ShotDescriptor(origin, weaponUuid, ammoId, ammo, falloffId, falloff,
+ *             stats.optimalRange, stats.maxRange, stats.minDamageMultiplier, ammo.knockbackForce());
+ *
+ *     float finalDamage = ammo.damage() * shot.getDamageMultiplier(distance);
+ * </pre>
+ */
+public final class ShotDescriptor {
+
+    /**
+     * The descriptor used by components that were not created by a firearm, for example after deserialization.
+     * Its values match the defaults of a {@link lucis.lux.hff.components.DamageComponent}.
+     */
+    public static final ShotDescriptor DEFAULT = new ShotDescriptor(new Vector3d(), null, null, null, null, null, 15.0f, 30.0f, 0.2f, 0.1f);
+
+    /**
+     * A {@link Codec} that packs a descriptor into a single {@link BsonBinary}.
+     */
+    public static final Codec<ShotDescriptor> CODEC = new Codec<ShotDescriptor>() {
+        @NullableDecl
+        @Override
+        public ShotDescriptor decode(BsonValue bsonValue, ExtraInfo extraInfo) {
+            if (bsonValue instanceof BsonBinary binary) {
+                try {
+                    return read(ByteBuffer.wrap(binary.getData()));
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    if (HFF.get().getConfigData().isDebugMode()) {
+                        HFF.get().getLogger().atInfo().log("Could not decode shot descriptor: " + e.getMessage());
+                    }
+                }
+            }
+            return DEFAULT;
+        }
+
+        @Override
+        public BsonValue encode(ShotDescriptor shot, ExtraInfo extraInfo) {
+            ByteBuffer buffer = ByteBuffer.allocate(shot.getEncodedSize());
+            shot.write(buffer);
+            return new BsonBinary(buffer.array());
+        }
+
+        @NonNullDecl
+        @Override
+        public Schema toSchema(@NonNullDecl SchemaContext schemaContext) {
+            return new ArraySchema();
+        }
+    };
+
+    /**
+     * The version of the encoded form written by {@link #write(ByteBuffer)}. Increase it whenever the layout changes,
+     * and keep reading the older versions in {@link #read(ByteBuffer)}.
+     */
+    private static final byte FORMAT_VERSION = 1;
+
+    /**
+     * Flag set in the encoded form if a weapon UUID follows.
+     */
+    private static final byte HAS_WEAPON = 1;
+
+    /**
+     * Flag set in the encoded form if an ammunition item ID follows.
+     */
+    private static final byte HAS_AMMO = 2;
+
+    /**
+     * The falloff ID of a falloff compiled from {@link FalloffCurve#LINEAR}.
+     */
+    public static final String LINEAR_FALLOFF_ID = "";
+
+    /**
+     * Flag set in the encoded form if a complete falloff table follows.
+     */
+    private static final byte HAS_FALLOFF = 4;
+
+    /**
+     * Flag set in the encoded form if the ID and scale of a falloff curve follow.
+     */
+    private static final byte HAS_CURVE = 8;
+
+    /**
+     * The x coordinate of the position the shot was fired from.
+     */
+    private final double originX;
+
+    /**
+     * The y coordinate of the position the shot was fired from.
+     */
+    private final double originY;
+
+    /**
+     * The z coordinate of the position the shot was fired from.
+     */
+    private final double originZ;
+
+    /**
+     * The UUID of the firearm that fired the shot.
+     */
+    private final UUID weaponUuid;
+
+    /**
+     * The item ID of the ammunition that was fired.
+     */
+    private final String ammoId;
+
+    /**
+     * The ammunition that was fired.
+     */
+    private final AmmoData ammo;
+
+    /**
+     * The registry ID of the {@link FalloffCurve} the falloff was compiled from, or {@link #LINEAR_FALLOFF_ID}.
+     */
+    private final String falloffId;
+
+    /**
+     * The precompiled damage falloff of the firearm and its ammunition.
+     */
+    private final FalloffTable falloff;
+
+    /**
+     * The range up to which the shot deals full damage.
+     */
+    private final float optimalRange;
+
+    /**
+     * The range at which the shot reaches its minimum damage.
+     */
+    private final float maxRange;
+
+    /**
+     * The damage multiplier applied at and beyond the maximum range.
+     */
+    private final float minDamageMultiplier;
+
+    /**
+     * The force of the knockback applied when a pellet hits a target.
+     */
+    private final float knockbackForce;
+
+    /**
+     * Constructs a new {@code ShotDescriptor}.
+     *
+     * @param origin              The position the shot was fired from. It is copied.
+     * @param weaponUuid          The UUID of the firearm that fired the shot, or {@code null} if unknown.
+     * @param ammoId              The item ID of the ammunition that was fired, or {@code null} if unknown.
+     * @param ammo                The ammunition that was fired, or {@code null} if unknown.
+     * @param falloffId           The ID of the curve in {@link Registries#FALLOFF_CURVES} the falloff was compiled from
+     *                            with the ranges of this descriptor, {@link #LINEAR_FALLOFF_ID} for the linear
+     *                            default, or {@code null} if the falloff cannot be compiled again.
+     * @param falloff             The precompiled damage falloff, or {@code null} to use a linear falloff.
+     * @param optimalRange        The range up to which the shot deals full damage.
+     * @param maxRange            The range at which the shot reaches its minimum damage.
+     * @param minDamageMultiplier The damage multiplier applied at and beyond the maximum range.
+     * @param knockbackForce      The force of the knockback applied when a pellet hits a target.
+     */
+    public ShotDescriptor(Vector3d origin, UUID weaponUuid, String ammoId, AmmoData ammo, String falloffId, FalloffTable falloff, float optimalRange, float maxRange, float minDamageMultiplier, float knockbackForce) {
+        this.originX = origin.x;
+        this.originY = origin.y;
+        this.originZ = origin.z;
+        this.weaponUuid = weaponUuid;
+        this.ammoId = ammoId;
+        this.ammo = ammo;
+        this.falloffId = falloffId;
+        this.falloff = falloff;
+        this.optimalRange = optimalRange;
+        this.maxRange = maxRange;
+        this.minDamageMultiplier = minDamageMultiplier;
+        this.knockbackForce = knockbackForce;
+    }
+
+    /**
+     * Returns the damage multiplier at the given distance, including the global damage multiplier.
+     *
+     * @param distance The distance between the origin and the hit position.
+     * @return The damage multiplier.
+     */
+    public float getDamageMultiplier(double distance) {
+        if (falloff != null) {
+            return falloff.sample(distance);
+        }
+        return DamageCalculator.getFinalDamage(1.0f, optimalRange, maxRange, minDamageMultiplier, distance);
+    }
+
+    /**
+     * Returns the fraction of armor the shot ignores.
+     *
+     * @return The armor penetration of the ammunition, or {@code 0} if the ammunition is unknown.
+     */
+    public float getArmorPenetration() {
+        return ammo != null ? ammo.armorPenetration() : 0.0f;
+    }
+
+    /**
+     * Returns whether the rounds of the shot explode when they hit something.
+     *
+     * @return {@code true} if the ammunition is explosive, see {@link AmmoData#isExplosive()}.
+     */
+    public boolean isExplosive() {
+        return ammo != null && ammo.isExplosive();
+    }
+
+    /**
+     * Returns the damage multiplier of a round that has spent part of its penetration power on blocks.
+     *
+     * @param remainingPower The penetration power the round has left.
+     * @return The ratio of the remaining to the initial penetration power, or {@code 1} if the ammunition has none.
+     */
+    public float getPenetrationMultiplier(float remainingPower) {
+        if (ammo == null || ammo.penetrationPower() <= 0) {
+            return 1.0f;
+        }
+        return Math.max(0.0f, Math.min(1.0f, remainingPower / ammo.penetrationPower()));
+    }
+
+    /**
+     * Returns a copy of the position the shot was fired from.
+     *
+     * @return A new vector holding the origin of the shot.
+     */
+    public Vector3d getOrigin() {
+        return new Vector3d(originX, originY, originZ);
+    }
+
+    /**
+     * Returns the x coordinate of the position the shot was fired from.
+     *
+     * @return The x coordinate of the origin.
+     */
+    public double getOriginX() {
+        return originX;
+    }
+
+    /**
+     * Returns the y coordinate of the position the shot was fired from.
+     *
+     * @return The y coordinate of the origin.
+     */
+    public double getOriginY() {
+        return originY;
+    }
+
+    /**
+     * Returns the z coordinate of the position the shot was fired from.
+     *
+     * @return The z coordinate of the origin.
+     */
+    public double getOriginZ() {
+        return originZ;
+    }
+
+    /**
+     * Returns the distance between the position the shot was fired from and a point.
+     *
+     * @param point The point.
+     * @return The distance to the origin.
+     */
+    public double distanceToOrigin(Vector3d point) {
+        double dx = point.x - originX;
+        double dy = point.y - originY;
+        double dz = point.z - originZ;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Returns the UUID of the firearm that fired the shot.
+     *
+     * @return The UUID of the firearm, or {@code null} if unknown.
+     */
+    public UUID getWeaponUuid() {
+        return weaponUuid;
+    }
+
+    /**
+     * Returns the item ID of the ammunition that was fired.
+     *
+     * @return The item ID of the ammunition, or {@code null} if unknown.
+     */
+    public String getAmmoId() {
+        return ammoId;
+    }
+
+    /**
+     * Returns the ammunition that was fired.
+     *
+     * @return The ammunition, or {@code null} if unknown.
+     */
+    public AmmoData getAmmo() {
+        return ammo;
+    }
+
+    /**
+     * Returns the precompiled damage falloff of the shot.
+     *
+     * @return The falloff table, or {@code null} if a linear falloff is used.
+     */
+    public FalloffTable getFalloff() {
+        return falloff;
+    }
+
+    /**
+     * Returns the range up to which the shot deals full damage.
+     *
+     * @return The optimal range.
+     */
+    public float getOptimalRange() {
+        return optimalRange;
+    }
+
+    /**
+     * Returns the range at which the shot reaches its minimum damage.
+     *
+     * @return The maximum range.
+     */
+    public float getMaxRange() {
+        return maxRange;
+    }
+
+    /**
+     * Returns the damage multiplier applied at and beyond the maximum range.
+     *
+     * @return The minimum damage multiplier.
+     */
+    public float getMinDamageMultiplier() {
+        return minDamageMultiplier;
+    }
+
+    /**
+     * Returns the force of the knockback applied when a pellet hits a target.
+     *
+     * @return The knockback force.
+     */
+    public float getKnockbackForce() {
+        return knockbackForce;
+    }
+
+    /**
+     * Returns the registry ID of the curve the falloff was compiled from.
+     *
+     * @return The ID of the falloff curve, {@link #LINEAR_FALLOFF_ID} for the linear default, or {@code null} if the
+     * falloff cannot be compiled again.
+     */
+    public String getFalloffId() {
+        return falloffId;
+    }
+
+    /**
+     * Returns the number of bytes {@link #write(ByteBuffer)} writes for this descriptor.
+     *
+     * @return The encoded size in bytes.
+     */
+    public int getEncodedSize() {
+        int size = 1 + 3 * Double.BYTES + 4 * Float.BYTES + 1;
+        if (weaponUuid != null) {
+            size += 2 * Long.BYTES;
+        }
+        if (ammoId != null) {
+            size += Short.BYTES + ammoId.getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (falloff != null && falloffId != null) {
+            size += Short.BYTES + falloffId.getBytes(StandardCharsets.UTF_8).length + Float.BYTES;
+        } else if (falloff != null) {
+            size += FalloffTable.BYTES;
+        }
+        return size;
+    }
+
+
+    /**
+     * Writes this descriptor into a buffer.
+     *
+     * @param buffer The buffer to write to. Must have at least {@link #getEncodedSize()} bytes remaining.
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.put(FORMAT_VERSION);
+        buffer.putDouble(originX);
+        buffer.putDouble(originY);
+        buffer.putDouble(originZ);
+        buffer.putFloat(optimalRange);
+        buffer.putFloat(maxRange);
+        buffer.putFloat(minDamageMultiplier);
+        buffer.putFloat(knockbackForce);
+        byte falloffFlag = falloff == null ? 0 : falloffId != null ? HAS_CURVE : HAS_FALLOFF;
+        buffer.put((byte) ((weaponUuid != null ? HAS_WEAPON : 0) | (ammoId != null ? HAS_AMMO : 0) | falloffFlag));
+
+        if (weaponUuid != null) {
+            buffer.putLong(weaponUuid.getMostSignificantBits());
+            buffer.putLong(weaponUuid.getLeastSignificantBits());
+        }
+        if (ammoId != null) {
+            writeString(buffer, ammoId);
+        }
+        if (falloffFlag == HAS_CURVE) {
+            writeString(buffer, falloffId);
+            buffer.putFloat(falloff.getScale());
+        } else if (falloffFlag == HAS_FALLOFF) {
+            falloff.write(buffer);
+        }
+    }
+
+    /**
+     * Reads a descriptor written by {@link #write(ByteBuffer)}. The ammunition is resolved from its item ID.
+     *
+     * @param buffer The buffer to read from.
+     * @return The descriptor.
+     * @throws IllegalArgumentException If the data was written in an unknown format version.
+     * @throws BufferUnderflowException If the data is truncated.
+     */
+    public static ShotDescriptor read(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown shot descriptor format version " + version);
+        }
+
+        Vector3d origin = new Vector3d(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+        float optimalRange = buffer.getFloat();
+        float maxRange = buffer.getFloat();
+        float minDamageMultiplier = buffer.getFloat();
+        float knockbackForce = buffer.getFloat();
+        byte flags = buffer.get();
+
+        UUID weaponUuid = (flags & HAS_WEAPON) != 0 ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+
+        String ammoId = (flags & HAS_AMMO) != 0 ? readString(buffer) : null;
+
+        String falloffId = null;
+        FalloffTable falloff = null;
+        if ((flags & HAS_CURVE) != 0) {
+            falloffId = readString(buffer);
+            float scale = buffer.getFloat();
+            FalloffCurve curve = falloffId.isEmpty() ? null : Registries.FALLOFF_CURVES.get(falloffId);
+            if (curve == null) {
+                // The linear default, or a curve that is no longer registered
+                falloffId = LINEAR_FALLOFF_ID;
+                curve = FalloffCurve.LINEAR;
+            }
+            falloff = curve.compile(optimalRange, maxRange, minDamageMultiplier, scale);
+        } else if ((flags & HAS_FALLOFF) != 0) {
+            falloff = FalloffTable.read(buffer);
+        }
+
+        AmmoData ammo = ammoId != null ? Registries.AMMO_DATA.get(ammoId) : null;
+        return new ShotDescriptor(origin, weaponUuid, ammoId, ammo, falloffId, falloff, optimalRange, maxRange, minDamageMultiplier, knockbackForce);
+    }
+
+    /**
+     * Writes a string as its UTF-8 length followed by its bytes.
+     *
+     * @param buffer The buffer to write to.
+     * @param value  The string to write.
+     */
+    private static void writeString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(ByteBuffer, String)}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The string.
+     */
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+package lucis.lux.hff.data.registry;
+
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code BlockHardnessIndex} class resolves the hardness of blocks for round penetration and ricochets.
+ *
+ * <p>Hardness values are registered by block ID while HFF assets are loaded, either for a single block or, with a
+ * trailing {@code *}, for every block whose ID starts with the given prefix. A few common materials are registered by
+ * default. Once Hytale's block assets are loaded, {@link #build()} resolves the hardness of every block type and
+ * stores it in an array indexed by the numeric block ID, the same ID {@code World#getBlock} returns. Looking up the
+ * hardness of a block during a trace is therefore a single array read.</p>
+ *
+ * <p>Hardness is measured in units of penetration power: a round passes through a block if its remaining
+ * {@link lucis.lux.hff.data.AmmoData#penetrationPower()} exceeds the hardness of the block, and loses that much power.
+ * Blocks with a hardness of {@code 0} do not stop rounds at all. Blocks without a registered hardness use
+ * {@link #DEFAULT_HARDNESS}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     BlockHardnessIndex.register("Rock_*", 4.0f);
+ *     BlockHardnessIndex.build();
+ *
+ *     float hardness = BlockHardnessIndex.get(world.getBlock(x, y, z));
+ * </pre>
+ */
+public final class BlockHardnessIndex {
+
+    /**
+     * The hardness of blocks without a registered hardness.
+     */
+    public static final float DEFAULT_HARDNESS = 1.0f;
+
+    /**
+     * The registered hardness values, keyed by block ID or by block ID prefix ending in {@code *}.
+     */
+    private static final Map<String, Float> HARDNESS = new HashMap<>();
+
+    /**
+     * The resolved hardness of every block type, indexed by the numeric block ID.
+     */
+    private static volatile float[] table = new float[0];
+
+    static {
+        HARDNESS.put("Plant_*", 0.0f);
+        HARDNESS.put("Soil_*", 1.5f);
+        HARDNESS.put("Wood_*", 1.0f);
+        HARDNESS.put("Rock_*", 4.0f);
+        HARDNESS.put("Ore_*", 6.0f);
+        HARDNESS.put("Metal_*", 8.0f);
+    }
+
+    private BlockHardnessIndex() {
+    }
+
+    /**
+     * Registers the hardness of a block or, if the ID ends with {@code *}, of every block whose ID starts with the
+     * given prefix. Takes effect with the next {@link #build()}.
+     *
+     * @param blockId  The block ID or prefix.
+     * @param hardness The hardness of the block.
+     */
+    public static synchronized void register(String blockId, float hardness) {
+        HARDNESS.put(blockId, hardness);
+    }
+
+    /**
+     * Resolves the hardness of every loaded block type into the lookup array. An exact match of the block ID takes
+     * precedence over the longest matching prefix.
+     */
+    public static synchronized void build() {
+        Map<String, BlockType> blocks = BlockType.getAssetMap().getAssetMap();
+
+        int size = 0;
+        for (String key : blocks.keySet()) {
+            size = Math.max(size, BlockType.getAssetMap().getIndex(key) + 1);
+        }
+
+        float[] resolved = new float[size];
+        for (String key : blocks.keySet()) {
+            int index = BlockType.getAssetMap().getIndex(key);
+            if (index >= 0) {
+                resolved[index] = resolve(key);
+            }
+        }
+        table = resolved;
+    }
+
+    /**
+     * Returns the hardness of a block.
+     *
+     * @param blockId The numeric block ID.
+     * @return The hardness of the block, {@code 0} for empty blocks, or {@link #DEFAULT_HARDNESS} if the block ID is
+     * unknown.
+     */
+    public static float get(int blockId) {
+        if (blockId == 0) {
+            return 0.0f;
+        }
+        float[] current = table;
+        return blockId > 0 && blockId < current.length ? current[blockId] : DEFAULT_HARDNESS;
+    }
+
+    /**
+     * Resolves the hardness of a block ID from the registered values.
+     *
+     * @param key The block ID.
+     * @return The hardness of the block.
+     */
+    private static float resolve(String key) {
+        Float exact = HARDNESS.get(key);
+        if (exact != null) {
+            return exact;
+        }
+
+        float hardness = DEFAULT_HARDNESS;
+        int longest = -1;
+        for (Map.Entry<String, Float> entry : HARDNESS.entrySet()) {
+            String pattern = entry.getKey();
+            if (pattern.endsWith("*") && pattern.length() - 1 > longest
+                    && key.startsWith(pattern.substring(0, pattern.length() - 1))) {
+                longest = pattern.length() - 1;
+                hardness = entry.getValue();
+            }
+        }
+        return hardness;
+    }
+}
@@ -0,0 +1,185 @@
+package lucis.lux.hff.data.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code CalibreIndex} class interns calibre names into dense integer IDs and indexes which ammunition and
+ * magazines belong to each calibre.
+ *
+ * <p>IDs are assigned in the order calibres are first seen while assets are loaded, and do not change until the
+ * assets are loaded again, which {@link #reset()}s the index. This turns calibre checks into integer comparisons and
+ * answers compatibility queries such as "which ammunition fits this firearm" with a single array access instead of
+ * a scan over {@link Registries#AMMO_DATA}.</p>
+ *
+ * <p>Items without a calibre get the ID {@link #UNKNOWN}, which is not compatible with anything, not even with
+ * itself. Compatibility is therefore checked with {@link #isCompatible(int, int)} instead of {@code ==}.</p>
+ *
+ * <p>The {@code calibreId} of {@link lucis.lux.hff.data.FirearmStats}, {@link lucis.lux.hff.data.AmmoData} and
+ * {@link lucis.lux.hff.data.MagazineData} is interned automatically by their builders.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     if (CalibreIndex.isCompatible(ammo.calibreId(), stats.calibreId())) {
+ *         // The ammunition fits
+ *     }
+ *
+ *     List&lt;String&gt; compatibleAmmo = CalibreIndex.getAmmo(stats.calibreId());
+ * </pre>
+ */
+public final class CalibreIndex {
+
+    /**
+     * The ID returned for calibres that have not been interned. It is never compatible with any calibre.
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * The IDs of all interned calibres, keyed by their name.
+     */
+    private static final Map<String, Integer> IDS = new HashMap<>();
+
+    /**
+     * The names of all interned calibres, indexed by their ID.
+     */
+    private static final List<String> NAMES = new ArrayList<>();
+
+    /**
+     * The IDs of all ammunition items, indexed by their calibre ID.
+     */
+    private static final List<List<String>> AMMO = new ArrayList<>();
+
+    /**
+     * The IDs of all magazine items, indexed by their calibre ID.
+     */
+    private static final List<List<String>> MAGAZINES = new ArrayList<>();
+
+    private CalibreIndex() {
+    }
+
+    /**
+     * Returns the ID of a calibre, assigning the next free ID if the calibre has not been seen before.
+     *
+     * @param calibre The name of the calibre.
+     * @return The ID of the calibre, or {@link #UNKNOWN} if the name is {@code null}.
+     */
+    public static synchronized int intern(String calibre) {
+        if (calibre == null) {
+            return UNKNOWN;
+        }
+
+        Integer id = IDS.get(calibre);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = NAMES.size();
+        IDS.put(calibre, newId);
+        NAMES.add(calibre);
+        AMMO.add(new ArrayList<>());
+        MAGAZINES.add(new ArrayList<>());
+        return newId;
+    }
+
+    /**
+     * Checks whether two calibres are compatible, that is whether both are known and the same.
+     * {@link #UNKNOWN} is not compatible with anything, so two items without a calibre never fit each other.
+     *
+     * @param calibreId The ID of the first calibre.
+     * @param otherId   The ID of the second calibre.
+     * @return {@code true} if the calibres are compatible.
+     */
+    public static boolean isCompatible(int calibreId, int otherId) {
+        return calibreId != UNKNOWN && calibreId == otherId;
+    }
+
+    /**
+     * Removes all calibres and indexed items, so the IDs are assigned again from {@code 0}. Called before the assets
+     * are loaded, together with clearing the registries whose entries hold calibre IDs, since their IDs would
+     * otherwise point at the wrong calibres.
+     */
+    public static synchronized void reset() {
+        IDS.clear();
+        NAMES.clear();
+        AMMO.clear();
+        MAGAZINES.clear();
+    }
+
+    /**
+     * Returns the ID of a calibre without interning it.
+     *
+     * @param calibre The name of the calibre.
+     * @return The ID of the calibre, or {@link #UNKNOWN} if it has not been interned.
+     */
+    public static synchronized int getId(String calibre) {
+        Integer id = IDS.get(calibre);
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Returns the name of a calibre.
+     *
+     * @param calibreId The ID of the calibre.
+     * @return The name of the calibre, or {@code null} if the ID is unknown.
+     */
+    public static synchronized String getName(int calibreId) {
+        return isKnown(calibreId) ? NAMES.get(calibreId) : null;
+    }
+
+    /**
+     * Adds an ammunition item to the index of its calibre.
+     *
+     * @param itemId    The ID of the ammunition item.
+     * @param calibreId The ID of its calibre.
+     */
+    public static synchronized void indexAmmo(String itemId, int calibreId) {
+        if (isKnown(calibreId) && !AMMO.get(calibreId).contains(itemId)) {
+            AMMO.get(calibreId).add(itemId);
+        }
+    }
+
+    /**
+     * Adds a magazine item to the index of its calibre.
+     *
+     * @param itemId    The ID of the magazine item.
+     * @param calibreId The ID of its calibre.
+     */
+    public static synchronized void indexMagazine(String itemId, int calibreId) {
+        if (isKnown(calibreId) && !MAGAZINES.get(calibreId).contains(itemId)) {
+            MAGAZINES.get(calibreId).add(itemId);
+        }
+    }
+
+    /**
+     * Returns the IDs of all ammunition items of a calibre.
+     *
+     * @param calibreId The ID of the calibre.
+     * @return An unmodifiable list of ammunition item IDs, empty if the calibre is unknown.
+     */
+    public static synchronized List<String> getAmmo(int calibreId) {
+        return isKnown(calibreId) ? Collections.unmodifiableList(AMMO.get(calibreId)) : List.of();
+    }
+
+    /**
+     * Returns the IDs of all magazine items of a calibre.
+     *
+     * @param calibreId The ID of the calibre.
+     * @return An unmodifiable list of magazine item IDs, empty if the calibre is unknown.
+     */
+    public static synchronized List<String> getMagazines(int calibreId) {
+        return isKnown(calibreId) ? Collections.unmodifiableList(MAGAZINES.get(calibreId)) : List.of();
+    }
+
+    /**
+     * Checks whether an ID belongs to an interned calibre.
+     *
+     * @param calibreId The ID to check.
+     * @return {@code true} if the ID is known.
+     */
+    private static boolean isKnown(int calibreId) {
+        return calibreId >= 0 && calibreId < NAMES.size();
+    }
+}
@@ -17,6 +17,7 @@ import java.util.Map;
  *   <li>Copying the entire registry.</li>
  *   <li>Clearing the registry.</li>
  *   <li>Updating an existing key-value pair.</li>
+ *   <li>Tracking a version that changes on every modification.</li>
  * </ul>
  *
  * <p>This class is thread-unsafe. If thread safety is required, external synchronization should be used.</p>
@@ -54,6 +55,12 @@ public class HFFRegistry<K, V> implements Serializable {
      */
     private final Map<K, V> REGISTRY = new HashMap<>();
 
+    /**
+     * A counter that is incremented on every modification of the registry.
+     * It allows caches derived from the registry's contents to detect that they are stale.
+     */
+    private transient int version = 0;
+
     /**
      * Registers a key-value pair in the registry.
      * If the key already exists, the existing value will be overwritten.
@@ -63,6 +70,7 @@ public class HFFRegistry<K, V> implements Serializable {
      */
     public void register(K key, V value) {
         REGISTRY.put(key, value);
+        version++;
     }
 
     /**
@@ -82,6 +90,7 @@ public class HFFRegistry<K, V> implements Serializable {
      */
     public void remove(K key) {
         REGISTRY.remove(key);
+        version++;
     }
 
     /**
@@ -99,6 +108,7 @@ public class HFFRegistry<K, V> implements Serializable {
      */
     public void clear() {
         REGISTRY.clear();
+        version++;
     }
 
     /**
@@ -110,5 +120,16 @@ public class HFFRegistry<K, V> implements Serializable {
      */
     public void update(K key, V value) {
         REGISTRY.put(key, value);
+        version++;
+    }
+
+    /**
+     * Returns the modification counter of the registry. The value changes whenever a key-value pair is
+     * registered, updated or removed, or the registry is cleared.
+     *
+     * @return The current version of the registry.
+     */
+    public int getVersion() {
+        return version;
     }
 }
\ No newline at end of file
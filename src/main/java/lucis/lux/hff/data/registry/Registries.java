@@ -18,6 +18,9 @@ import java.util.UUID;
  *   <li>{@link #AMMO_DATA}: A registry for managing ammunition data, keyed by ammunition item IDs.</li>
  *   <li>{@link #ATTACHMENT_DATA}: A registry for managing attachment data, keyed by attachment item IDs.</li>
  *   <li>{@link #MAGAZINE_DATA}: A registry for managing magazine data, keyed by magazine item IDs.</li>
+ *   <li>{@link #FIREARM_PATTERNS}: A registry for managing compiled recoil and spread patterns, keyed by firearm item IDs.</li>
+ *   <li>{@link #FALLOFF_CURVES}: A registry for managing damage falloff curves, keyed by firearm and ammunition item IDs.</li>
+ *   <li>{@link #HITBOX_TABLES}: A registry for managing hitbox tables, keyed by entity model IDs.</li>
  * </ul>
  *
  * <p>Example usage:</p>
@@ -39,6 +42,11 @@ import java.util.UUID;
  * @see AmmoData
  * @see AttachmentData
  * @see MagazineData
+ * @see FirearmPattern
+ * @see FalloffCurve
+ * @see HitboxTable
+ * @see CalibreIndex
+ * @see BlockHardnessIndex
  */
 public class Registries {
 
@@ -73,6 +81,21 @@ public class Registries {
      * This registry allows for storing and retrieving data related to firearm magazines.
      */
     public static final HFFRegistry<String, MagazineData> MAGAZINE_DATA = new HFFRegistry<>();
+    /**
+     * A registry for managing compiled recoil and spread patterns, keyed by firearm item IDs.
+     * Only firearms that define a pattern have an entry in this registry.
+     */
+    public static final HFFRegistry<String, FirearmPattern> FIREARM_PATTERNS = new HFFRegistry<>();
+    /**
+     * A registry for managing damage falloff curves, keyed by firearm and ammunition item IDs.
+     * Only items that define a curve have an entry in this registry.
+     */
+    public static final HFFRegistry<String, FalloffCurve> FALLOFF_CURVES = new HFFRegistry<>();
+    /**
+     * A registry for managing hitbox tables, keyed by entity model IDs.
+     * Entities whose model has no entry use {@link HitboxTable#HUMANOID}.
+     */
+    public static final HFFRegistry<String, HitboxTable> HITBOX_TABLES = new HFFRegistry<>();
 
 
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package lucis.lux.hff.enums;
+
+/**
+ * The shapes a {@link lucis.lux.hff.data.FalloffCurve} can take between the optimal and the maximum range of a round.
+ */
+public enum FalloffType {
+    /**
+     * The damage drops linearly from full damage to the minimum damage multiplier.
+     */
+    LINEAR,
+    /**
+     * The damage drops in a number of equal steps, holding each step until the next one is reached.
+     */
+    STEPPED,
+    /**
+     * The damage drops along a power curve. Exponents above {@code 1} keep the damage high for longer,
+     * exponents below {@code 1} make it drop off quickly.
+     */
+    EXPONENTIAL,
+    /**
+     * The damage follows a list of {@code [distance, multiplier]} points defined in JSON.
+     */
+    CUSTOM
+}
@@ -0,0 +1,39 @@
+package lucis.lux.hff.enums;
+
+/**
+ * The zones of a body a round can hit, as defined by a {@link lucis.lux.hff.data.HitboxTable}.
+ * Each zone has its own damage multiplier and armor value in the table of the hit entity's model.
+ */
+public enum HitZone {
+    /**
+     * The head. Headshots usually deal the most damage.
+     */
+    HEAD,
+    /**
+     * The torso. Hits inside the bounds of an entity that miss every hitbox count as torso hits.
+     */
+    TORSO,
+    /**
+     * The arms.
+     */
+    ARMS,
+    /**
+     * The legs.
+     */
+    LEGS;
+
+    /**
+     * The zones in ordinal order, cached so zones can be looked up by ordinal without copying the array.
+     */
+    private static final HitZone[] VALUES = values();
+
+    /**
+     * Returns the zone with the given ordinal.
+     *
+     * @param ordinal The ordinal of the zone.
+     * @return The zone.
+     */
+    public static HitZone of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
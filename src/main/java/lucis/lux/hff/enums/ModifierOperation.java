@@ -0,0 +1,21 @@
+package lucis.lux.hff.enums;
+
+/**
+ * The operations a {@link lucis.lux.hff.modifiers.StatModifier} can apply to a stat.
+ * Operations are applied in the order of their modifiers, so an {@link #OVERRIDE} followed by a
+ * {@link #MULTIPLY} scales the overridden value.
+ */
+public enum ModifierOperation {
+    /**
+     * Adds the modifier's value to the stat.
+     */
+    ADD,
+    /**
+     * Multiplies the stat by the modifier's value.
+     */
+    MULTIPLY,
+    /**
+     * Replaces the stat with the modifier's value.
+     */
+    OVERRIDE
+}
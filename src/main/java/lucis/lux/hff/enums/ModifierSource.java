@@ -0,0 +1,14 @@
+package lucis.lux.hff.enums;
+
+/**
+ * The origin of a {@link lucis.lux.hff.modifiers.StatModifier}. The source does not affect how a modifier is
+ * applied, but allows mods to tell modifiers apart, e.g. for tooltips or debugging.
+ */
+public enum ModifierSource {
+    ATTACHMENT,
+    EVENT,
+    PERK,
+    WEATHER,
+    WORLD_RULE,
+    OTHER
+}
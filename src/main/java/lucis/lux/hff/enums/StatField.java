@@ -0,0 +1,91 @@
+package lucis.lux.hff.enums;
+
+import lucis.lux.hff.data.FirearmStats;
+
+/**
+ * The numeric fields of {@link FirearmStats} that can be changed by a {@link lucis.lux.hff.modifiers.StatModifier}.
+ *
+ * <p>Every field knows how to read its value from a {@link FirearmStats} and how to write a value into a
+ * {@link FirearmStats.Builder}. Integer fields are rounded when written, and {@link #DISABLED} treats values of
+ * {@code 0.5} and above as {@code true}.</p>
+ */
+public enum StatField {
+    RELOAD_TIME(FirearmStats::reloadTime, (b, v) -> b.reloadTime(v)),
+    RPM(FirearmStats::rpm, (b, v) -> b.rpm(v)),
+    PROJECTILE_VELOCITY(FirearmStats::projectileVelocity, (b, v) -> b.projectileVelocity(v)),
+    PROJECTILE_AMOUNT(FirearmStats::projectileAmount, (b, v) -> b.projectileAmount(Math.round(v))),
+    PROJECTILE_CAPACITY(FirearmStats::projectileCapacity, (b, v) -> b.projectileCapacity(Math.round(v))),
+    SPREAD_BASE(FirearmStats::spreadBase, (b, v) -> b.spreadBase(v)),
+    MOVEMENT_PENALTY(FirearmStats::movementPenalty, (b, v) -> b.movementPenalty(v)),
+    MISFIRE_CHANCE(FirearmStats::misfireChance, (b, v) -> b.misfireChance(v)),
+    JAM_CHANCE(FirearmStats::jamChance, (b, v) -> b.jamChance(v)),
+    VERTICAL_RECOIL(FirearmStats::verticalRecoil, (b, v) -> b.verticalRecoil(v)),
+    HORIZONTAL_RECOIL(FirearmStats::horizontalRecoil, (b, v) -> b.horizontalRecoil(v)),
+    DISABLED(s -> s.disabled() ? 1.0f : 0.0f, (b, v) -> b.disabled(v >= 0.5f)),
+    BURST_ROUNDS(FirearmStats::burstRounds, (b, v) -> b.burstRounds(Math.round(v))),
+    OPTIMAL_RANGE(FirearmStats::optimalRange, (b, v) -> b.optimalRange(v)),
+    MAX_RANGE(FirearmStats::maxRange, (b, v) -> b.maxRange(v)),
+    MIN_DAMAGE_MULTIPLIER(FirearmStats::minDamageMultiplier, (b, v) -> b.minDamageMultiplier(v));
+
+    /**
+     * Cached result of {@link #values()}, to avoid copying the array on every lookup.
+     */
+    private static final StatField[] VALUES = values();
+
+    private final Reader reader;
+    private final Writer writer;
+
+    StatField(Reader reader, Writer writer) {
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    /**
+     * Returns the field with the given ordinal.
+     *
+     * @param ordinal The ordinal of the field.
+     * @return The field.
+     */
+    public static StatField byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Returns the number of fields.
+     *
+     * @return The number of fields.
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * Reads the value of this field.
+     *
+     * @param stats The statistics to read from.
+     * @return The value of this field as a float.
+     */
+    public float read(FirearmStats stats) {
+        return reader.read(stats);
+    }
+
+    /**
+     * Writes a value into this field.
+     *
+     * @param builder The builder to write into.
+     * @param value   The value to write.
+     */
+    public void write(FirearmStats.Builder builder, float value) {
+        writer.write(builder, value);
+    }
+
+    @FunctionalInterface
+    private interface Reader {
+        float read(FirearmStats stats);
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(FirearmStats.Builder builder, float value);
+    }
+}
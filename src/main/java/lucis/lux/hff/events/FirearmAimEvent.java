@@ -0,0 +1,149 @@
+package lucis.lux.hff.events;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.event.ICancellable;
+import com.hypixel.hytale.event.IEvent;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * The {@code FirearmAimEvent} class is an abstract event that represents a player toggling the aiming mode of a firearm.
+ * This class provides two nested classes, {@link Pre} and {@link Post}, to represent events before and after the aiming
+ * mode is toggled.
+ *
+ * <p>The {@code Pre} event is cancellable and can be used to prevent the player from aiming down the sights.
+ * The {@link Post} event is dispatched after the aiming state and the HUD have been updated.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     // Register a listener for the Pre event
+ *     getEventRegistry().register(FirearmAimEvent.Pre.class, event -> {
+ *         if (event.isAiming() &amp;&amp; isSwimming(event.getPlayerRef())) {
+ *             event.setCancelled(true);
+ *         }
+ *     });
+ *
+ *     // Register a listener for the Post event
+ *     getEventRegistry().register(FirearmAimEvent.Post.class, event -> {
+ *         boolean aiming = event.isAiming();
+ *         // Custom logic after the aiming mode changed
+ *     });
+ * </pre>
+ */
+public abstract class FirearmAimEvent implements IEvent<Void> {
+
+    /**
+     * A reference to the player who is toggling the aiming mode.
+     */
+    protected final Ref<EntityStore> playerRef;
+
+    /**
+     * The firearm item held by the player.
+     */
+    protected final ItemStack weapon;
+
+    /**
+     * Whether the player is aiming after the toggle.
+     */
+    protected final boolean aiming;
+
+    /**
+     * Constructs a new {@code FirearmAimEvent} with the specified player, firearm item, and aiming state.
+     *
+     * @param playerRef A reference to the player who is toggling the aiming mode.
+     * @param weapon    The firearm item held by the player.
+     * @param aiming    Whether the player is aiming after the toggle.
+     */
+    protected FirearmAimEvent(Ref<EntityStore> playerRef, ItemStack weapon, boolean aiming) {
+        this.playerRef = playerRef;
+        this.weapon = weapon;
+        this.aiming = aiming;
+    }
+
+    /**
+     * Returns a reference to the player who is toggling the aiming mode.
+     *
+     * @return A reference to the player.
+     */
+    public Ref<EntityStore> getPlayerRef() {
+        return playerRef;
+    }
+
+    /**
+     * Returns the firearm item held by the player.
+     *
+     * @return The firearm item.
+     */
+    public ItemStack getWeapon() {
+        return weapon;
+    }
+
+    /**
+     * Returns whether the player is aiming after the toggle.
+     *
+     * @return {@code true} if the player starts aiming, {@code false} if the player stops aiming.
+     */
+    public boolean isAiming() {
+        return aiming;
+    }
+
+    /**
+     * The {@code Pre} class represents an event that is dispatched before the aiming mode is toggled.
+     * This event is cancellable.
+     */
+    public static class Pre extends FirearmAimEvent implements ICancellable {
+
+        /**
+         * Indicates whether the event is cancelled.
+         */
+        private boolean cancelled = false;
+
+        /**
+         * Constructs a new {@code Pre} event with the specified player, firearm item, and aiming state.
+         *
+         * @param playerRef A reference to the player who is toggling the aiming mode.
+         * @param weapon    The firearm item held by the player.
+         * @param aiming    Whether the player is aiming after the toggle.
+         */
+        public Pre(Ref<EntityStore> playerRef, ItemStack weapon, boolean aiming) {
+            super(playerRef, weapon, aiming);
+        }
+
+        /**
+         * Returns whether the event is cancelled.
+         *
+         * @return {@code true} if the event is cancelled, {@code false} otherwise.
+         */
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        /**
+         * Sets whether the event is cancelled.
+         *
+         * @param b {@code true} to cancel the event, {@code false} otherwise.
+         */
+        @Override
+        public void setCancelled(boolean b) {
+            this.cancelled = b;
+        }
+    }
+
+    /**
+     * The {@code Post} class represents an event that is dispatched after the aiming mode has been toggled.
+     */
+    public static class Post extends FirearmAimEvent {
+
+        /**
+         * Constructs a new {@code Post} event with the specified player, firearm item, and aiming state.
+         *
+         * @param playerRef A reference to the player who toggled the aiming mode.
+         * @param weapon    The firearm item held by the player.
+         * @param aiming    Whether the player is aiming after the toggle.
+         */
+        public Post(Ref<EntityStore> playerRef, ItemStack weapon, boolean aiming) {
+            super(playerRef, weapon, aiming);
+        }
+    }
+}
@@ -3,7 +3,9 @@ package lucis.lux.hff.events;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.event.ICancellable;
 import com.hypixel.hytale.event.IEvent;
+import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.enums.HitZone;
 
 /**
  * The {@code FirearmHitEvent} class is an abstract event that represents a projectile from a firearm
@@ -13,6 +15,18 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
  * <p>The {@code Pre} event is cancellable and can be used to prevent the hit from occurring or to modify
  * the final damage dealt. The {@link Post} event provides additional information about the hit after it has occurred.</p>
  *
+ * <p>If {@code CoalescePelletHits} is enabled, all pellets of a shot that hit the same target during a tick are
+ * reported as a single hit. {@link #getPelletCount()} returns the number of pellets and {@link #getFinalDamage()}
+ * their summed damage, so listeners receive one event per shot and target.</p>
+ *
+ * <p>{@link #getHitZone()} returns the {@link HitZone} that was hit. The final damage already includes the multiplier
+ * and armor of that zone. For coalesced hits, the most severe zone any pellet hit is reported.</p>
+ *
+ * <p>When an explosive round detonates, a single {@link Area} event describing every entity caught in the explosion is
+ * dispatched before the damage is queued. It can cancel the whole explosion or change the damage of individual
+ * targets. Each target that still takes damage is then reported through the regular {@link Pre} and {@link Post}
+ * events.</p>
+ *
  * <p>This event is typically used in the HFF (Hytale Firearm Framework) plugin to notify other systems about
  * firearm hit events and to allow for custom behaviour before or after a projectile hits a target.</p>
  *
@@ -33,6 +47,15 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
  *         float finalDamage = event.getFinalDamage();
  *         // Custom logic after the hit occurs
  *     });
+ *
+ *     // Register a listener for the Area event
+ *     getEventRegistry().register(FirearmHitEvent.Area.class, event -> {
+ *         for (int i = 0; i &lt; event.getTargetCount(); i++) {
+ *             if (event.getTarget(i).equals(event.getShooter())) {
+ *                 event.setDamage(i, 0.0f); // No self-damage
+ *             }
+ *         }
+ *     });
  * </pre>
  */
 public abstract class FirearmHitEvent implements IEvent<Void> {
@@ -53,20 +76,46 @@ public abstract class FirearmHitEvent implements IEvent<Void> {
      * The final damage dealt by the projectile to the target.
      */
     protected float finalDamage;
+    /**
+     * The number of pellets of the shot that hit the target.
+     */
+    protected final int pelletCount;
+    /**
+     * The zone of the target that was hit.
+     */
+    protected final HitZone hitZone;
+
+    /**
+     * Constructs a new {@code FirearmHitEvent} with the specified target, shooter, projectile, final damage, and pellet count.
+     * The hit zone is {@link HitZone#TORSO}.
+     *
+     * @param target      A reference to the entity that was hit by the projectile.
+     * @param shooter     A reference to the entity that fired the projectile.
+     * @param projectile  A reference to the projectile entity.
+     * @param finalDamage The final damage dealt by the projectile to the target.
+     * @param pelletCount The number of pellets of the shot that hit the target.
+     */
+    protected FirearmHitEvent(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, float finalDamage, int pelletCount) {
+        this(target, shooter, projectile, finalDamage, pelletCount, HitZone.TORSO);
+    }
 
     /**
-     * Constructs a new {@code FirearmHitEvent} with the specified target, shooter, projectile, and final damage.
+     * Constructs a new {@code FirearmHitEvent} with the specified target, shooter, projectile, final damage, pellet count, and hit zone.
      *
      * @param target      A reference to the entity that was hit by the projectile.
      * @param shooter     A reference to the entity that fired the projectile.
      * @param projectile  A reference to the projectile entity.
      * @param finalDamage The final damage dealt by the projectile to the target.
+     * @param pelletCount The number of pellets of the shot that hit the target.
+     * @param hitZone     The zone of the target that was hit.
      */
-    protected FirearmHitEvent(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, float finalDamage) {
+    protected FirearmHitEvent(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, float finalDamage, int pelletCount, HitZone hitZone) {
         this.target = target;
         this.projectile = projectile;
         this.shooter = shooter;
         this.finalDamage = finalDamage;
+        this.pelletCount = pelletCount;
+        this.hitZone = hitZone;
     }
 
     /**
@@ -105,6 +154,24 @@ public abstract class FirearmHitEvent implements IEvent<Void> {
         return finalDamage;
     }
 
+    /**
+     * Returns the number of pellets of the shot that hit the target. This is {@code 1} unless pellet hits are coalesced.
+     *
+     * @return The number of pellets.
+     */
+    public int getPelletCount() {
+        return pelletCount;
+    }
+
+    /**
+     * Returns the zone of the target that was hit.
+     *
+     * @return The hit zone.
+     */
+    public HitZone getHitZone() {
+        return hitZone;
+    }
+
     /**
      * The {@code Pre} class represents an event that is dispatched before a projectile hits a target.
      * This event is cancellable and allows for modifying the final damage dealt.
@@ -125,7 +192,34 @@ public abstract class FirearmHitEvent implements IEvent<Void> {
          * @param finalDamage The final damage dealt by the projectile to the target.
          */
         public Pre(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, float finalDamage) {
-            super(target, shooter, projectile, finalDamage);
+            this(target, shooter, projectile, finalDamage, 1);
+        }
+
+        /**
+         * Constructs a new {@code Pre} event with the specified target, shooter, projectile, final damage, and pellet count.
+         *
+         * @param target      A reference to the entity that was hit by the projectile.
+         * @param shooter     A reference to the entity that fired the projectile.
+         * @param projectile  A reference to the projectile entity.
+         * @param finalDamage The summed final damage of the pellets that hit the target.
+         * @param pelletCount The number of pellets of the shot that hit the target.
+         */
+        public Pre(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, float finalDamage, int pelletCount) {
+            super(target, shooter, projectile, finalDamage, pelletCount);
+        }
+
+        /**
+         * Constructs a new {@code Pre} event with the specified target, shooter, projectile, final damage, pellet count, and hit zone.
+         *
+         * @param target      A reference to the entity that was hit by the projectile.
+         * @param shooter     A reference to the entity that fired the projectile.
+         * @param projectile  A reference to the projectile entity.
+         * @param finalDamage The summed final damage of the pellets that hit the target.
+         * @param pelletCount The number of pellets of the shot that hit the target.
+         * @param hitZone     The zone of the target that was hit.
+         */
+        public Pre(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, float finalDamage, int pelletCount, HitZone hitZone) {
+            super(target, shooter, projectile, finalDamage, pelletCount, hitZone);
         }
 
         /**
@@ -173,7 +267,200 @@ public abstract class FirearmHitEvent implements IEvent<Void> {
          * @param finalDamage The final damage dealt by the projectile to the target.
          */
         public Post(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, float finalDamage) {
-            super(target, shooter, projectile, finalDamage);
+            this(target, shooter, projectile, finalDamage, 1);
+        }
+
+        /**
+         * Constructs a new {@code Post} event with the specified target, shooter, projectile, final damage, and pellet count.
+         *
+         * @param target      A reference to the entity that was hit by the projectile.
+         * @param shooter     A reference to the entity that fired the projectile.
+         * @param projectile  A reference to the projectile entity.
+         * @param finalDamage The summed final damage of the pellets that hit the target.
+         * @param pelletCount The number of pellets of the shot that hit the target.
+         */
+        public Post(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, float finalDamage, int pelletCount) {
+            super(target, shooter, projectile, finalDamage, pelletCount);
+        }
+
+        /**
+         * Constructs a new {@code Post} event with the specified target, shooter, projectile, final damage, pellet count, and hit zone.
+         *
+         * @param target      A reference to the entity that was hit by the projectile.
+         * @param shooter     A reference to the entity that fired the projectile.
+         * @param projectile  A reference to the projectile entity.
+         * @param finalDamage The summed final damage of the pellets that hit the target.
+         * @param pelletCount The number of pellets of the shot that hit the target.
+         * @param hitZone     The zone of the target that was hit.
+         */
+        public Post(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, float finalDamage, int pelletCount, HitZone hitZone) {
+            super(target, shooter, projectile, finalDamage, pelletCount, hitZone);
+        }
+    }
+
+    /**
+     * The {@code Area} class represents an event that is dispatched when an explosive round detonates, before the
+     * damage of the explosion is queued. It lists every entity caught in the blast or hit by a fragment together with
+     * the damage it is about to take.
+     *
+     * <p>{@link #getTarget()} returns the entity the round hit directly, or {@code null} if it detonated on a block.
+     * {@link #getFinalDamage()} returns the summed damage of all targets and {@link #getPelletCount()} the number of
+     * fragments that hit an entity. This event is cancellable; cancelling it prevents all damage of the explosion.</p>
+     *
+     * <p>As an explosion has no single hit zone, {@link #getHitZone()} throws an
+     * {@link UnsupportedOperationException}. There is no summed damage to set either; change the damage of each
+     * target with {@link #setDamage(int, float)} instead. The shooter is only listed if the ammunition enables
+     * {@link lucis.lux.hff.data.AmmoData#selfDamage()}.</p>
+     */
+    public static class Area extends FirearmHitEvent implements ICancellable {
+
+        /**
+         * The center of the explosion.
+         */
+        private final Vector3d center;
+
+        /**
+         * The radius of the explosion.
+         */
+        private final float radius;
+
+        /**
+         * The entities caught in the explosion.
+         */
+        private final Ref<EntityStore>[] targets;
+
+        /**
+         * The damage each entity takes.
+         */
+        private final float[] damages;
+
+        /**
+         * Indicates whether the event is cancelled.
+         */
+        private boolean cancelled = false;
+
+        /**
+         * Constructs a new {@code Area} event.
+         *
+         * @param target        A reference to the entity the round hit directly, or {@code null}.
+         * @param shooter       A reference to the entity that fired the round.
+         * @param projectile    A reference to the projectile entity, or {@code null} for hitscan and simulated rounds.
+         * @param center        The center of the explosion.
+         * @param radius        The radius of the explosion.
+         * @param targets       The entities caught in the explosion. The array is owned by the event.
+         * @param damages       The damage each entity takes. The array is owned by the event.
+         * @param fragmentHits  The number of fragments that hit an entity.
+         */
+        public Area(Ref<EntityStore> target, Ref<EntityStore> shooter, Ref<EntityStore> projectile, Vector3d center, float radius,
+                    Ref<EntityStore>[] targets, float[] damages, int fragmentHits) {
+            super(target, shooter, projectile, 0.0f, fragmentHits);
+            this.center = center;
+            this.radius = radius;
+            this.targets = targets;
+            this.damages = damages;
+        }
+
+        /**
+         * Returns the center of the explosion.
+         *
+         * @return The center of the explosion.
+         */
+        public Vector3d getCenter() {
+            return center;
+        }
+
+        /**
+         * Returns the radius of the explosion.
+         *
+         * @return The radius of the explosion.
+         */
+        public float getRadius() {
+            return radius;
+        }
+
+        /**
+         * Returns the number of entities caught in the explosion.
+         *
+         * @return The number of targets.
+         */
+        public int getTargetCount() {
+            return targets.length;
+        }
+
+        /**
+         * Returns the entity at the given index.
+         *
+         * @param index The index of the target.
+         * @return A reference to the target.
+         */
+        public Ref<EntityStore> getTarget(int index) {
+            return targets[index];
+        }
+
+        /**
+         * Returns the damage the entity at the given index takes.
+         *
+         * @param index The index of the target.
+         * @return The damage of the target.
+         */
+        public float getDamage(int index) {
+            return damages[index];
+        }
+
+        /**
+         * Sets the damage the entity at the given index takes. A damage of {@code 0} spares the target.
+         *
+         * @param index  The index of the target.
+         * @param damage The damage to set.
+         */
+        public void setDamage(int index, float damage) {
+            damages[index] = damage;
+        }
+
+        /**
+         * Returns the summed damage of all targets.
+         *
+         * @return The total damage of the explosion.
+         */
+        @Override
+        public float getFinalDamage() {
+            float total = 0.0f;
+            for (float damage : damages) {
+                total += damage;
+            }
+            return total;
+        }
+
+        /**
+         * Not supported, as an explosion does not hit a single zone. The blast damage ignores hit zones, and the
+         * zone of each fragment is already included in {@link #getDamage(int)}.
+         *
+         * @return Never returns.
+         * @throws UnsupportedOperationException Always.
+         */
+        @Override
+        public HitZone getHitZone() {
+            throw new UnsupportedOperationException("An explosion has no hit zone, use getDamage(int) per target");
+        }
+
+        /**
+         * Returns whether the event is cancelled.
+         *
+         * @return {@code true} if the event is cancelled, {@code false} otherwise.
+         */
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        /**
+         * Sets whether the event is cancelled.
+         *
+         * @param b {@code true} to cancel the event, {@code false} otherwise.
+         */
+        @Override
+        public void setCancelled(boolean b) {
+            this.cancelled = b;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+package lucis.lux.hff.events;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.event.EventRegistry;
+import com.hypixel.hytale.event.IEvent;
+import com.hypixel.hytale.event.IEventDispatcher;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.HytaleServer;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.data.FirearmState;
+import lucis.lux.hff.data.FirearmStats;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The {@code HFFEvents} class is the hub through which HFF dispatches all of its events.
+ *
+ * <p>Looking up the dispatcher of an event type on the event bus on every shot, hit or reload is wasted work, since
+ * the set of listeners rarely changes. Instead, every event type has a {@link Handle} that resolves its dispatcher
+ * once and keeps it. The handles are refreshed:</p>
+ * <ul>
+ *     <li>when the server has started, after all plugins have registered their listeners,</li>
+ *     <li>when a listener is registered through {@link #register(EventRegistry, Class, Consumer)}, for the type of
+ *     that listener,</li>
+ *     <li>and whenever {@link #refresh()} is called, for example by plugins that register listeners later on the
+ *     event registry directly.</li>
+ * </ul>
+ *
+ * <p>Callers check {@link Handle#hasListener()} before they construct an event, so no event objects are allocated
+ * while nobody listens. The per-projectile {@link ShootEvent.Post} is additionally taken from a pool and reused, see
+ * {@link #dispatchShootPost}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     // Dispatching
+ *     if (HFFEvents.RELOAD_PRE.hasListener()) {
+ *         ReloadEvent.Pre event = HFFEvents.RELOAD_PRE.dispatch(new ReloadEvent.Pre(player, item, stats));
+ *     }
+ *
+ *     // Listening from another plugin
+ *     HFFEvents.register(getEventRegistry(), FirearmHitEvent.Pre.class, event -> { ... });
+ * </pre>
+ */
+public final class HFFEvents {
+
+    /**
+     * The handles of all event types, keyed by event type.
+     */
+    private static final Map<Class<?>, Handle<?>> HANDLES = new ConcurrentHashMap<>();
+
+    /**
+     * The handle of {@link ShootEvent.Post}.
+     */
+    public static final Handle<ShootEvent.Post> SHOOT_POST = handle(ShootEvent.Post.class);
+
+    /**
+     * The handle of {@link DryFireEvent}.
+     */
+    public static final Handle<DryFireEvent> DRY_FIRE = handle(DryFireEvent.class);
+
+    /**
+     * The handle of {@link FirearmHitEvent.Pre}.
+     */
+    public static final Handle<FirearmHitEvent.Pre> HIT_PRE = handle(FirearmHitEvent.Pre.class);
+
+    /**
+     * The handle of {@link FirearmHitEvent.Post}.
+     */
+    public static final Handle<FirearmHitEvent.Post> HIT_POST = handle(FirearmHitEvent.Post.class);
+
+    /**
+     * The handle of {@link FirearmHitEvent.Area}.
+     */
+    public static final Handle<FirearmHitEvent.Area> HIT_AREA = handle(FirearmHitEvent.Area.class);
+
+    /**
+     * The handle of {@link ReloadEvent.Pre}.
+     */
+    public static final Handle<ReloadEvent.Pre> RELOAD_PRE = handle(ReloadEvent.Pre.class);
+
+    /**
+     * The handle of {@link ReloadEvent.Post}.
+     */
+    public static final Handle<ReloadEvent.Post> RELOAD_POST = handle(ReloadEvent.Post.class);
+
+    /**
+     * The handle of {@link FirearmAimEvent.Pre}.
+     */
+    public static final Handle<FirearmAimEvent.Pre> AIM_PRE = handle(FirearmAimEvent.Pre.class);
+
+    /**
+     * The handle of {@link FirearmAimEvent.Post}.
+     */
+    public static final Handle<FirearmAimEvent.Post> AIM_POST = handle(FirearmAimEvent.Post.class);
+
+    /**
+     * The pooled {@link ShootEvent.Post} events of each thread. A pool holds more than one event only if a listener
+     * causes another shot while the first one is being dispatched.
+     */
+    private static final ThreadLocal<ArrayDeque<ShootEvent.Post>> SHOOT_POST_POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private HFFEvents() {
+    }
+
+    /**
+     * Returns the handle of an event type, creating it if necessary.
+     *
+     * @param type The event type.
+     * @param <E>  The event type.
+     * @return The handle of the event type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends IEvent<Void>> Handle<E> handle(Class<E> type) {
+        return (Handle<E>) HANDLES.computeIfAbsent(type, Handle::new);
+    }
+
+    /**
+     * Registers a listener on an event registry and refreshes the handle of its event type, so the listener is
+     * called from the next dispatch on.
+     *
+     * @param registry The event registry of the plugin registering the listener.
+     * @param type     The event type.
+     * @param listener The listener.
+     * @param <E>      The event type.
+     */
+    public static <E extends IEvent<Void>> void register(EventRegistry registry, Class<E> type, Consumer<E> listener) {
+        registry.register(type, listener);
+        handle(type).refresh();
+    }
+
+    /**
+     * Refreshes the handles of all event types. Call this after registering listeners on an event registry directly.
+     */
+    public static void refresh() {
+        for (Handle<?> handle : HANDLES.values()) {
+            handle.refresh();
+        }
+    }
+
+    /**
+     * Dispatches a {@link ShootEvent.Post} event for a single projectile using a pooled event object. Nothing is
+     * allocated if no listener is registered. The event is cleared and returned to the pool after the dispatch.
+     *
+     * <p>The position and the direction are copied into vectors owned by the pooled event, as the given vectors may
+     * be shared with the other pellets of the shot or reused for the next one. Listeners must copy them in turn if
+     * they keep them.</p>
+     *
+     * @param playerRef A reference to the player who shot the firearm.
+     * @param state     The state of the firearm.
+     * @param stats     The statistics of the firearm.
+     * @param position  The position of the projectile.
+     * @param direction The direction of the projectile.
+     */
+    public static void dispatchShootPost(Ref<EntityStore> playerRef, FirearmState state, FirearmStats stats, Vector3d position, Vector3d direction) {
+        if (!SHOOT_POST.hasListener()) {
+            return;
+        }
+
+        ArrayDeque<ShootEvent.Post> pool = SHOOT_POST_POOL.get();
+        ShootEvent.Post event = pool.poll();
+        if (event == null) {
+            event = new ShootEvent.Post();
+        }
+
+        try {
+            SHOOT_POST.dispatch(event.set(playerRef, state, stats, position, direction));
+        } finally {
+            event.clear();
+            pool.push(event);
+        }
+    }
+
+    /**
+     * The {@code Handle} class holds the dispatcher of a single event type until it is refreshed.
+     *
+     * @param <E> The event type.
+     */
+    public static final class Handle<E extends IEvent<Void>> {
+
+        /**
+         * The event type.
+         */
+        private final Class<E> type;
+
+        /**
+         * The dispatcher of the event type, or {@code null} until it is first resolved.
+         */
+        private volatile IEventDispatcher<E, E> dispatcher;
+
+        /**
+         * Constructs a new {@code Handle} for an event type. The dispatcher is resolved on first use.
+         *
+         * @param type The event type.
+         */
+        @SuppressWarnings("unchecked")
+        private Handle(Class<?> type) {
+            this.type = (Class<E>) type;
+        }
+
+        /**
+         * Resolves the dispatcher of the event type from the event bus again.
+         */
+        public void refresh() {
+            dispatcher = HytaleServer.get().getEventBus().dispatchFor(type);
+        }
+
+        /**
+         * Returns whether any listener is registered for the event type.
+         *
+         * @return {@code true} if the event should be constructed and dispatched.
+         */
+        public boolean hasListener() {
+            return dispatcher().hasListener();
+        }
+
+        /**
+         * Dispatches an event to all listeners of the event type.
+         *
+         * @param event The event.
+         * @return The given event, after all listeners have handled it.
+         */
+        public E dispatch(E event) {
+            dispatcher().dispatch(event);
+            return event;
+        }
+
+        /**
+         * Returns the dispatcher of the event type, resolving it if necessary.
+         *
+         * @return The dispatcher.
+         */
+        private IEventDispatcher<E, E> dispatcher() {
+            IEventDispatcher<E, E> current = dispatcher;
+            if (current == null) {
+                refresh();
+                current = dispatcher;
+            }
+            return current;
+        }
+    }
+}
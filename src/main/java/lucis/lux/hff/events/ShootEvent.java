@@ -37,23 +37,27 @@ import lucis.lux.hff.data.FirearmStats;
  *         // Custom logic after the firearm is shot
  *     });
  * </pre>
+ *
+ * <p>HFF dispatches one {@link Post} event per projectile. To avoid allocating an event for every pellet, these events
+ * are taken from a pool by {@link HFFEvents#dispatchShootPost} and reused once the dispatch returns. Listeners must
+ * therefore not keep a reference to a {@code Post} event or its vectors after they return; copy the values instead.</p>
  */
 public abstract class ShootEvent implements IEvent<Void> {
 
     /**
      * A reference to the player who shot the firearm.
      */
-    protected final Ref<EntityStore> playerRef;
+    protected Ref<EntityStore> playerRef;
 
     /**
      * The state of the firearm at the time of the shooting event.
      */
-    protected final FirearmState state;
+    protected FirearmState state;
 
     /**
      * The statistics of the firearm at the time of the shooting event.
      */
-    protected final FirearmStats stats;
+    protected FirearmStats stats;
 
     /**
      * The position of the projectile when it was fired.
@@ -212,5 +216,47 @@ public abstract class ShootEvent implements IEvent<Void> {
         public Post(Ref<EntityStore> playerRef, FirearmState state, FirearmStats stats, Vector3d position, Vector3d direction) {
             super(playerRef, state, stats, position, direction);
         }
+
+        /**
+         * Constructs an empty {@code Post} event for the pool of {@link HFFEvents}. The event owns its position and
+         * direction, which are reused for every dispatch.
+         */
+        Post() {
+            super(null, null, null, new Vector3d(), new Vector3d());
+        }
+
+        /**
+         * Sets all values of a pooled event before it is dispatched. The position and the direction are copied into
+         * the vectors owned by the event, so the given vectors are neither kept nor exposed to listeners.
+         *
+         * @param playerRef A reference to the player who shot the firearm.
+         * @param state     The state of the firearm.
+         * @param stats     The statistics of the firearm.
+         * @param position  The position of the projectile.
+         * @param direction The direction of the projectile.
+         * @return This event.
+         */
+        Post set(Ref<EntityStore> playerRef, FirearmState state, FirearmStats stats, Vector3d position, Vector3d direction) {
+            this.playerRef = playerRef;
+            this.state = state;
+            this.stats = stats;
+            this.position.x = position.x;
+            this.position.y = position.y;
+            this.position.z = position.z;
+            this.direction.x = direction.x;
+            this.direction.y = direction.y;
+            this.direction.z = direction.z;
+            return this;
+        }
+
+        /**
+         * Clears the references of a pooled event after it was dispatched, so it does not keep entities or firearms
+         * alive. The vectors are kept for the next dispatch.
+         */
+        void clear() {
+            this.playerRef = null;
+            this.state = null;
+            this.stats = null;
+        }
     }
 }
@@ -0,0 +1,66 @@
+package lucis.lux.hff.interactions;
+
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.protocol.InteractionType;
+import com.hypixel.hytale.server.core.entity.InteractionContext;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.modules.interaction.interaction.CooldownHandler;
+import com.hypixel.hytale.server.core.modules.interaction.interaction.config.SimpleInstantInteraction;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.components.DamageComponent;
+import lucis.lux.hff.util.ExplosionResolver;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * The {@code DetonateInteraction} class is a {@link SimpleInstantInteraction} that detonates an explosive projectile
+ * where it is, for example when it hits a block. Projectiles that hit an entity are detonated by the
+ * {@link HitEnemyInteraction} instead.
+ *
+ * <p>When triggered, this interaction:</p>
+ * <ul>
+ *   <li>Retrieves the projectile and the shooter.</li>
+ *   <li>Detonates the projectile at its position using the {@link ExplosionResolver} if its ammunition is explosive.
+ *   Non-explosive projectiles are ignored.</li>
+ * </ul>
+ *
+ * <p>This interaction is part of the Entity Component System (ECS) architecture in Hytale
+ * and is registered during plugin initialization.</p>
+ */
+public class DetonateInteraction extends SimpleInstantInteraction {
+
+    /**
+     * The {@link BuilderCodec} for serializing and deserializing this interaction.
+     */
+    public static final BuilderCodec<DetonateInteraction> CODEC = BuilderCodec.builder(
+            DetonateInteraction.class,
+            DetonateInteraction::new,
+            SimpleInstantInteraction.CODEC
+    ).build();
+
+    /**
+     * Called when the interaction is first run. Detonates the projectile if its ammunition is explosive.
+     *
+     * @param interactionType    The type of interaction.
+     * @param interactionContext The context of the interaction, including references to the projectile and shooter.
+     * @param cooldownHandler    The handler for managing cooldowns.
+     */
+    @Override
+    protected void firstRun(@NonNullDecl InteractionType interactionType, @NonNullDecl InteractionContext interactionContext, @NonNullDecl CooldownHandler cooldownHandler) {
+        Ref<EntityStore> projectile = interactionContext.getEntity();
+        Ref<EntityStore> shooter = interactionContext.getOwningEntity();
+
+        CommandBuffer<EntityStore> commandBuffer = interactionContext.getCommandBuffer();
+        TransformComponent projectileTransform = commandBuffer.getComponent(projectile, TransformComponent.getComponentType());
+        DamageComponent damage = commandBuffer.getComponent(projectile, HFF.get().getDamageComponentType());
+
+        if (damage == null || projectileTransform == null || damage.getShot() == null || !damage.getShot().isExplosive()) {
+            return;
+        }
+
+        ExplosionResolver.detonate(shooter, projectile, null, damage.getShot(), damage.getDamage(),
+                projectileTransform.getPosition(), damage.getFlightDirection(), commandBuffer);
+    }
+}
@@ -4,14 +4,13 @@ import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.event.IEventDispatcher;
 import com.hypixel.hytale.protocol.InteractionState;
 import com.hypixel.hytale.protocol.InteractionType;
-import com.hypixel.hytale.server.core.HytaleServer;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.InteractionContext;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.CooldownHandler;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.config.SimpleInstantInteraction;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
@@ -21,8 +20,11 @@ import lucis.lux.hff.data.AmmoData;
 import lucis.lux.hff.data.FirearmState;
 import lucis.lux.hff.data.FirearmStats;
 import lucis.lux.hff.data.MagazineData;
+import lucis.lux.hff.data.MagazineIndex;
+import lucis.lux.hff.data.registry.CalibreIndex;
 import lucis.lux.hff.data.registry.Registries;
 import lucis.lux.hff.enums.MagazineType;
+import lucis.lux.hff.events.HFFEvents;
 import lucis.lux.hff.events.ReloadEvent;
 import lucis.lux.hff.util.StatCalculator;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
@@ -37,14 +39,18 @@ import java.util.UUID;
  * <p>When triggered, this interaction:</p>
  * <ul>
  *   <li>Dispatches a {@link ReloadEvent.Pre} event to notify other systems about the reloading process.</li>
- *   <li>Toggles the reloading state of the firearm.</li>
+ *   <li>Starts a timed reload, or cancels the reload already in progress. A leftover component of a reload that is
+ *   no longer in progress does not count as one.</li>
  *   <li>Handles the reloading process, either by loading individual projectiles or by inserting a magazine.</li>
  *   <li>Provides feedback to the player in debug mode, indicating the progress of the reloading process.</li>
- *   <li>Dispatches a {@link ReloadEvent.Post} event to notify other systems about the completion of the reloading process.</li>
+ *   <li>Dispatches a {@link ReloadEvent.Post} event if the reload could not be started. Otherwise, the event is
+ *   dispatched by the {@link lucis.lux.hff.systems.ReloadSystem} once the reload completes or is interrupted.</li>
  * </ul>
  *
- * <p>The reloading process is synchronous and handles the reloading in a single step, either by loading
- * projectiles directly or by swapping magazines.</p>
+ * <p>The interaction only starts a reload: the slots holding the rounds or the magazine are marked as pending in
+ * the player's {@link ReloadingComponent}, and the {@link lucis.lux.hff.systems.ReloadSystem} takes and loads them
+ * once the reload time has passed. Until then they stay in the inventory. With {@code BulkReload} enabled, an internal magazine is filled completely in one
+ * reload. Reloading again while a reload is in progress cancels it.</p>
  *
  * <p>This interaction supports both internal and external magazine systems.</p>
  */
@@ -68,9 +74,9 @@ public class ReloadInteraction extends SimpleInstantInteraction {
      *   <li>Retrieves the player and the held item from the interaction context.</li>
      *   <li>Checks if the firearm is jammed and handles unjamming if necessary.</li>
      *   <li>Dispatches a {@link ReloadEvent.Pre} event to notify other systems about the reloading process.</li>
-     *   <li>Toggles the reloading state of the firearm.</li>
+     *   <li>Starts a timed reload, or cancels the reload already in progress.</li>
      *   <li>Handles the reloading process based on the magazine type (internal or external).</li>
-     *   <li>Dispatches a {@link ReloadEvent.Post} event to notify other systems about the completion of the reloading process.</li>
+     *   <li>Starts the timed reload, or dispatches a failed {@link ReloadEvent.Post} event if nothing could be loaded.</li>
      * </ol>
      *
      * @param interactionType    The type of interaction.
@@ -104,7 +110,7 @@ public class ReloadInteraction extends SimpleInstantInteraction {
         }
         FirearmState state = Registries.FIREARM_STATES.get(weaponUuid);
 
-        stats = StatCalculator.getModifiedStats(stats, state);
+        stats = StatCalculator.getModifiedStats(stats, state, ref, commandBuffer);
 
         if (state.isJammed()) {
             state.setJammed(false);
@@ -118,16 +124,21 @@ public class ReloadInteraction extends SimpleInstantInteraction {
             return;
         }
 
-        ReloadingComponent reloading = commandBuffer.ensureAndGetComponent(ref, HFF.get().getReloadingComponentType());
+        ReloadingComponent current = commandBuffer.getComponent(ref, HFF.get().getReloadingComponentType());
 
-        if (reloading == null) {
+        if (current != null && current.isActive()) {
+            // Reloading again cancels the current reload, the pending items have not been taken yet
+            current.setReloading(false);
             return;
         }
 
-        IEventDispatcher<ReloadEvent.Pre, ReloadEvent.Pre> preDispatcher = HytaleServer.get().getEventBus().dispatchFor(ReloadEvent.Pre.class);
-        if (preDispatcher.hasListener()) {
-            ReloadEvent.Pre preEvent = new ReloadEvent.Pre(player, item, stats);
-            preDispatcher.dispatch(preEvent);
+        // A stale component, for example one that was interrupted this tick, is reused for the new reload. Otherwise
+        // the component is only added once the reload has started, so the ReloadSystem only ticks active reloads
+        ReloadingComponent reloading = current != null ? current : new ReloadingComponent();
+        reloading.reset();
+
+        if (HFFEvents.RELOAD_PRE.hasListener()) {
+            ReloadEvent.Pre preEvent = HFFEvents.RELOAD_PRE.dispatch(new ReloadEvent.Pre(player, item, stats));
 
             if (preEvent.isCancelled()) {
                 interactionContext.getState().state = InteractionState.Failed;
@@ -137,29 +148,36 @@ public class ReloadInteraction extends SimpleInstantInteraction {
             stats = preEvent.getStats();
         }
 
-        reloading.toggleReloading();
-        if (HFF.get().getConfigData().isDebugMode()) player.sendMessage(Message.raw("Started reloading"));
-
         boolean isHardcore = HFF.get().getConfigData().isHardcoreMagazineSystem();
         boolean isExternalMag = MagazineType.EXTERNAL.equals(stats.magazineType());
 
-        boolean reloadSuccess = false;
+        boolean reloadSuccess;
+        int loadedRounds = 1;
 
         if (isHardcore && isExternalMag) {
-            reloadSuccess = handleMagazineReload(player, state, stats, weaponUuid);
+            reloadSuccess = handleMagazineReload(player, reloading, stats);
         } else {
-            reloadSuccess = handleInternalReload(player, state, stats, weaponUuid);
+            loadedRounds = handleInternalReload(player, reloading, state, stats);
+            reloadSuccess = loadedRounds > 0;
         }
 
         if (reloadSuccess) {
-            Registries.FIREARM_STATES.update(weaponUuid, state);
-            cooldownHandler.getCooldown(weaponUuid.toString(), stats.reloadTime(), new float[0], true, false);
+            float reloadTime = HFF.get().getConfigData().isReloadTimePerRound() ? stats.reloadTime() * loadedRounds : stats.reloadTime();
+            reloading.start(weaponUuid, item, stats, reloadTime);
+            if (current == null) {
+                commandBuffer.addComponent(ref, HFF.get().getReloadingComponentType(), reloading);
+            }
+            cooldownHandler.getCooldown(weaponUuid.toString(), reloadTime, new float[0], true, false);
+            if (HFF.get().getConfigData().isDebugMode()) player.sendMessage(Message.raw("Started reloading"));
+            return;
         }
 
-        IEventDispatcher<ReloadEvent.Post, ReloadEvent.Post> postDispatcher = HytaleServer.get().getEventBus().dispatchFor(ReloadEvent.Post.class);
-        if (postDispatcher.hasListener()) {
-            ReloadEvent.Post postEvent = new ReloadEvent.Post(player, item, stats, reloadSuccess);
-            postDispatcher.dispatch(postEvent);
+        if (current != null) {
+            commandBuffer.removeComponent(ref, HFF.get().getReloadingComponentType());
+        }
+
+        if (HFFEvents.RELOAD_POST.hasListener()) {
+            HFFEvents.RELOAD_POST.dispatch(new ReloadEvent.Post(player, item, stats, false));
         }
     }
 
@@ -168,48 +186,50 @@ public class ReloadInteraction extends SimpleInstantInteraction {
      *
      * <p>The following steps are performed:</p>
      * <ol>
-     *   <li>Checks if the player has a valid magazine in the utility slot.</li>
+     *   <li>Checks if the player has a valid magazine in the utility slot. If not, and {@code FastMagazineReload}
+     *   is enabled, the fullest compatible magazine is taken from the player's {@link MagazineIndex}.</li>
      *   <li>Validates the magazine's calibre against the firearm's calibre.</li>
-     *   <li>Inserts the magazine into the firearm.</li>
+     *   <li>Marks the magazine as pending. It is taken out of its slot and inserted by the
+     *   {@link lucis.lux.hff.systems.ReloadSystem} once the reload completes.</li>
      * </ol>
      *
-     * @param player     The player who is reloading the firearm.
-     * @param state      The state of the firearm.
-     * @param stats      The statistics of the firearm.
-     * @param weaponUuid The UUID of the firearm.
-     * @return {@code true} if the magazine was successfully inserted, {@code false} otherwise.
+     * @param player    The player who is reloading the firearm.
+     * @param reloading The reloading component of the player.
+     * @param stats     The statistics of the firearm.
+     * @return {@code true} if a magazine is pending, {@code false} otherwise.
      */
-    private boolean handleMagazineReload(Player player, FirearmState state, FirearmStats stats, UUID weaponUuid) {
+    private boolean handleMagazineReload(Player player, ReloadingComponent reloading, FirearmStats stats) {
         ItemStack utilityItem = player.getInventory().getUtilityItem();
+        MagazineData magazine = utilityItem != null ? Registries.MAGAZINE_DATA.get(utilityItem.getItemId()) : null;
+
+        if (magazine == null && HFF.get().getConfigData().isFastMagazineReload()) {
+            MagazineIndex.Entry fullest = MagazineIndex.of(player).findFullest(stats.calibreId());
+            if (fullest != null) {
+                reloading.setPendingMagazine(fullest.container(), fullest.slot(), fullest.uuid(), fullest.itemId());
+                return true;
+            }
+        }
 
         if (utilityItem == null) {
             player.sendMessage(Message.raw("You need a magazine in your left hand to reload."));
             return false;
         }
 
-        MagazineData magazine = Registries.MAGAZINE_DATA.get(utilityItem.getItemId());
-        UUID utilityUuid = utilityItem.getFromMetadataOrNull("HFF_STATE", Codec.UUID_BINARY);
-
         if (magazine == null) {
             player.sendMessage(Message.raw("That is not a valid magazine."));
             return false;
         }
 
-        if (!magazine.calibre().equals(stats.calibre())) {
+        if (!CalibreIndex.isCompatible(magazine.calibreId(), stats.calibreId())) {
             player.sendMessage(Message.raw("Wrong calibre! This weapon needs " + stats.calibre() + "."));
             return false;
         }
 
-        if (state.getInsertedMagazineUuid() != null) {
-            ItemStack returnedMagazine = new ItemStack(state.getInsertedMagazineName());
-            returnedMagazine = returnedMagazine.withMetadata("HFF_STATE", Codec.UUID_BINARY, state.getInsertedMagazineUuid());
-            player.getInventory().getStorage().addItemStack(returnedMagazine);
-        }
+        ItemContainer utility = player.getInventory().getUtility();
+        short utilitySlot = player.getInventory().getActiveUtilitySlot();
+        UUID utilityUuid = MagazineIndex.ensureMagazine(utility, utilitySlot, utilityItem);
 
-        state.setInsertedMagazineUuid(utilityUuid);
-        state.setInsertedMagazineName(utilityItem.getItemId());
-        Registries.FIREARM_STATES.update(weaponUuid, state);
-        player.getInventory().getUtility().removeItemStack(utilityItem);
+        reloading.setPendingMagazine(utility, utilitySlot, utilityUuid, utilityItem.getItemId());
         return true;
     }
 
@@ -220,45 +240,90 @@ public class ReloadInteraction extends SimpleInstantInteraction {
      * <ol>
      *   <li>Checks if the firearm is already fully loaded.</li>
      *   <li>Checks if the player has valid ammunition in the utility slot.</li>
-     *   <li>Loads the ammunition into the firearm.</li>
+     *   <li>Marks the ammunition as pending. It is taken out of its slots and loaded by the
+     *   {@link lucis.lux.hff.systems.ReloadSystem} once the reload completes. Without {@code BulkReload}, a single
+     *   round is marked.
+     *   With {@code BulkReload}, the number of missing rounds is computed once and marked in the utility slot,
+     *   and if {@code BulkReloadFromInventory} is enabled, the remaining rounds are marked in matching
+     *   ammunition stacks in the hotbar and storage.</li>
      * </ol>
      *
-     * @param player     The player who is reloading the firearm.
-     * @param state      The state of the firearm.
-     * @param stats      The statistics of the firearm.
-     * @param weaponUuid The UUID of the firearm.
-     * @return {@code true} if the ammunition was successfully loaded, {@code false} otherwise.
+     * @param player    The player who is reloading the firearm.
+     * @param reloading The reloading component of the player.
+     * @param state     The state of the firearm.
+     * @param stats     The statistics of the firearm.
+     * @return The number of pending rounds, or {@code 0} if the reload failed.
      */
-    private boolean handleInternalReload(Player player, FirearmState state, FirearmStats stats, UUID weaponUuid) {
+    private int handleInternalReload(Player player, ReloadingComponent reloading, FirearmState state, FirearmStats stats) {
         int missingBullets = stats.projectileCapacity() - state.getCurrentAmmoCount();
         if (missingBullets <= 0) {
             player.sendMessage(Message.raw("Weapon is already fully loaded."));
-            return false;
+            return 0;
         }
 
+        boolean isBulk = HFF.get().getConfigData().isBulkReload();
+        boolean fromInventory = isBulk && HFF.get().getConfigData().isBulkReloadFromInventory();
+
+        int loaded = 0;
         ItemStack utility = player.getInventory().getUtilityItem();
 
-        if (utility == null) {
+        if (utility == null && !fromInventory) {
             player.sendMessage(Message.raw("You need ammo in your left hand to reload."));
-            return false;
+            return 0;
         }
-        AmmoData ammo = Registries.AMMO_DATA.get(utility.getItemId());
+        AmmoData ammo = utility != null ? Registries.AMMO_DATA.get(utility.getItemId()) : null;
 
         if (ammo != null) {
-            if (ammo.calibre().equals(stats.calibre())) {
+            if (CalibreIndex.isCompatible(ammo.calibreId(), stats.calibreId())) {
                 String name = utility.getItemId();
+                int count = isBulk ? Math.min(missingBullets, utility.getQuantity()) : 1;
 
-                state.loadProjectile(name);
-                Registries.FIREARM_STATES.update(weaponUuid, state);
-
-                player.getInventory().getUtility().removeItemStackFromSlot(player.getInventory().getActiveUtilitySlot(), 1);
-
-                return true;
+                reloading.addPendingRounds(player.getInventory().getUtility(), player.getInventory().getActiveUtilitySlot(), name, count);
+                loaded = count;
             } else {
                 player.sendMessage(Message.raw("Wrong ammo calibre."));
             }
         }
 
-        return false;
+        if (fromInventory && loaded < missingBullets) {
+            loaded += loadFromContainer(player.getInventory().getHotbar(), reloading, stats.calibreId(), missingBullets - loaded);
+            loaded += loadFromContainer(player.getInventory().getStorage(), reloading, stats.calibreId(), missingBullets - loaded);
+        }
+
+        if (loaded == 0 && utility == null) {
+            player.sendMessage(Message.raw("You need ammo in your inventory to reload."));
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Marks up to the given number of rounds of a calibre in an item container as pending. Each stack is marked as
+     * a single source, so it is taken from its slot in one removal when the reload completes.
+     *
+     * @param container The container to take the rounds from.
+     * @param reloading The reloading component of the player.
+     * @param calibreId The interned calibre ID of the firearm.
+     * @param missing   The maximum number of rounds to load.
+     * @return The number of rounds loaded.
+     */
+    private int loadFromContainer(ItemContainer container, ReloadingComponent reloading, int calibreId, int missing) {
+        int loaded = 0;
+        for (short slot = 0; slot < container.getCapacity() && loaded < missing; slot++) {
+            ItemStack stack = container.getItemStack(slot);
+            if (stack == null || stack.getQuantity() <= 0) {
+                continue;
+            }
+
+            AmmoData ammo = Registries.AMMO_DATA.get(stack.getItemId());
+            if (ammo == null || !CalibreIndex.isCompatible(ammo.calibreId(), calibreId)) {
+                continue;
+            }
+
+            int count = Math.min(missing - loaded, stack.getQuantity());
+            reloading.addPendingRounds(container, slot, stack.getItemId(), count);
+            loaded += count;
+        }
+        return loaded;
     }
 }
@@ -4,7 +4,6 @@ import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.event.IEventDispatcher;
 import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.protocol.Direction;
 import com.hypixel.hytale.protocol.InteractionState;
@@ -22,18 +21,33 @@ import com.hypixel.hytale.server.core.modules.interaction.interaction.config.Sim
 import com.hypixel.hytale.server.core.modules.projectile.ProjectileModule;
 import com.hypixel.hytale.server.core.modules.projectile.config.ProjectileConfig;
 import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import lucis.lux.hff.HFF;
 import lucis.lux.hff.components.AimComponent;
 import lucis.lux.hff.components.DamageComponent;
 import lucis.lux.hff.components.ReloadingComponent;
 import lucis.lux.hff.data.AmmoData;
+import lucis.lux.hff.data.FalloffCurve;
+import lucis.lux.hff.data.FalloffTable;
+import lucis.lux.hff.data.FirearmPattern;
 import lucis.lux.hff.data.FirearmState;
 import lucis.lux.hff.data.FirearmStats;
+import lucis.lux.hff.data.HitboxTable;
+import lucis.lux.hff.data.HotFirearmStats;
+import lucis.lux.hff.data.ShotDescriptor;
 import lucis.lux.hff.data.registry.Registries;
 import lucis.lux.hff.enums.FireMode;
+import lucis.lux.hff.enums.HitZone;
 import lucis.lux.hff.events.DryFireEvent;
+import lucis.lux.hff.events.HFFEvents;
 import lucis.lux.hff.events.ShootEvent;
+import lucis.lux.hff.resources.BallisticSimulationResource;
+import lucis.lux.hff.util.DamageCalculator;
+import lucis.lux.hff.util.ExplosionResolver;
+import lucis.lux.hff.util.HitboxResolver;
+import lucis.lux.hff.util.HitscanResolver;
+import lucis.lux.hff.util.SpreadGenerator;
 import lucis.lux.hff.util.StatCalculator;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 
@@ -69,30 +83,37 @@ public class ShootFirearmInteraction extends SimpleInstantInteraction {
      */
     public static final BuilderCodec<ShootFirearmInteraction> CODEC = BuilderCodec.builder(ShootFirearmInteraction.class, ShootFirearmInteraction::new, SimpleInstantInteraction.CODEC).build();
 
+    /**
+     * The scratch objects used to resolve hitscan pellets. Interactions are shared between worlds, so each thread
+     * keeps its own set and resolving a pellet does not allocate.
+     */
+    private static final ThreadLocal<HitscanScratch> HITSCAN_SCRATCH = ThreadLocal.withInitial(HitscanScratch::new);
+
     /**
      * Calculates the direction of the projectile based on the player's orientation, firearm spread,
-     * aiming state, and movement state.
+     * aiming state, and movement state, and writes it into the given vector.
      *
      * @param stats         The firearm's statistics component.
      * @param aim           The aiming component.
      * @param orientation   The player's look orientation.
      * @param movementState The player's movement state.
-     * @return A normalized {@link Vector3d} representing the projectile's direction.
+     * @param pattern       The firearm's compiled patterns, or {@code null} if it has none.
+     * @param patternIndex  The index of the pellet within the current string of fire.
+     * @param out           The vector receiving the normalized direction.
+     * @return The given vector.
      */
     @NonNullDecl
-    private static Vector3d getDirection(FirearmStats stats, AimComponent aim, Direction orientation, MovementStates movementState) {
-        double spread = Math.toRadians(stats.spreadBase());
+    private static Vector3d getDirection(HotFirearmStats stats, AimComponent aim, Direction orientation, MovementStates movementState, FirearmPattern pattern, int patternIndex, Vector3d out) {
+        double spread = stats.spreadRadians;
         if (aim != null && aim.isAiming()) spread *= 0.7;
-        if (movementState.sprinting || movementState.jumping) spread *= stats.movementPenalty();
+        if (movementState != null && (movementState.sprinting || movementState.jumping)) spread *= stats.movementPenalty;
 
-        double yaw = orientation.yaw + (Math.random() - 0.5) * 2 * spread;
-        double pitch = orientation.pitch + (Math.random() - 0.5) * 2 * spread;
-
-        double x = -Math.sin(yaw) * Math.cos(pitch);
-        double y = Math.sin(pitch);
-        double z = -Math.cos(yaw) * Math.cos(pitch);
-
-        return new Vector3d(x, y, z).normalize();
+        SpreadGenerator generator = SpreadGenerator.get();
+        generator.aim(orientation.yaw, orientation.pitch, spread);
+        if (pattern != null && pattern.hasSpreadPattern()) {
+            return generator.next(pattern.spreadYaw(patternIndex), pattern.spreadPitch(patternIndex), out);
+        }
+        return generator.next(out);
     }
 
     /**
@@ -149,6 +170,8 @@ public class ShootFirearmInteraction extends SimpleInstantInteraction {
         }
 
         FirearmStats baseStats = Registries.FIREARM_STATS.get(item.getItemId());
+        FirearmPattern pattern = Registries.FIREARM_PATTERNS.get(item.getItemId());
+        String falloffId = Registries.FALLOFF_CURVES.get(item.getItemId()) != null ? item.getItemId() : ShotDescriptor.LINEAR_FALLOFF_ID;
 
         if (state.isJammed()) {
             if (HFF.get().getConfigData().isDebugMode()) {
@@ -169,9 +192,9 @@ public class ShootFirearmInteraction extends SimpleInstantInteraction {
         }
 
         if (baseStats != null) {
-            FirearmStats stats = StatCalculator.getModifiedStats(baseStats, state);
+            HotFirearmStats stats = StatCalculator.getHotStats(baseStats, state, playerRef, commandBuffer);
 
-            if (stats.jamChance() > 0 && Math.random() < stats.jamChance()) {
+            if (stats.jamChance > 0 && Math.random() < stats.jamChance) {
                 state.setJammed(true);
                 Registries.FIREARM_STATES.update(weaponUuid, state);
 
@@ -190,30 +213,34 @@ public class ShootFirearmInteraction extends SimpleInstantInteraction {
                     || activeFireMode.equals(FireMode.SINGLE_SHOT)
                     || activeFireMode.equals(FireMode.DOUBLE_ACTION)
             ) {
-                shoot(state, stats, weaponUuid, interactionContext);
+                shoot(state, stats, pattern, falloffId, weaponUuid, interactionContext);
                 return;
             }
 
             if (activeFireMode.equals(FireMode.BURST)) {
-                int burstAmount = stats.burstRounds();
-                long delayBetweenShotsMs = (long) (60000.0 / stats.rpm());
+                int burstAmount = stats.burstRounds;
+                long delayBetweenShotsMs = (long) stats.shotIntervalMillis;
 
                 state.setBursting(true);
 
-                shoot(state, stats, weaponUuid, interactionContext);
+                shoot(state, stats, pattern, falloffId, weaponUuid, interactionContext);
 
+                // Shooting writes to world resources, so the delayed rounds are fired on the world thread
+                World world = interactionContext.getCommandBuffer().getExternalData().getWorld();
                 for (int i = 1; i < burstAmount; i++) {
                     UUID finalWeaponUuid = weaponUuid;
                     FirearmState finalState = state;
                     int finalI = i;
-                    HytaleServer.SCHEDULED_EXECUTOR.schedule(() -> {
-                        shoot(finalState, stats, finalWeaponUuid, interactionContext);
+                    HytaleServer.SCHEDULED_EXECUTOR.schedule(() -> world.execute(() -> {
+                        if (interactionContext.getEntity().isValid()) {
+                            shoot(finalState, stats, pattern, falloffId, finalWeaponUuid, interactionContext);
+                        }
 
                         if (finalI == burstAmount - 1) {
                             finalState.setBursting(false);
                             Registries.FIREARM_STATES.update(finalWeaponUuid, finalState);
                         }
-                    }, delayBetweenShotsMs * i, TimeUnit.MILLISECONDS);
+                    }), delayBetweenShotsMs * i, TimeUnit.MILLISECONDS);
                 }
 
                 cooldownHandler.resetCooldown(weaponUuid.toString(), delayBetweenShotsMs * burstAmount, new float[0], true);
@@ -223,7 +250,7 @@ public class ShootFirearmInteraction extends SimpleInstantInteraction {
 
                 float tickRate = Universe.get().getDefaultWorld().getTps();
 
-                double cooldownMs = 60000.0 / stats.rpm();
+                double cooldownMs = stats.shotIntervalMillis;
                 double tickMs = 1000 / tickRate;
 
                 int shotsPerTick = (int) Math.floor(tickMs / cooldownMs);
@@ -234,10 +261,10 @@ public class ShootFirearmInteraction extends SimpleInstantInteraction {
 
                 if (shotsPerTick > 0) {
                     for (int i = 0; i < shotsPerTick; i++) {
-                        shoot(state, stats, weaponUuid, interactionContext);
+                        shoot(state, stats, pattern, falloffId, weaponUuid, interactionContext);
                     }
                 } else {
-                    shoot(state, stats, weaponUuid, interactionContext);
+                    shoot(state, stats, pattern, falloffId, weaponUuid, interactionContext);
                 }
             }
         } else if (HFF.get().getConfigData().isDebugMode()) {
@@ -246,42 +273,106 @@ public class ShootFirearmInteraction extends SimpleInstantInteraction {
 
     }
 
-    private void shoot(FirearmState state, FirearmStats stats, UUID weaponUuid, InteractionContext interactionContext) {
-        String ammoItemId = state.consumeNextProjectile(stats);
-        for (int i = 0; i < stats.projectileAmount(); i++) {
-            if (ammoItemId != null) {
-                Registries.FIREARM_STATES.update(weaponUuid, state);
-                AmmoData ammo = Registries.AMMO_DATA.get(ammoItemId);
-                if (ammo != null) {
-                    this.spawnProjectile(stats, state, ammo, interactionContext);
-                }
-            } else {
-                IEventDispatcher<DryFireEvent, DryFireEvent> dispatcher = HytaleServer.get().getEventBus().dispatchFor(DryFireEvent.class);
-
-                if (dispatcher.hasListener()) {
-                    DryFireEvent event = new DryFireEvent(interactionContext.getEntity(), state);
-                    dispatcher.dispatch(event);
-                }
-                break;
+    /**
+     * Fires a single shot. Consumes the next round, spawns one projectile per pellet and applies the recoil of
+     * the shot once, regardless of the number of pellets. The data shared by all pellets is collected into a
+     * single {@link ShotDescriptor}.
+     *
+     * @param state              The firearm's state.
+     * @param stats              The firearm's statistics.
+     * @param pattern            The firearm's compiled patterns, or {@code null} if it has none.
+     * @param falloffId          The ID of the firearm's damage falloff curve, or {@link ShotDescriptor#LINEAR_FALLOFF_ID}
+     *                           if it has none.
+     * @param weaponUuid         The UUID of the firearm.
+     * @param interactionContext The context of the interaction.
+     */
+    private void shoot(FirearmState state, HotFirearmStats stats, FirearmPattern pattern, String falloffId, UUID weaponUuid, InteractionContext interactionContext) {
+        String ammoItemId = state.consumeNextProjectile(stats.stats);
+        if (ammoItemId == null) {
+            if (HFFEvents.DRY_FIRE.hasListener()) {
+                HFFEvents.DRY_FIRE.dispatch(new DryFireEvent(interactionContext.getEntity(), state));
             }
+            return;
+        }
+
+        Registries.FIREARM_STATES.update(weaponUuid, state);
+        AmmoData ammo = Registries.AMMO_DATA.get(ammoItemId);
+        if (ammo == null) {
+            return;
+        }
+
+        // The falloff curve of the ammunition takes precedence over the one of the firearm
+        FalloffCurve curve = Registries.FALLOFF_CURVES.get(ammoItemId);
+        String curveId = ammoItemId;
+        if (curve == null) {
+            curveId = falloffId;
+            curve = Registries.FALLOFF_CURVES.get(falloffId);
+        }
+        FalloffTable falloffTable = DamageCalculator.getFalloffTable(state, stats, curve);
+
+        TransformComponent transform = interactionContext.getCommandBuffer().getComponent(interactionContext.getEntity(), TransformComponent.getComponentType());
+        if (transform == null) {
+            HFF.get().getLogger().atSevere().log("TransformComponent is null");
+            return;
+        }
+
+        Vector3d origin = transform.getPosition().clone();
+        origin.y += 1.6;
+
+        ShotDescriptor shot = new ShotDescriptor(origin, weaponUuid, ammoItemId, ammo, curveId, falloffTable, stats.optimalRange, stats.maxRange, stats.minDamageMultiplier, ammo.knockbackForce());
+
+        int shotIndex = state.nextShotIndex(System.currentTimeMillis(), stats.patternResetMillis);
+
+        for (int i = 0; i < stats.projectileAmount; i++) {
+            this.spawnProjectile(stats, state, shot, pattern, shotIndex * stats.projectileAmount + i, interactionContext);
+        }
+
+        if (!stats.disabled) {
+            applyRecoil(stats, pattern, shotIndex, interactionContext);
         }
     }
 
     /**
-     * Spawns a projectile and applies recoil to the player.
+     * Adds the recoil of a shot, scaled by the firearm's recoil pattern, to the player's recoil accumulator.
+     * The accumulated recoil is sent to the player once per tick by the {@link lucis.lux.hff.systems.RecoilFlushSystem}.
+     *
+     * @param stats              The firearm's statistics.
+     * @param pattern            The firearm's compiled patterns, or {@code null} if it has none.
+     * @param shotIndex          The index of the shot within the current string of fire.
+     * @param interactionContext The context of the interaction.
+     */
+    private void applyRecoil(HotFirearmStats stats, FirearmPattern pattern, int shotIndex, InteractionContext interactionContext) {
+        float horizontal = stats.horizontalRecoil;
+        float vertical = stats.verticalRecoil;
+        if (pattern != null) {
+            horizontal *= pattern.horizontalRecoil(shotIndex);
+            vertical *= pattern.verticalRecoil(shotIndex);
+        }
+
+        interactionContext.getCommandBuffer()
+                .getResource(HFF.get().getRecoilAccumulatorResourceType())
+                .add(interactionContext.getEntity(), horizontal, vertical);
+    }
+
+    /**
+     * Spawns a projectile for a single pellet.
      * <p>The following steps are performed:</p>
      * <ol>
      *     <li>Retrieves the projectile configuration from the asset map.</li>
      *     <li>Calculates the projectile's direction and velocity.</li>
-     *     <li>Spawns the projectile using the {@link ProjectileModule}.</li>
-     *     <li>Applies recoil to the player.</li>
+     *     <li>Spawns the projectile using the {@link ProjectileModule}, resolves the shot instantly
+     *     if the ammunition qualifies for the hitscan fast path, or hands it to the ballistic simulation
+     *     if it is enabled.</li>
      * </ol>
      *
      * @param stats              The firearm's statistics component.
-     * @param ammo               The Ammo statistics object.
+     * @param state              The firearm's state.
+     * @param shot               The data shared by all pellets of the shot.
+     * @param pattern            The firearm's compiled patterns, or {@code null} if it has none.
+     * @param patternIndex       The index of the pellet within the current string of fire.
      * @param interactionContext The context of the interaction.
      */
-    private void spawnProjectile(FirearmStats stats, FirearmState state, AmmoData ammo, InteractionContext interactionContext) {
+    private void spawnProjectile(HotFirearmStats stats, FirearmState state, ShotDescriptor shot, FirearmPattern pattern, int patternIndex, InteractionContext interactionContext) {
         CommandBuffer<EntityStore> commandBuffer = interactionContext.getCommandBuffer();
         if (commandBuffer == null) {
             interactionContext.getState().state = InteractionState.Failed;
@@ -289,6 +380,7 @@ public class ShootFirearmInteraction extends SimpleInstantInteraction {
         }
 
         Ref<EntityStore> ref = interactionContext.getEntity();
+        AmmoData ammo = shot.getAmmo();
 
         ProjectileConfig config = ProjectileConfig.getAssetMap().getAsset(ammo.projectileId());
 
@@ -310,55 +402,187 @@ public class ShootFirearmInteraction extends SimpleInstantInteraction {
             return;
         }
 
-        Player player = commandBuffer.getComponent(ref, Player.getComponentType());
-        if (player == null) {
-            HFF.get().getLogger().atSevere().log("Player is null");
-            return;
-        }
         AimComponent aimComponent = commandBuffer.getComponent(ref, HFF.get().getAimComponentType());
 
         MovementStatesComponent movementStatesComponent = commandBuffer.getComponent(ref, MovementStatesComponent.getComponentType());
         MovementStates movementStates = movementStatesComponent != null ? movementStatesComponent.getMovementStates() : null;
 
-        Vector3d direction = getDirection(stats, aimComponent, orientation, movementStates);
+        Vector3d direction = getDirection(stats, aimComponent, orientation, movementStates, pattern, patternIndex, new Vector3d());
 
         if (HFF.get().getConfigData().isDebugMode()) {
             HFF.get().getLogger().atInfo().log(
                     "Pitch: " + orientation.pitch +
                             "\nYaw: " + orientation.yaw +
                             "\nCalculated direction: " + direction +
-                            "\nwith base spread " + stats.spreadBase() + "°" +
+                            "\nwith base spread " + stats.stats.spreadBase() + "°" +
                             "\n " + System.currentTimeMillis());
         }
 
+        Vector3d position = shot.getOrigin();
+
+        if (isHitscan(stats, ammo)) {
+            resolveHitscan(ref, stats, state, shot, direction, commandBuffer);
+            return;
+        }
+
+        if (HFF.get().getConfigData().isBallisticSimulation()) {
+            simulateProjectile(ref, stats, state, shot, direction, commandBuffer);
+            return;
+        }
+
         double baseVelocity = config.getLaunchForce();
 
         direction = direction.scale(baseVelocity);
 
-        Vector3d position = transform.getPosition().clone();
-        position.y += 1.6;
+        HFFEvents.dispatchShootPost(ref, state, stats.stats, position, direction);
+
+        if (stats.disabled) {
+            return;
+        }
 
-        IEventDispatcher<ShootEvent.Post, ShootEvent.Post> dispatcher = HytaleServer.get().getEventBus().dispatchFor(ShootEvent.Post.class);
+        Ref<EntityStore> projectile = ProjectileModule.get().spawnProjectile(ref, commandBuffer, config, position, direction);
+        interactionContext.getCommandBuffer().addComponent(projectile, HFF.get().getDamageComponentType(), new DamageComponent(ammo.damage(), shot, direction));
+    }
 
-        if (dispatcher.hasListener()) {
-            ShootEvent.Post event = new ShootEvent.Post(ref, state, stats, position, direction);
-            dispatcher.dispatch(event);
+    /**
+     * Checks whether a shot should be resolved instantly instead of spawning a projectile.
+     * This is the case when the ammunition defines a hitscan velocity and the firearm's
+     * projectile velocity reaches it.
+     *
+     * @param stats The firearm's statistics.
+     * @param ammo  The ammunition being fired.
+     * @return {@code true} if the shot should be resolved as a hitscan.
+     */
+    private static boolean isHitscan(HotFirearmStats stats, AmmoData ammo) {
+        return ammo.hitscanVelocity() > 0 && stats.projectileVelocity >= ammo.hitscanVelocity();
+    }
+
+    /**
+     * Resolves a shot instantly along its direction using the {@link HitscanResolver} and queues a hit on
+     * the first entity in its path. No projectile entity is spawned. The round penetrates blocks with its
+     * ammunition's penetration power and ricochets off blocks it hits at a shallow angle, up to
+     * {@link HitscanResolver#MAX_RICOCHETS} times. Both reduce its damage. Explosive rounds do not ricochet; they
+     * detonate on the entity or block that stops them using the {@link ExplosionResolver}.
+     *
+     * @param ref           The reference to the shooter.
+     * @param stats         The firearm's statistics.
+     * @param state         The firearm's state.
+     * @param shot          The data shared by all pellets of the shot.
+     * @param direction     The normalized direction of the shot.
+     * @param commandBuffer The command buffer for applying changes.
+     */
+    private void resolveHitscan(Ref<EntityStore> ref, HotFirearmStats stats, FirearmState state, ShotDescriptor shot, Vector3d direction, CommandBuffer<EntityStore> commandBuffer) {
+        HitscanScratch scratch = HITSCAN_SCRATCH.get();
+        HitscanResolver.Hit hit = scratch.hit;
+        Vector3d origin = scratch.origin;
+        Vector3d heading = scratch.heading;
+        origin.x = shot.getOriginX();
+        origin.y = shot.getOriginY();
+        origin.z = shot.getOriginZ();
+
+        HFFEvents.dispatchShootPost(ref, state, stats.stats, origin, direction);
+
+        if (stats.disabled) {
+            return;
         }
 
-        if (stats.disabled()) {
+        AmmoData ammo = shot.getAmmo();
+        heading.x = direction.x;
+        heading.y = direction.y;
+        heading.z = direction.z;
+        float power = ammo.penetrationPower();
+        float energy = 1.0f;
+        double travelled = 0.0;
+
+        // Trace the round segment by segment; each ricochet starts a new segment from the impact point
+        for (int ricochets = 0; ; ricochets++) {
+            if (HitscanResolver.resolve(ref, origin, heading, stats.maxRange - travelled, power, commandBuffer, hit)) {
+                break;
+            }
+            // Explosive rounds detonate on the first block that stops them instead of ricocheting
+            if (shot.isExplosive() || ricochets >= HitscanResolver.MAX_RICOCHETS || !HitscanResolver.ricochet(hit, heading, ammo.ricochetAngle())) {
+                if (shot.isExplosive() && hit.isBlocked()) {
+                    ExplosionResolver.detonate(ref, null, null, shot, ammo.damage() * energy, hit.getPosition(), heading, commandBuffer);
+                }
+                return;
+            }
+            travelled += hit.getDistance();
+            power = hit.getPowerAt(hit.getDistance());
+            energy *= HitscanResolver.RICOCHET_ENERGY;
+            origin.x = hit.getPosition().x;
+            origin.y = hit.getPosition().y;
+            origin.z = hit.getPosition().z;
+        }
+
+        if (shot.isExplosive()) {
+            ExplosionResolver.detonate(ref, null, hit.getTarget(), shot, ammo.damage() * energy, hit.getPosition(), heading, commandBuffer);
             return;
         }
 
-        Ref<EntityStore> projectile = ProjectileModule.get().spawnProjectile(ref, commandBuffer, config, position, direction);
-        interactionContext.getCommandBuffer().addComponent(projectile, HFF.get().getDamageComponentType(), new DamageComponent(
-                ammo.damage(),
-                position.clone(),
-                stats.optimalRange(),
-                stats.maxRange(),
-                stats.minDamageMultiplier(),
-                0.1f,
-                direction));
-
-        player.addLocationChange(ref, stats.horizontalRecoil(), stats.verticalRecoil(), 0, commandBuffer);
+        double distance = travelled + hit.getDistance();
+        HitboxTable hitbox = HitboxResolver.getTable(hit.getTarget(), commandBuffer);
+        int zone = HitboxResolver.resolveZone(hit.getTarget(), hitbox, hit.getPosition(), heading, commandBuffer);
+        float finalDamage = ammo.damage() * energy * shot.getDamageMultiplier(distance)
+                * shot.getPenetrationMultiplier(hit.getPowerAt(hit.getDistance()))
+                * hitbox.getDamageMultiplier(zone, shot.getArmorPenetration());
+
+        commandBuffer.getResource(HFF.get().getHitQueueResourceType())
+                .add(hit.getTarget(), ref, null, shot, finalDamage, zone, hit.getPosition(), heading, shot.getKnockbackForce());
+
+        if (HFF.get().getConfigData().isDebugMode()) {
+            HFF.get().getLogger().atInfo().log("Hitscan hit " + HitZone.of(zone) + " at " + distance + " blocks for " + finalDamage + " damage");
+        }
+    }
+
+    /**
+     * Hands a shot to the {@link BallisticSimulationResource} instead of spawning a projectile entity.
+     * The round is launched with the firearm's projectile velocity and the drag and gravity of the ammunition.
+     *
+     * @param ref           The reference to the shooter.
+     * @param stats         The firearm's statistics.
+     * @param state         The firearm's state.
+     * @param shot          The data shared by all pellets of the shot.
+     * @param direction     The normalized direction of the shot.
+     * @param commandBuffer The command buffer for applying changes.
+     */
+    private void simulateProjectile(Ref<EntityStore> ref, HotFirearmStats stats, FirearmState state, ShotDescriptor shot, Vector3d direction, CommandBuffer<EntityStore> commandBuffer) {
+        Vector3d position = shot.getOrigin();
+        Vector3d velocity = direction.scale(stats.projectileVelocity);
+
+        HFFEvents.dispatchShootPost(ref, state, stats.stats, position, velocity);
+
+        if (stats.disabled) {
+            return;
+        }
+
+        commandBuffer.getResource(HFF.get().getBallisticSimulationResourceType()).add(
+                ref,
+                position,
+                velocity,
+                shot.getAmmo().drag(),
+                shot.getAmmo().gravity(),
+                shot.getAmmo().damage(),
+                shot);
+    }
+
+    /**
+     * The reusable objects needed to trace a single hitscan pellet.
+     */
+    private static final class HitscanScratch {
+
+        /**
+         * The hit result of the current segment.
+         */
+        private final HitscanResolver.Hit hit = new HitscanResolver.Hit();
+
+        /**
+         * The origin of the current segment.
+         */
+        private final Vector3d origin = new Vector3d();
+
+        /**
+         * The direction of the current segment.
+         */
+        private final Vector3d heading = new Vector3d();
     }
-}
\ No newline at end of file
+}
@@ -3,10 +3,8 @@ package lucis.lux.hff.interactions;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.event.IEventDispatcher;
 import com.hypixel.hytale.protocol.InteractionState;
 import com.hypixel.hytale.protocol.InteractionType;
-import com.hypixel.hytale.server.core.HytaleServer;
 import com.hypixel.hytale.server.core.entity.InteractionContext;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
@@ -17,6 +15,7 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import lucis.lux.hff.HFF;
 import lucis.lux.hff.components.AimComponent;
 import lucis.lux.hff.events.FirearmAimEvent;
+import lucis.lux.hff.events.HFFEvents;
 import lucis.lux.hff.ui.AimHUD;
 import lucis.lux.hff.ui.EmptyHUD;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
@@ -73,11 +72,8 @@ public class ToggleAimInteraction extends SimpleInstantInteraction {
 
         boolean targetAimState = (aimComponent == null) || !aimComponent.isAiming();
 
-        IEventDispatcher<FirearmAimEvent.Pre, FirearmAimEvent.Pre> preDispatcher = HytaleServer.get().getEventBus().dispatchFor(FirearmAimEvent.Pre.class);
-
-        if (preDispatcher.hasListener()) {
-            FirearmAimEvent.Pre event = new FirearmAimEvent.Pre(ref, weapon, targetAimState);
-            preDispatcher.dispatch(event);
+        if (HFFEvents.AIM_PRE.hasListener()) {
+            FirearmAimEvent.Pre event = HFFEvents.AIM_PRE.dispatch(new FirearmAimEvent.Pre(ref, weapon, targetAimState));
 
             if (event.isCancelled()) {
                 interactionContext.getState().state = InteractionState.Failed;
@@ -97,10 +93,8 @@ public class ToggleAimInteraction extends SimpleInstantInteraction {
             HFF.get().getLogger().atInfo().log("Toggled aim mode to " + targetAimState);
         }
 
-        IEventDispatcher<FirearmAimEvent.Post, FirearmAimEvent.Post> postDispatcher = HytaleServer.get().getEventBus().dispatchFor(FirearmAimEvent.Post.class);
-        if (preDispatcher.hasListener()) {
-            FirearmAimEvent.Post event = new FirearmAimEvent.Post(ref, weapon, targetAimState);
-            postDispatcher.dispatch(event);
+        if (HFFEvents.AIM_POST.hasListener()) {
+            HFFEvents.AIM_POST.dispatch(new FirearmAimEvent.Post(ref, weapon, targetAimState));
         }
     }
 }
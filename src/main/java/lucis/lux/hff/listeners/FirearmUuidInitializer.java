@@ -4,6 +4,8 @@ import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.server.core.event.events.entity.LivingEntityInventoryChangeEvent;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
 import lucis.lux.hff.data.FirearmState;
+import lucis.lux.hff.data.MagazineData;
+import lucis.lux.hff.data.MagazineIndex;
 import lucis.lux.hff.data.registry.Registries;
 
 import java.util.UUID;
@@ -20,6 +22,8 @@ import java.util.regex.Pattern;
  *     <li>Parses the event transaction string to determine the affected slot and item ID.</li>
  *     <li>Checks if the item is a registered firearm using the {@link }.</li>
  *     <li>If the item is a firearm and does not already have a UUID, a new UUID is generated and stored in the item's metadata.</li>
+ *     <li>If the item is a magazine, it is guaranteed a UUID and a {@link lucis.lux.hff.data.MagazineState}, and is
+ *     added to the player's {@link MagazineIndex}.</li>
  * </ul>
  *
  * <p>This class is typically used to ensure that each firearm instance can be uniquely identified
@@ -37,6 +41,7 @@ public class FirearmUuidInitializer {
      *     <li>Extracts the item ID from the event transaction string using a regular expression.</li>
      *     <li>Checks if the item is a registered firearm using the {@link }.</li>
      *     <li>If the item is a firearm and lacks a UUID, generates a new UUID and stores it in the item's metadata.</li>
+     *     <li>If the item is a magazine, ensures its UUID and state and indexes it by calibre.</li>
      * </ol>
      *
      * @param event The inventory change event.
@@ -77,6 +82,15 @@ public class FirearmUuidInitializer {
                     Registries.FIREARM_STATES.register(uuid, new FirearmState());
                 }
             }
+
+            MagazineData magazine = Registries.MAGAZINE_DATA.get(id);
+            if (magazine != null) {
+                ItemStack item = event.getItemContainer().getItemStack(slot);
+                if (item != null) {
+                    UUID uuid = MagazineIndex.ensureMagazine(event.getItemContainer(), slot, item);
+                    MagazineIndex.of(event.getEntity()).add(uuid, id, magazine.calibreId(), event.getItemContainer(), slot);
+                }
+            }
         }
     }
 }
\ No newline at end of file
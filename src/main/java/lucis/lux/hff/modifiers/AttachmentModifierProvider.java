@@ -0,0 +1,74 @@
+package lucis.lux.hff.modifiers;
+
+import lucis.lux.hff.data.AttachmentData;
+import lucis.lux.hff.data.FirearmState;
+import lucis.lux.hff.data.FirearmStats;
+import lucis.lux.hff.data.registry.Registries;
+import lucis.lux.hff.enums.ModifierOperation;
+import lucis.lux.hff.enums.ModifierSource;
+import lucis.lux.hff.enums.StatField;
+
+import java.util.List;
+
+/**
+ * The {@code AttachmentModifierProvider} class supplies the modifiers of a firearm's installed attachments.
+ *
+ * <p>Every attachment multiplies recoil, spread, projectile velocity, reload time and RPM by its multipliers and
+ * adds its extra magazine capacity. Multipliers of {@code 1} and capacities of {@code 0} are skipped, so they do
+ * not add instructions to the compiled program.</p>
+ */
+public class AttachmentModifierProvider implements StatModifierProvider {
+
+    /**
+     * Adds the modifiers of all installed attachments to the given list.
+     *
+     * @param context   The holder of the firearm and its world. Unused, as attachments only depend on the firearm.
+     * @param baseStats The base statistics of the firearm.
+     * @param state     The runtime state of the firearm.
+     * @param out       The list receiving the modifiers.
+     */
+    @Override
+    public void collect(ModifierContext context, FirearmStats baseStats, FirearmState state, List<StatModifier> out) {
+        for (String attachmentId : state.getAttachments().values()) {
+            AttachmentData att = Registries.ATTACHMENT_DATA.get(attachmentId);
+            if (att == null) {
+                continue;
+            }
+
+            multiply(out, StatField.VERTICAL_RECOIL, att.recoilMultiplier());
+            multiply(out, StatField.HORIZONTAL_RECOIL, att.recoilMultiplier());
+            multiply(out, StatField.SPREAD_BASE, att.spreadMultiplier());
+            multiply(out, StatField.PROJECTILE_VELOCITY, att.velocityMultiplier());
+            multiply(out, StatField.RELOAD_TIME, att.reloadTimeMultiplier());
+            multiply(out, StatField.RPM, att.rpmMultiplier());
+
+            if (att.extraMagazineCapacity() != 0) {
+                out.add(StatModifier.builder()
+                        .field(StatField.PROJECTILE_CAPACITY)
+                        .operation(ModifierOperation.ADD)
+                        .value(att.extraMagazineCapacity())
+                        .source(ModifierSource.ATTACHMENT)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * Adds a multiplying attachment modifier, unless the multiplier has no effect.
+     *
+     * @param out        The list receiving the modifier.
+     * @param field      The field to modify.
+     * @param multiplier The multiplier.
+     */
+    private static void multiply(List<StatModifier> out, StatField field, float multiplier) {
+        if (multiplier == 1.0f) {
+            return;
+        }
+        out.add(StatModifier.builder()
+                .field(field)
+                .operation(ModifierOperation.MULTIPLY)
+                .value(multiplier)
+                .source(ModifierSource.ATTACHMENT)
+                .build());
+    }
+}
@@ -0,0 +1,128 @@
+package lucis.lux.hff.modifiers;
+
+import lucis.lux.hff.data.FirearmStats;
+import lucis.lux.hff.enums.ModifierOperation;
+import lucis.lux.hff.enums.StatField;
+
+import java.util.List;
+
+/**
+ * The {@code CompiledModifierProgram} class is a flattened, ordered chain of {@link StatModifier}s.
+ *
+ * <p>The program stores its instructions in parallel primitive arrays, so applying it is a single loop
+ * without allocation or virtual calls. Only fields touched by at least one instruction are written back, and a
+ * program without instructions returns the base statistics unchanged.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     CompiledModifierProgram program = CompiledModifierProgram.compile(modifiers);
+ *     FirearmStats modified = program.apply(baseStats);
+ * </pre>
+ */
+public final class CompiledModifierProgram {
+
+    /**
+     * A program without instructions.
+     */
+    public static final CompiledModifierProgram EMPTY = new CompiledModifierProgram(new int[0], new int[0], new float[0]);
+
+    /**
+     * The ordinal of the {@link StatField} of each instruction.
+     */
+    private final int[] fields;
+
+    /**
+     * The ordinal of the {@link ModifierOperation} of each instruction.
+     */
+    private final int[] operations;
+
+    /**
+     * The operand of each instruction.
+     */
+    private final float[] values;
+
+    /**
+     * A bit mask of the fields touched by the program.
+     */
+    private final int touched;
+
+    private CompiledModifierProgram(int[] fields, int[] operations, float[] values) {
+        this.fields = fields;
+        this.operations = operations;
+        this.values = values;
+
+        int mask = 0;
+        for (int field : fields) {
+            mask |= 1 << field;
+        }
+        this.touched = mask;
+    }
+
+    /**
+     * Compiles a list of modifiers into a program. The list must already be sorted by order.
+     *
+     * @param modifiers The sorted modifiers.
+     * @return The compiled program.
+     */
+    public static CompiledModifierProgram compile(List<StatModifier> modifiers) {
+        if (modifiers.isEmpty()) {
+            return EMPTY;
+        }
+
+        int[] fields = new int[modifiers.size()];
+        int[] operations = new int[modifiers.size()];
+        float[] values = new float[modifiers.size()];
+        for (int i = 0; i < modifiers.size(); i++) {
+            StatModifier modifier = modifiers.get(i);
+            fields[i] = modifier.field().ordinal();
+            operations[i] = modifier.operation().ordinal();
+            values[i] = modifier.value();
+        }
+        return new CompiledModifierProgram(fields, operations, values);
+    }
+
+    /**
+     * Returns the number of instructions in the program.
+     *
+     * @return The number of instructions.
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * Applies the program to a firearm's statistics.
+     *
+     * @param baseStats The statistics to modify.
+     * @return The modified statistics, or {@code baseStats} if the program is empty.
+     */
+    public FirearmStats apply(FirearmStats baseStats) {
+        if (fields.length == 0) {
+            return baseStats;
+        }
+
+        float[] registers = new float[StatField.count()];
+        for (int f = 0; f < registers.length; f++) {
+            if ((touched & (1 << f)) != 0) {
+                registers[f] = StatField.byOrdinal(f).read(baseStats);
+            }
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            int f = fields[i];
+            switch (operations[i]) {
+                case 0 -> registers[f] += values[i];
+                case 1 -> registers[f] *= values[i];
+                default -> registers[f] = values[i];
+            }
+        }
+
+        FirearmStats.Builder builder = baseStats.toBuilder();
+        for (int f = 0; f < registers.length; f++) {
+            if ((touched & (1 << f)) != 0) {
+                StatField.byOrdinal(f).write(builder, registers[f]);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,53 @@
+package lucis.lux.hff.modifiers;
+
+import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+/**
+ * The {@code ModifierContext} record describes who holds a firearm whose statistics are being recalculated.
+ * It is passed to every {@link StatModifierProvider}, so providers can depend on the holder, such as player perks,
+ * or on the world the holder is in, such as weather or world rules.
+ *
+ * <p>Both values are {@code null} if the statistics are calculated without a holder, for example for an item
+ * that is displayed outside of a world.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     ModifierPipeline.register((context, baseStats, state, out) -&gt; {
+ *         World world = context.getWorld();
+ *         if (world != null &amp;&amp; isRaining(world)) {
+ *             // Add modifiers
+ *         }
+ *     });
+ * </pre>
+ *
+ * @param holder            A reference to the entity holding the firearm, or {@code null}.
+ * @param componentAccessor The component accessor used to access the holder's components, or {@code null}.
+ */
+public record ModifierContext(Ref<EntityStore> holder, ComponentAccessor<EntityStore> componentAccessor) {
+
+    /**
+     * A context without a holder.
+     */
+    public static final ModifierContext NONE = new ModifierContext(null, null);
+
+    /**
+     * Returns whether the context has a valid holder.
+     *
+     * @return {@code true} if the holder and the component accessor are available.
+     */
+    public boolean hasHolder() {
+        return holder != null && holder.isValid() && componentAccessor != null;
+    }
+
+    /**
+     * Returns the world the holder is in.
+     *
+     * @return The world, or {@code null} if the context has no component accessor.
+     */
+    public World getWorld() {
+        return componentAccessor != null ? componentAccessor.getExternalData().getWorld() : null;
+    }
+}
@@ -0,0 +1,170 @@
+package lucis.lux.hff.modifiers;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.data.FirearmState;
+import lucis.lux.hff.data.FirearmStats;
+import lucis.lux.hff.data.registry.Registries;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code ModifierPipeline} class is the central entry point for extending firearm statistics.
+ *
+ * <p>Registered {@link StatModifierProvider}s are asked for their {@link StatModifier}s whenever a firearm's
+ * statistics have to be recalculated. The collected modifiers are sorted by their order and compiled into a
+ * {@link CompiledModifierProgram}, whose result is memoized per firearm by the
+ * {@link lucis.lux.hff.util.StatCalculator}. The program is therefore evaluated once per weapon and modifier set,
+ * not once per shot.</p>
+ *
+ * <p>Cached statistics are recalculated when:</p>
+ * <ul>
+ *     <li>A provider is registered or unregistered.</li>
+ *     <li>{@link #invalidate()} is called, for example when the weather changes.</li>
+ *     <li>{@link #invalidate(Ref)} is called for the holder of the firearm, for example when a player's perks
+ *     change. The firearms of all other holders keep their cached statistics.</li>
+ *     <li>The firearm changes hands, since every holder has its own version.</li>
+ *     <li>The attachment registry is modified.</li>
+ *     <li>An attachment is installed on or removed from the firearm.</li>
+ * </ul>
+ *
+ * <p>The {@link AttachmentModifierProvider} is registered by default.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     ModifierPipeline.register(myPerkProvider);
+ *
+ *     // Later, when a player's perks change
+ *     ModifierPipeline.invalidate(playerRef);
+ * </pre>
+ */
+public final class ModifierPipeline {
+
+    /**
+     * The registered providers.
+     */
+    private static final List<StatModifierProvider> PROVIDERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * The sequence the versions of the holders are drawn from. Every version is used only once, so no two holders
+     * and no two invalidations of the same holder share a version.
+     */
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    /**
+     * The current version of each holder. Cleared whenever all cached statistics become stale, so every holder is
+     * assigned a new version on its next lookup.
+     */
+    private static final Map<Ref<EntityStore>, Integer> HOLDER_VERSIONS = new ConcurrentHashMap<>();
+
+    /**
+     * The version of firearms calculated without a holder.
+     */
+    private static volatile int unheldVersion = SEQUENCE.incrementAndGet();
+
+    /**
+     * The version of the attachment registry the holder versions were assigned under.
+     */
+    private static volatile int attachmentVersion = Registries.ATTACHMENT_DATA.getVersion();
+
+    static {
+        PROVIDERS.add(new AttachmentModifierProvider());
+    }
+
+    private ModifierPipeline() {
+    }
+
+    /**
+     * Registers a provider and invalidates all cached statistics.
+     *
+     * @param provider The provider to register.
+     */
+    public static void register(StatModifierProvider provider) {
+        PROVIDERS.add(provider);
+        invalidate();
+    }
+
+    /**
+     * Unregisters a provider and invalidates all cached statistics.
+     *
+     * @param provider The provider to unregister.
+     */
+    public static void unregister(StatModifierProvider provider) {
+        if (PROVIDERS.remove(provider)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Invalidates all cached statistics, so they are recalculated on the next shot.
+     */
+    public static void invalidate() {
+        HOLDER_VERSIONS.clear();
+        unheldVersion = SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * Invalidates the cached statistics of all firearms held by a single entity, so they are recalculated on its
+     * next shot. The firearms of all other entities are not affected.
+     *
+     * @param holder A reference to the entity whose modifiers changed.
+     */
+    public static void invalidate(Ref<EntityStore> holder) {
+        if (holder != null) {
+            HOLDER_VERSIONS.put(holder, SEQUENCE.incrementAndGet());
+        }
+    }
+
+    /**
+     * Returns the version of the modifier set of a holder. The version changes whenever a provider is registered or
+     * unregistered, {@link #invalidate()} or {@link #invalidate(Ref)} is called for the holder or the attachment
+     * registry is modified. Different holders never share a version.
+     *
+     * @param holder A reference to the entity holding the firearm, or {@code null} if it has no holder.
+     * @return The version of the modifier set of the holder.
+     */
+    public static int getVersion(Ref<EntityStore> holder) {
+        int registryVersion = Registries.ATTACHMENT_DATA.getVersion();
+        if (registryVersion != attachmentVersion) {
+            attachmentVersion = registryVersion;
+            invalidate();
+        }
+
+        if (holder == null) {
+            return unheldVersion;
+        }
+
+        Integer version = HOLDER_VERSIONS.get(holder);
+        if (version == null) {
+            // A new holder is a good moment to forget the entities that have been removed since the last one
+            HOLDER_VERSIONS.keySet().removeIf(ref -> !ref.isValid());
+            version = HOLDER_VERSIONS.computeIfAbsent(holder, ref -> SEQUENCE.incrementAndGet());
+        }
+        return version;
+    }
+
+    /**
+     * Collects the modifiers of all providers for a firearm and compiles them into a program.
+     *
+     * @param context   The holder of the firearm and its world.
+     * @param baseStats The base statistics of the firearm.
+     * @param state     The runtime state of the firearm.
+     * @return The compiled program.
+     */
+    public static CompiledModifierProgram compile(ModifierContext context, FirearmStats baseStats, FirearmState state) {
+        List<StatModifier> modifiers = new ArrayList<>();
+        for (StatModifierProvider provider : PROVIDERS) {
+            provider.collect(context, baseStats, state, modifiers);
+        }
+
+        // List.sort is stable, so modifiers with the same order keep their collection order
+        modifiers.sort(Comparator.comparingInt(StatModifier::order));
+        return CompiledModifierProgram.compile(modifiers);
+    }
+}
@@ -0,0 +1,152 @@
+package lucis.lux.hff.modifiers;
+
+import lucis.lux.hff.enums.ModifierOperation;
+import lucis.lux.hff.enums.ModifierSource;
+import lucis.lux.hff.enums.StatField;
+
+/**
+ * The {@code StatModifier} record represents a single change to one field of a firearm's statistics.
+ * Modifiers are supplied by {@link StatModifierProvider}s and compiled into a {@link CompiledModifierProgram}.
+ *
+ * <p>Modifiers are applied in ascending {@code order}. Modifiers with the same order are applied in the order
+ * they were collected.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     StatModifier modifier = StatModifier.builder()
+ *          .field(StatField.RPM)
+ *          .operation(ModifierOperation.MULTIPLY)
+ *          .value(1.2f)
+ *          .source(ModifierSource.PERK)
+ *          .build();
+ * </pre>
+ *
+ * @param field     The field to modify.
+ * @param operation The operation to apply.
+ * @param value     The operand of the operation.
+ * @param order     The position of the modifier in the chain.
+ * @param source    The origin of the modifier.
+ */
+public record StatModifier(StatField field, ModifierOperation operation, float value, int order,
+                           ModifierSource source) {
+
+    /**
+     * Creates a new {@link Builder} instance for constructing a {@code StatModifier} object.
+     *
+     * @return A new builder instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a new {@link Builder} instance initialized with the values of this {@code StatModifier} object.
+     *
+     * @return A new builder instance initialized with the values of this object.
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .field(field)
+                .operation(operation)
+                .value(value)
+                .order(order)
+                .source(source);
+    }
+
+    /**
+     * The {@code Builder} class provides a fluent interface for constructing {@code StatModifier} objects.
+     */
+    public static final class Builder {
+
+        /**
+         * The field to modify. Defaults to {@link StatField#RPM}.
+         */
+        private StatField field = StatField.RPM;
+        /**
+         * The operation to apply. Defaults to {@link ModifierOperation#MULTIPLY}.
+         */
+        private ModifierOperation operation = ModifierOperation.MULTIPLY;
+        /**
+         * The operand of the operation. Defaults to 1.0.
+         */
+        private float value = 1.0f;
+        /**
+         * The position of the modifier in the chain. Defaults to 0.
+         */
+        private int order = 0;
+        /**
+         * The origin of the modifier. Defaults to {@link ModifierSource#OTHER}.
+         */
+        private ModifierSource source = ModifierSource.OTHER;
+
+        /**
+         * Constructs a new builder with default values.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the field to modify.
+         *
+         * @param field The field.
+         * @return This builder instance.
+         */
+        public Builder field(StatField field) {
+            this.field = field;
+            return this;
+        }
+
+        /**
+         * Sets the operation to apply.
+         *
+         * @param operation The operation.
+         * @return This builder instance.
+         */
+        public Builder operation(ModifierOperation operation) {
+            this.operation = operation;
+            return this;
+        }
+
+        /**
+         * Sets the operand of the operation.
+         *
+         * @param value The operand.
+         * @return This builder instance.
+         */
+        public Builder value(float value) {
+            this.value = value;
+            return this;
+        }
+
+        /**
+         * Sets the position of the modifier in the chain.
+         *
+         * @param order The position.
+         * @return This builder instance.
+         */
+        public Builder order(int order) {
+            this.order = order;
+            return this;
+        }
+
+        /**
+         * Sets the origin of the modifier.
+         *
+         * @param source The origin.
+         * @return This builder instance.
+         */
+        public Builder source(ModifierSource source) {
+            this.source = source;
+            return this;
+        }
+
+        /**
+         * Builds a new {@code StatModifier} object with the values set in this builder.
+         *
+         * @return A new {@code StatModifier} object.
+         */
+        public StatModifier build() {
+            return new StatModifier(field, operation, value, order, source);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package lucis.lux.hff.modifiers;
+
+import com.hypixel.hytale.component.Ref;
+import lucis.lux.hff.data.FirearmState;
+import lucis.lux.hff.data.FirearmStats;
+
+import java.util.List;
+
+/**
+ * A {@code StatModifierProvider} supplies {@link StatModifier}s for a firearm. Providers are registered in the
+ * {@link ModifierPipeline} and are only consulted when a firearm's modifier program has to be recompiled,
+ * never per shot.
+ *
+ * <p>Each call receives a {@link ModifierContext} describing the entity holding the firearm and its world, so
+ * providers can depend on player perks or world rules.</p>
+ *
+ * <p>A provider whose output changes for reasons HFF cannot observe must tell the pipeline, so cached statistics are
+ * recalculated. A change of a single holder, such as a new player perk, calls
+ * {@link ModifierPipeline#invalidate(Ref)}, which only affects the firearms of that holder. A change that affects
+ * everyone, such as a change of weather, calls {@link ModifierPipeline#invalidate()}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     ModifierPipeline.register((context, baseStats, state, out) -&gt; {
+ *         if (context.hasHolder() &amp;&amp; hasSteadyHands(context.holder(), context.componentAccessor())) {
+ *             out.add(StatModifier.builder()
+ *                     .field(StatField.SPREAD_BASE)
+ *                     .operation(ModifierOperation.MULTIPLY)
+ *                     .value(0.9f)
+ *                     .source(ModifierSource.PERK)
+ *                     .build());
+ *         }
+ *         if (isRaining(context.getWorld())) {
+ *             out.add(StatModifier.builder()
+ *                     .field(StatField.JAM_CHANCE)
+ *                     .operation(ModifierOperation.ADD)
+ *                     .value(0.01f)
+ *                     .source(ModifierSource.WEATHER)
+ *                     .build());
+ *         }
+ *     });
+ *
+ *     // Later, when the player learns or loses the perk
+ *     ModifierPipeline.invalidate(playerRef);
+ * </pre>
+ */
+@FunctionalInterface
+public interface StatModifierProvider {
+
+    /**
+     * Adds the modifiers that apply to a firearm to the given list.
+     *
+     * @param context   The holder of the firearm and its world.
+     * @param baseStats The base statistics of the firearm.
+     * @param state     The runtime state of the firearm.
+     * @param out       The list receiving the modifiers.
+     */
+    void collect(ModifierContext context, FirearmStats baseStats, FirearmState state, List<StatModifier> out);
+}
@@ -0,0 +1,498 @@
+package lucis.lux.hff.resources;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.data.ShotDescriptor;
+import lucis.lux.hff.util.HitscanResolver;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+import java.util.Arrays;
+
+/**
+ * The {@code BallisticSimulationResource} class is a per-world resource that stores all rounds simulated by HFF
+ * itself instead of being spawned as projectile entities.
+ *
+ * <p>Rounds are stored in a struct-of-arrays layout: every property lives in its own primitive array and a round
+ * is identified by its index. This keeps the per-tick update of thousands of rounds cache friendly and free of
+ * allocations. Removing a round moves the last round into its slot, so indices are only stable until the next
+ * removal.</p>
+ *
+ * <p>The resource is filled by the {@link lucis.lux.hff.interactions.ShootFirearmInteraction} and stepped by the
+ * {@link lucis.lux.hff.systems.BallisticSimulationSystem}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     int index = simulation.add(shooterRef, position, velocity, ammo.drag(), ammo.gravity(),
+ *             ammo.damage(), shot);
+ *
+ *     for (int i = 0; i &lt; simulation.size(); i++) {
+ *         simulation.accelerate(i, dt);
+ *         simulation.move(i, dt);
+ *     }
+ * </pre>
+ */
+public class BallisticSimulationResource implements Resource<EntityStore> {
+
+    /**
+     * The initial capacity of the buffers.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * The current position of each round.
+     */
+    private double[] posX, posY, posZ;
+
+    /**
+     * The current velocity of each round in blocks per second.
+     */
+    private double[] velX, velY, velZ;
+
+    /**
+     * The position each round was fired from, used for damage falloff and range checks.
+     */
+    private double[] originX, originY, originZ;
+
+    /**
+     * The fraction of velocity each round loses per second.
+     */
+    private float[] drag;
+
+    /**
+     * The downward acceleration of each round in blocks per second squared.
+     */
+    private float[] gravity;
+
+    /**
+     * The base damage of each round, reduced by every ricochet.
+     */
+    private float[] damage;
+
+    /**
+     * The penetration power each round has left.
+     */
+    private float[] penetration;
+
+    /**
+     * The range at which each round reaches its minimum damage and is removed.
+     */
+    private float[] maxRange;
+
+    /**
+     * The shot each round belongs to, which holds its falloff and knockback. Pellets of the same shot share it.
+     */
+    private ShotDescriptor[] shot;
+
+    /**
+     * The tick each round was fired in.
+     */
+    private long[] spawnTick;
+
+    /**
+     * The entity that fired each round.
+     */
+    private Ref<EntityStore>[] shooter;
+
+    /**
+     * The number of rounds currently in flight.
+     */
+    private int size;
+
+    /**
+     * The number of ticks the simulation has been stepped.
+     */
+    private long currentTick;
+
+    /**
+     * Scratch vector for the origin of the segment traced in the current step.
+     */
+    private final Vector3d segmentOrigin = new Vector3d();
+
+    /**
+     * Scratch vector for the direction of the segment traced in the current step.
+     */
+    private final Vector3d segmentDirection = new Vector3d();
+
+    /**
+     * Scratch hit result for the segment traced in the current step.
+     */
+    private final HitscanResolver.Hit hit = new HitscanResolver.Hit();
+
+    /**
+     * Constructs a new, empty {@code BallisticSimulationResource}.
+     */
+    public BallisticSimulationResource() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@code BallisticSimulationResource} by copying the state from another resource.
+     *
+     * @param other The resource to copy.
+     */
+    public BallisticSimulationResource(BallisticSimulationResource other) {
+        this.posX = other.posX.clone();
+        this.posY = other.posY.clone();
+        this.posZ = other.posZ.clone();
+        this.velX = other.velX.clone();
+        this.velY = other.velY.clone();
+        this.velZ = other.velZ.clone();
+        this.originX = other.originX.clone();
+        this.originY = other.originY.clone();
+        this.originZ = other.originZ.clone();
+        this.drag = other.drag.clone();
+        this.gravity = other.gravity.clone();
+        this.damage = other.damage.clone();
+        this.penetration = other.penetration.clone();
+        this.maxRange = other.maxRange.clone();
+        this.shot = other.shot.clone();
+        this.spawnTick = other.spawnTick.clone();
+        this.shooter = other.shooter.clone();
+        this.size = other.size;
+        this.currentTick = other.currentTick;
+    }
+
+    /**
+     * Adds a new round to the simulation.
+     *
+     * @param shooterRef          The entity that fired the round.
+     * @param position            The position the round is fired from.
+     * @param velocity            The initial velocity of the round in blocks per second.
+     * @param drag                The fraction of velocity the round loses per second.
+     * @param gravity             The downward acceleration of the round.
+     * @param damage              The base damage of the round.
+     * @param shot                The shot the round belongs to. Its maximum range is where the round is removed,
+     *                            and its ammunition defines the penetration power of the round.
+     * @return The index of the new round.
+     */
+    public int add(Ref<EntityStore> shooterRef, Vector3d position, Vector3d velocity, float drag, float gravity,
+                   float damage, ShotDescriptor shot) {
+        if (size == posX.length) {
+            grow(size * 2);
+        }
+
+        int i = size++;
+        this.posX[i] = position.x;
+        this.posY[i] = position.y;
+        this.posZ[i] = position.z;
+        this.originX[i] = position.x;
+        this.originY[i] = position.y;
+        this.originZ[i] = position.z;
+        this.velX[i] = velocity.x;
+        this.velY[i] = velocity.y;
+        this.velZ[i] = velocity.z;
+        this.drag[i] = drag;
+        this.gravity[i] = gravity;
+        this.damage[i] = damage;
+        this.penetration[i] = shot.getAmmo() != null ? shot.getAmmo().penetrationPower() : 0.0f;
+        this.maxRange[i] = shot.getMaxRange();
+        this.shot[i] = shot;
+        this.spawnTick[i] = currentTick;
+        this.shooter[i] = shooterRef;
+        return i;
+    }
+
+    /**
+     * Removes the round at the given index by moving the last round into its slot.
+     *
+     * @param i The index of the round to remove.
+     */
+    public void remove(int i) {
+        int last = --size;
+        if (i != last) {
+            posX[i] = posX[last];
+            posY[i] = posY[last];
+            posZ[i] = posZ[last];
+            velX[i] = velX[last];
+            velY[i] = velY[last];
+            velZ[i] = velZ[last];
+            originX[i] = originX[last];
+            originY[i] = originY[last];
+            originZ[i] = originZ[last];
+            drag[i] = drag[last];
+            gravity[i] = gravity[last];
+            damage[i] = damage[last];
+            penetration[i] = penetration[last];
+            maxRange[i] = maxRange[last];
+            shot[i] = shot[last];
+            spawnTick[i] = spawnTick[last];
+            shooter[i] = shooter[last];
+        }
+        shooter[last] = null;
+        shot[last] = null;
+    }
+
+    /**
+     * Returns the number of rounds currently in flight.
+     *
+     * @return The number of rounds.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Applies gravity and drag to the velocity of a round for one step.
+     *
+     * @param index The index of the round.
+     * @param dt    The duration of the step in seconds.
+     */
+    public void accelerate(int index, float dt) {
+        double damping = Math.max(0.0, 1.0 - drag[index] * dt);
+        velX[index] *= damping;
+        velY[index] = (velY[index] - gravity[index] * dt) * damping;
+        velZ[index] *= damping;
+    }
+
+    /**
+     * Moves a round along its velocity for one step.
+     *
+     * @param index The index of the round.
+     * @param dt    The duration of the step in seconds.
+     */
+    public void move(int index, float dt) {
+        posX[index] += velX[index] * dt;
+        posY[index] += velY[index] * dt;
+        posZ[index] += velZ[index] * dt;
+    }
+
+    /**
+     * Returns the current position of a round.
+     *
+     * @param index The index of the round.
+     * @param out   The vector to write the position into.
+     * @return The given vector.
+     */
+    public Vector3d getPosition(int index, Vector3d out) {
+        out.x = posX[index];
+        out.y = posY[index];
+        out.z = posZ[index];
+        return out;
+    }
+
+    /**
+     * Sets the current position of a round.
+     *
+     * @param index    The index of the round.
+     * @param position The new position.
+     */
+    public void setPosition(int index, Vector3d position) {
+        posX[index] = position.x;
+        posY[index] = position.y;
+        posZ[index] = position.z;
+    }
+
+    /**
+     * Returns the current velocity of a round.
+     *
+     * @param index The index of the round.
+     * @param out   The vector to write the velocity into.
+     * @return The given vector.
+     */
+    public Vector3d getVelocity(int index, Vector3d out) {
+        out.x = velX[index];
+        out.y = velY[index];
+        out.z = velZ[index];
+        return out;
+    }
+
+    /**
+     * Sets the current velocity of a round.
+     *
+     * @param index The index of the round.
+     * @param x     The velocity along the x axis in blocks per second.
+     * @param y     The velocity along the y axis in blocks per second.
+     * @param z     The velocity along the z axis in blocks per second.
+     */
+    public void setVelocity(int index, double x, double y, double z) {
+        velX[index] = x;
+        velY[index] = y;
+        velZ[index] = z;
+    }
+
+    /**
+     * Returns the squared distance between a position and the position a round was fired from.
+     *
+     * @param index    The index of the round.
+     * @param position The position.
+     * @return The squared distance in blocks.
+     */
+    public double distanceSquaredToOrigin(int index, Vector3d position) {
+        double dx = position.x - originX[index];
+        double dy = position.y - originY[index];
+        double dz = position.z - originZ[index];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Checks whether a round has flown past its maximum range or outlived the given lifespan.
+     *
+     * @param index            The index of the round.
+     * @param maxLifespanTicks The number of ticks a round may stay in flight.
+     * @return {@code true} if the round should be removed.
+     */
+    public boolean isExpired(int index, long maxLifespanTicks) {
+        double dx = posX[index] - originX[index];
+        double dy = posY[index] - originY[index];
+        double dz = posZ[index] - originZ[index];
+        double range = maxRange[index];
+        return dx * dx + dy * dy + dz * dz > range * range || currentTick - spawnTick[index] > maxLifespanTicks;
+    }
+
+    /**
+     * Returns the base damage of a round.
+     *
+     * @param index The index of the round.
+     * @return The damage, reduced by every ricochet.
+     */
+    public float getDamage(int index) {
+        return damage[index];
+    }
+
+    /**
+     * Sets the base damage of a round.
+     *
+     * @param index  The index of the round.
+     * @param damage The new damage.
+     */
+    public void setDamage(int index, float damage) {
+        this.damage[index] = damage;
+    }
+
+    /**
+     * Returns the penetration power a round has left.
+     *
+     * @param index The index of the round.
+     * @return The penetration power.
+     */
+    public float getPenetration(int index) {
+        return penetration[index];
+    }
+
+    /**
+     * Sets the penetration power a round has left.
+     *
+     * @param index       The index of the round.
+     * @param penetration The new penetration power.
+     */
+    public void setPenetration(int index, float penetration) {
+        this.penetration[index] = penetration;
+    }
+
+    /**
+     * Returns the shot a round belongs to.
+     *
+     * @param index The index of the round.
+     * @return The shot.
+     */
+    public ShotDescriptor getShot(int index) {
+        return shot[index];
+    }
+
+    /**
+     * Returns the entity that fired a round.
+     *
+     * @param index The index of the round.
+     * @return A reference to the shooter.
+     */
+    public Ref<EntityStore> getShooter(int index) {
+        return shooter[index];
+    }
+
+    /**
+     * Returns the number of ticks the simulation has been stepped.
+     *
+     * @return The current tick.
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Advances the tick counter of the simulation by one.
+     */
+    public void advanceTick() {
+        currentTick++;
+    }
+
+    /**
+     * Returns the scratch vector holding the origin of the segment traced in the current step.
+     *
+     * @return The segment origin.
+     */
+    public Vector3d getSegmentOrigin() {
+        return segmentOrigin;
+    }
+
+    /**
+     * Returns the scratch vector holding the direction of the segment traced in the current step.
+     *
+     * @return The segment direction.
+     */
+    public Vector3d getSegmentDirection() {
+        return segmentDirection;
+    }
+
+    /**
+     * Returns the scratch hit result for the segment traced in the current step.
+     *
+     * @return The hit result.
+     */
+    public HitscanResolver.Hit getHit() {
+        return hit;
+    }
+
+    /**
+     * Creates a copy of this resource.
+     *
+     * @return A copy of this resource.
+     */
+    @NullableDecl
+    @Override
+    public Resource<EntityStore> clone() {
+        return new BallisticSimulationResource(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        posX = new double[capacity];
+        posY = new double[capacity];
+        posZ = new double[capacity];
+        velX = new double[capacity];
+        velY = new double[capacity];
+        velZ = new double[capacity];
+        originX = new double[capacity];
+        originY = new double[capacity];
+        originZ = new double[capacity];
+        drag = new float[capacity];
+        gravity = new float[capacity];
+        damage = new float[capacity];
+        penetration = new float[capacity];
+        maxRange = new float[capacity];
+        shot = new ShotDescriptor[capacity];
+        spawnTick = new long[capacity];
+        shooter = new Ref[capacity];
+    }
+
+    private void grow(int capacity) {
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        posZ = Arrays.copyOf(posZ, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        velZ = Arrays.copyOf(velZ, capacity);
+        originX = Arrays.copyOf(originX, capacity);
+        originY = Arrays.copyOf(originY, capacity);
+        originZ = Arrays.copyOf(originZ, capacity);
+        drag = Arrays.copyOf(drag, capacity);
+        gravity = Arrays.copyOf(gravity, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        penetration = Arrays.copyOf(penetration, capacity);
+        maxRange = Arrays.copyOf(maxRange, capacity);
+        shot = Arrays.copyOf(shot, capacity);
+        spawnTick = Arrays.copyOf(spawnTick, capacity);
+        shooter = Arrays.copyOf(shooter, capacity);
+    }
+}
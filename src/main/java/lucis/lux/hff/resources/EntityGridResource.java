@@ -0,0 +1,613 @@
+package lucis.lux.hff.resources;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.util.RayMath;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code EntityGridResource} class is a per-world broad-phase index of the bounds of all hittable entities.
+ * It is used by HFF's hit detection to find the few entities close to a shot instead of testing every entity.
+ *
+ * <p>The index is a uniform grid of {@link #CELL_SIZE} sized cells. Every entity is stored in its own slot
+ * together with its world-space bounding box and is registered in every cell its box overlaps. Cells are kept in
+ * an open-addressing hash table keyed by their packed coordinates. A cell is deleted as soon as its last entity
+ * leaves it, so only currently occupied regions of the world use memory and the table does not grow with the
+ * distance entities have travelled over the lifetime of the server.</p>
+ *
+ * <p>The grid is updated incrementally: an entity is only moved between cells when the range of cells it covers
+ * changes. This is done by the {@link lucis.lux.hff.systems.EntityGridSystem} once per tick, so queries see the
+ * bounds of the previous tick.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     int count = grid.querySegment(origin.x, origin.y, origin.z, dir.x, dir.y, dir.z, length);
+ *     for (int i = 0; i &lt; count; i++) {
+ *         int slot = grid.getResult(i);
+ *         double t = grid.intersect(slot, origin.x, origin.y, origin.z, dir.x, dir.y, dir.z, length);
+ *     }
+ *
+ *     int inRadius = grid.querySphere(center.x, center.y, center.z, radius);
+ * </pre>
+ */
+public class EntityGridResource implements Resource<EntityStore> {
+
+    /**
+     * The edge length of a cell in blocks.
+     */
+    public static final double CELL_SIZE = 4.0;
+
+    /**
+     * The key used to mark empty slots in the cell table.
+     */
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    /**
+     * The maximum number of cells a sphere query visits along each axis.
+     */
+    private static final int MAX_QUERY_CELLS_PER_AXIS = 16;
+
+    /**
+     * The maximum number of cells a single segment or sphere query visits.
+     */
+    private static final int MAX_QUERY_CELLS = MAX_QUERY_CELLS_PER_AXIS * MAX_QUERY_CELLS_PER_AXIS * MAX_QUERY_CELLS_PER_AXIS;
+
+    /**
+     * The largest radius in blocks a sphere query covers, {@code 30} blocks. The diameter of such a sphere spans at
+     * most {@link #MAX_QUERY_CELLS_PER_AXIS} cells per axis, so the query never visits more than
+     * {@link #MAX_QUERY_CELLS} cells. Larger radii are clamped to it.
+     */
+    public static final double MAX_QUERY_RADIUS = (MAX_QUERY_CELLS_PER_AXIS - 1) * CELL_SIZE / 2;
+
+    /**
+     * Maps entity references to their slots.
+     */
+    private final Map<Ref<EntityStore>, Integer> slots;
+
+    // Entity slots
+
+    private Ref<EntityStore>[] refs;
+    private double[] minX, minY, minZ, maxX, maxY, maxZ;
+    private int[] cellMinX, cellMinY, cellMinZ, cellMaxX, cellMaxY, cellMaxZ;
+    private int[] queryStamp;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+
+    // Cell table
+
+    private long[] cellKeys;
+    private int[][] cellEntries;
+    private int[] cellSizes;
+    private int cellCount;
+
+    // Query results
+
+    private int[] results = new int[64];
+    private int stamp;
+
+    /**
+     * Constructs a new, empty {@code EntityGridResource}.
+     */
+    @SuppressWarnings("unchecked")
+    public EntityGridResource() {
+        this.slots = new HashMap<>();
+        int capacity = 64;
+        this.refs = new Ref[capacity];
+        this.minX = new double[capacity];
+        this.minY = new double[capacity];
+        this.minZ = new double[capacity];
+        this.maxX = new double[capacity];
+        this.maxY = new double[capacity];
+        this.maxZ = new double[capacity];
+        this.cellMinX = new int[capacity];
+        this.cellMinY = new int[capacity];
+        this.cellMinZ = new int[capacity];
+        this.cellMaxX = new int[capacity];
+        this.cellMaxY = new int[capacity];
+        this.cellMaxZ = new int[capacity];
+        this.queryStamp = new int[capacity];
+        this.freeSlots = new int[capacity];
+
+        int cells = 256;
+        this.cellKeys = new long[cells];
+        Arrays.fill(this.cellKeys, EMPTY);
+        this.cellEntries = new int[cells][];
+        this.cellSizes = new int[cells];
+    }
+
+    /**
+     * Constructs a new {@code EntityGridResource} by copying the state from another resource.
+     *
+     * @param other The resource to copy.
+     */
+    public EntityGridResource(EntityGridResource other) {
+        this.slots = new HashMap<>(other.slots);
+        this.refs = other.refs.clone();
+        this.minX = other.minX.clone();
+        this.minY = other.minY.clone();
+        this.minZ = other.minZ.clone();
+        this.maxX = other.maxX.clone();
+        this.maxY = other.maxY.clone();
+        this.maxZ = other.maxZ.clone();
+        this.cellMinX = other.cellMinX.clone();
+        this.cellMinY = other.cellMinY.clone();
+        this.cellMinZ = other.cellMinZ.clone();
+        this.cellMaxX = other.cellMaxX.clone();
+        this.cellMaxY = other.cellMaxY.clone();
+        this.cellMaxZ = other.cellMaxZ.clone();
+        this.queryStamp = other.queryStamp.clone();
+        this.freeSlots = other.freeSlots.clone();
+        this.freeCount = other.freeCount;
+        this.slotCount = other.slotCount;
+        this.cellKeys = other.cellKeys.clone();
+        this.cellEntries = new int[other.cellEntries.length][];
+        for (int i = 0; i < cellEntries.length; i++) {
+            if (other.cellEntries[i] != null) {
+                this.cellEntries[i] = other.cellEntries[i].clone();
+            }
+        }
+        this.cellSizes = other.cellSizes.clone();
+        this.cellCount = other.cellCount;
+        this.results = other.results.clone();
+        this.stamp = other.stamp;
+    }
+
+    /**
+     * Inserts or updates the bounds of an entity. The entity is only moved between cells if the range of cells
+     * covered by its bounds changed.
+     *
+     * @param ref  The reference to the entity.
+     * @param minX The minimum x coordinate of the entity's world-space bounds.
+     * @param minY The minimum y coordinate of the entity's world-space bounds.
+     * @param minZ The minimum z coordinate of the entity's world-space bounds.
+     * @param maxX The maximum x coordinate of the entity's world-space bounds.
+     * @param maxY The maximum y coordinate of the entity's world-space bounds.
+     * @param maxZ The maximum z coordinate of the entity's world-space bounds.
+     */
+    public void update(Ref<EntityStore> ref, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        int cx0 = cell(minX), cy0 = cell(minY), cz0 = cell(minZ);
+        int cx1 = cell(maxX), cy1 = cell(maxY), cz1 = cell(maxZ);
+
+        Integer existing = slots.get(ref);
+        int slot;
+        if (existing == null) {
+            slot = allocateSlot();
+            slots.put(ref, slot);
+            refs[slot] = ref;
+            setCells(slot, cx0, cy0, cz0, cx1, cy1, cz1);
+            insertIntoCells(slot);
+        } else {
+            slot = existing;
+            if (cellMinX[slot] != cx0 || cellMinY[slot] != cy0 || cellMinZ[slot] != cz0
+                    || cellMaxX[slot] != cx1 || cellMaxY[slot] != cy1 || cellMaxZ[slot] != cz1) {
+                removeFromCells(slot);
+                setCells(slot, cx0, cy0, cz0, cx1, cy1, cz1);
+                insertIntoCells(slot);
+            }
+        }
+
+        this.minX[slot] = minX;
+        this.minY[slot] = minY;
+        this.minZ[slot] = minZ;
+        this.maxX[slot] = maxX;
+        this.maxY[slot] = maxY;
+        this.maxZ[slot] = maxZ;
+    }
+
+    /**
+     * Removes an entity from the grid.
+     *
+     * @param ref The reference to the entity.
+     */
+    public void remove(Ref<EntityStore> ref) {
+        Integer slot = slots.remove(ref);
+        if (slot == null) {
+            return;
+        }
+        removeFromCells(slot);
+        refs[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Collects all entities whose cells are crossed by a segment. The results are deduplicated and can be read
+     * with {@link #getResult(int)} until the next query.
+     *
+     * @param ox     The x coordinate of the segment origin.
+     * @param oy     The y coordinate of the segment origin.
+     * @param oz     The z coordinate of the segment origin.
+     * @param dx     The x component of the normalized segment direction.
+     * @param dy     The y component of the normalized segment direction.
+     * @param dz     The z component of the normalized segment direction.
+     * @param length The length of the segment.
+     * @return The number of entities found.
+     */
+    public int querySegment(double ox, double oy, double oz, double dx, double dy, double dz, double length) {
+        int count = 0;
+        nextStamp();
+
+        double sx = ox / CELL_SIZE, sy = oy / CELL_SIZE, sz = oz / CELL_SIZE;
+        int x = (int) Math.floor(sx), y = (int) Math.floor(sy), z = (int) Math.floor(sz);
+
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        int stepZ = dz > 0 ? 1 : -1;
+
+        double tDeltaX = dx != 0 ? Math.abs(CELL_SIZE / dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? Math.abs(CELL_SIZE / dy) : Double.POSITIVE_INFINITY;
+        double tDeltaZ = dz != 0 ? Math.abs(CELL_SIZE / dz) : Double.POSITIVE_INFINITY;
+
+        double tMaxX = dx > 0 ? (x + 1 - sx) * tDeltaX : dx < 0 ? (sx - x) * tDeltaX : Double.POSITIVE_INFINITY;
+        double tMaxY = dy > 0 ? (y + 1 - sy) * tDeltaY : dy < 0 ? (sy - y) * tDeltaY : Double.POSITIVE_INFINITY;
+        double tMaxZ = dz > 0 ? (z + 1 - sz) * tDeltaZ : dz < 0 ? (sz - z) * tDeltaZ : Double.POSITIVE_INFINITY;
+
+        double t = 0.0;
+        for (int visited = 0; t <= length && visited < MAX_QUERY_CELLS; visited++) {
+            count = collectCell(x, y, z, count);
+
+            if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+                x += stepX;
+                t = tMaxX;
+                tMaxX += tDeltaX;
+            } else if (tMaxY < tMaxZ) {
+                y += stepY;
+                t = tMaxY;
+                tMaxY += tDeltaY;
+            } else {
+                z += stepZ;
+                t = tMaxZ;
+                tMaxZ += tDeltaZ;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects all entities whose bounds lie at least partly within a sphere. The cells overlapped by the bounding box
+     * of the sphere are visited, and each candidate is then checked against the sphere with its exact bounds. The
+     * results are deduplicated and can be read with {@link #getResult(int)} until the next query.
+     *
+     * <p>The radius is clamped to {@link #MAX_QUERY_RADIUS}, so entities further away are never found. This is
+     * logged, as callers should clamp their radius when they load it.</p>
+     *
+     * @param cx     The x coordinate of the center of the sphere.
+     * @param cy     The y coordinate of the center of the sphere.
+     * @param cz     The z coordinate of the center of the sphere.
+     * @param radius The radius of the sphere.
+     * @return The number of entities found.
+     */
+    public int querySphere(double cx, double cy, double cz, double radius) {
+        int count = 0;
+        nextStamp();
+
+        if (radius > MAX_QUERY_RADIUS) {
+            HFF.get().getLogger().atWarning().log("Sphere query radius " + radius + " exceeds the maximum of " + MAX_QUERY_RADIUS + " blocks");
+            radius = MAX_QUERY_RADIUS;
+        }
+
+        int x0 = cell(cx - radius), y0 = cell(cy - radius), z0 = cell(cz - radius);
+        int x1 = cell(cx + radius), y1 = cell(cy + radius), z1 = cell(cz + radius);
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    count = collectCell(x, y, z, count);
+                }
+            }
+        }
+
+        // Keep only the entities whose bounds actually reach into the sphere
+        double radiusSquared = radius * radius;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = results[i];
+            if (distanceSquared(slot, cx, cy, cz) <= radiusSquared) {
+                results[kept++] = slot;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Returns the squared distance from a point to the bounds of the entity stored in a slot.
+     *
+     * @param slot The slot of the entity.
+     * @param x    The x coordinate of the point.
+     * @param y    The y coordinate of the point.
+     * @param z    The z coordinate of the point.
+     * @return The squared distance, or {@code 0} if the point lies inside the bounds.
+     */
+    public double distanceSquared(int slot, double x, double y, double z) {
+        double dx = Math.max(Math.max(minX[slot] - x, 0.0), x - maxX[slot]);
+        double dy = Math.max(Math.max(minY[slot] - y, 0.0), y - maxY[slot]);
+        double dz = Math.max(Math.max(minZ[slot] - z, 0.0), z - maxZ[slot]);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Writes the center of the bounds of the entity stored in a slot into a vector.
+     *
+     * @param slot The slot of the entity.
+     * @param out  The vector to write to.
+     * @return The given vector.
+     */
+    public Vector3d getCenter(int slot, Vector3d out) {
+        out.x = (minX[slot] + maxX[slot]) * 0.5;
+        out.y = (minY[slot] + maxY[slot]) * 0.5;
+        out.z = (minZ[slot] + maxZ[slot]) * 0.5;
+        return out;
+    }
+
+    /**
+     * Returns the slot of the entity at the given position in the results of the last query.
+     *
+     * @param index The index in the results.
+     * @return The slot of the entity.
+     */
+    public int getResult(int index) {
+        return results[index];
+    }
+
+    /**
+     * Returns the reference to the entity stored in a slot.
+     *
+     * @param slot The slot.
+     * @return The reference to the entity.
+     */
+    public Ref<EntityStore> getRef(int slot) {
+        return refs[slot];
+    }
+
+    /**
+     * Intersects a ray with the bounds of the entity stored in a slot.
+     *
+     * @param slot The slot of the entity.
+     * @param ox   The x coordinate of the ray origin.
+     * @param oy   The y coordinate of the ray origin.
+     * @param oz   The z coordinate of the ray origin.
+     * @param dx   The x component of the ray direction.
+     * @param dy   The y component of the ray direction.
+     * @param dz   The z component of the ray direction.
+     * @param maxT The maximum ray parameter to consider.
+     * @return The ray parameter of the entry point, or {@code -1} if the ray misses the entity.
+     * @see RayMath#intersectAabb
+     */
+    public double intersect(int slot, double ox, double oy, double oz, double dx, double dy, double dz, double maxT) {
+        return RayMath.intersectAabb(ox, oy, oz, dx, dy, dz,
+                minX[slot], minY[slot], minZ[slot],
+                maxX[slot], maxY[slot], maxZ[slot],
+                maxT);
+    }
+
+    /**
+     * Returns the number of entities in the grid.
+     *
+     * @return The number of entities.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Creates a copy of this resource.
+     *
+     * @return A copy of this resource.
+     */
+    @NullableDecl
+    @Override
+    public Resource<EntityStore> clone() {
+        return new EntityGridResource(this);
+    }
+
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) (x & 0x1FFFFF) << 42) | ((long) (y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+    }
+
+    private static int hash(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(queryStamp, 0);
+            stamp = 1;
+        }
+    }
+
+    private int collectCell(int x, int y, int z, int count) {
+        int cell = findCell(key(x, y, z));
+        if (cell < 0) {
+            return count;
+        }
+        int[] entries = cellEntries[cell];
+        for (int i = 0; i < cellSizes[cell]; i++) {
+            int slot = entries[i];
+            if (queryStamp[slot] != stamp) {
+                queryStamp[slot] = stamp;
+                if (count == results.length) {
+                    results = Arrays.copyOf(results, count * 2);
+                }
+                results[count++] = slot;
+            }
+        }
+        return count;
+    }
+
+    private void setCells(int slot, int cx0, int cy0, int cz0, int cx1, int cy1, int cz1) {
+        cellMinX[slot] = cx0;
+        cellMinY[slot] = cy0;
+        cellMinZ[slot] = cz0;
+        cellMaxX[slot] = cx1;
+        cellMaxY[slot] = cy1;
+        cellMaxZ[slot] = cz1;
+    }
+
+    private void insertIntoCells(int slot) {
+        for (int x = cellMinX[slot]; x <= cellMaxX[slot]; x++) {
+            for (int y = cellMinY[slot]; y <= cellMaxY[slot]; y++) {
+                for (int z = cellMinZ[slot]; z <= cellMaxZ[slot]; z++) {
+                    int cell = getOrCreateCell(key(x, y, z));
+                    int size = cellSizes[cell];
+                    if (size == cellEntries[cell].length) {
+                        cellEntries[cell] = Arrays.copyOf(cellEntries[cell], size * 2);
+                    }
+                    cellEntries[cell][size] = slot;
+                    cellSizes[cell] = size + 1;
+                }
+            }
+        }
+    }
+
+    private void removeFromCells(int slot) {
+        for (int x = cellMinX[slot]; x <= cellMaxX[slot]; x++) {
+            for (int y = cellMinY[slot]; y <= cellMaxY[slot]; y++) {
+                for (int z = cellMinZ[slot]; z <= cellMaxZ[slot]; z++) {
+                    int cell = findCell(key(x, y, z));
+                    if (cell < 0) {
+                        continue;
+                    }
+                    int[] entries = cellEntries[cell];
+                    int size = cellSizes[cell];
+                    for (int i = 0; i < size; i++) {
+                        if (entries[i] == slot) {
+                            entries[i] = entries[--size];
+                            cellSizes[cell] = size;
+                            break;
+                        }
+                    }
+                    if (size == 0) {
+                        deleteCell(cell);
+                    }
+                }
+            }
+        }
+    }
+
+    private int findCell(long key) {
+        int mask = cellKeys.length - 1;
+        int i = hash(key, mask);
+        while (cellKeys[i] != EMPTY) {
+            if (cellKeys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int getOrCreateCell(long key) {
+        int mask = cellKeys.length - 1;
+        int i = hash(key, mask);
+        while (cellKeys[i] != EMPTY) {
+            if (cellKeys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if ((cellCount + 1) * 4 > cellKeys.length * 3) {
+            rehash(cellKeys.length * 2);
+            return getOrCreateCell(key);
+        }
+
+        cellKeys[i] = key;
+        cellEntries[i] = new int[4];
+        cellSizes[i] = 0;
+        cellCount++;
+        return i;
+    }
+
+    /**
+     * Deletes an empty cell from the cell table. Later cells of the same probe run are shifted back into the gap, so
+     * the table needs no tombstones and only ever holds cells that contain entities.
+     *
+     * @param cell The index of the cell to delete.
+     */
+    private void deleteCell(int cell) {
+        int mask = cellKeys.length - 1;
+        int gap = cell;
+        int i = cell;
+        while (true) {
+            i = (i + 1) & mask;
+            if (cellKeys[i] == EMPTY) {
+                break;
+            }
+            int home = hash(cellKeys[i], mask);
+            // Leave the cell in place if its home slot lies cyclically between the gap and its current slot
+            boolean reachable = gap <= i ? (gap < home && home <= i) : (gap < home || home <= i);
+            if (reachable) {
+                continue;
+            }
+            cellKeys[gap] = cellKeys[i];
+            cellEntries[gap] = cellEntries[i];
+            cellSizes[gap] = cellSizes[i];
+            gap = i;
+        }
+        cellKeys[gap] = EMPTY;
+        cellEntries[gap] = null;
+        cellSizes[gap] = 0;
+        cellCount--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = cellKeys;
+        int[][] oldEntries = cellEntries;
+        int[] oldSizes = cellSizes;
+
+        cellKeys = new long[capacity];
+        Arrays.fill(cellKeys, EMPTY);
+        cellEntries = new int[capacity][];
+        cellSizes = new int[capacity];
+
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == EMPTY) {
+                continue;
+            }
+            int i = hash(oldKeys[j], mask);
+            while (cellKeys[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            cellKeys[i] = oldKeys[j];
+            cellEntries[i] = oldEntries[j];
+            cellSizes[i] = oldSizes[j];
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == refs.length) {
+            int capacity = slotCount * 2;
+            refs = Arrays.copyOf(refs, capacity);
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            minZ = Arrays.copyOf(minZ, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+            maxZ = Arrays.copyOf(maxZ, capacity);
+            cellMinX = Arrays.copyOf(cellMinX, capacity);
+            cellMinY = Arrays.copyOf(cellMinY, capacity);
+            cellMinZ = Arrays.copyOf(cellMinZ, capacity);
+            cellMaxX = Arrays.copyOf(cellMaxX, capacity);
+            cellMaxY = Arrays.copyOf(cellMaxY, capacity);
+            cellMaxZ = Arrays.copyOf(cellMaxZ, capacity);
+            queryStamp = Arrays.copyOf(queryStamp, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+        }
+        return slotCount++;
+    }
+}
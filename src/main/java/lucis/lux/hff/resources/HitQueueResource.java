@@ -0,0 +1,359 @@
+package lucis.lux.hff.resources;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.data.ShotDescriptor;
+import lucis.lux.hff.enums.HitZone;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code HitQueueResource} class is a per-world resource that collects all firearm hits of a tick, so they can
+ * be resolved in a single batched pass by the {@link lucis.lux.hff.systems.HitResolutionSystem}.
+ *
+ * <p>If {@code CoalescePelletHits} is enabled, pellets of the same shot that hit the same target are coalesced into
+ * a single entry: their damage is summed, their knockback is accumulated into one velocity, the position and
+ * projectile of the first pellet are kept, and the most severe {@link HitZone} (the one with the lowest ordinal) is kept. A shotgun blast that lands twelve pellets on one target therefore applies
+ * damage and knockback once and dispatches a single pair of hit events carrying the pellet count. Separate shots,
+ * even of the same shooter in the same tick, stay separate entries.</p>
+ *
+ * <p>Like the {@link BallisticSimulationResource}, entries are stored in a struct-of-arrays layout and identified by
+ * their index. The knockback of each hit is calculated the same way as in
+ * {@link lucis.lux.hff.util.DamageCalculator#applyDamage}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     hitQueue.add(target, shooter, projectile, shot, finalDamage, zone, hitPosition, flightDirection, knockbackForce);
+ * </pre>
+ */
+public class HitQueueResource implements Resource<EntityStore> {
+
+    /**
+     * The initial capacity of the buffers.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Maps targets to the index of their first entry. Further entries for other shots are chained through {@link #next}.
+     */
+    private final Map<Ref<EntityStore>, Integer> heads;
+
+    /**
+     * The entity that was hit by each entry.
+     */
+    private Ref<EntityStore>[] target;
+
+    /**
+     * The entity that fired each entry.
+     */
+    private Ref<EntityStore>[] shooter;
+
+    /**
+     * The projectile entity of the first hit of each entry, or {@code null} for hitscan and simulated rounds.
+     */
+    private Ref<EntityStore>[] projectile;
+
+    /**
+     * The shot of each entry, or {@code null} if unknown.
+     */
+    private ShotDescriptor[] shot;
+
+    /**
+     * The summed damage of each entry.
+     */
+    private float[] damage;
+
+    /**
+     * The ordinal of the most severe {@link HitZone} hit by each entry.
+     */
+    private byte[] zone;
+
+    /**
+     * The position of the first hit of each entry.
+     */
+    private double[] hitX, hitY, hitZ;
+
+    /**
+     * The accumulated knockback velocity of each entry.
+     */
+    private float[] knockbackX, knockbackY, knockbackZ;
+
+    /**
+     * The number of pellets coalesced into each entry.
+     */
+    private int[] pellets;
+
+    /**
+     * The index of the next entry for the same target, or {@code -1}.
+     */
+    private int[] next;
+
+    /**
+     * The number of entries.
+     */
+    private int size;
+
+    /**
+     * Constructs a new, empty {@code HitQueueResource}.
+     */
+    public HitQueueResource() {
+        this.heads = new HashMap<>();
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@code HitQueueResource} by copying the state from another resource.
+     *
+     * @param other The resource to copy.
+     */
+    public HitQueueResource(HitQueueResource other) {
+        this.heads = new HashMap<>(other.heads);
+        this.target = other.target.clone();
+        this.shooter = other.shooter.clone();
+        this.projectile = other.projectile.clone();
+        this.shot = other.shot.clone();
+        this.damage = other.damage.clone();
+        this.zone = other.zone.clone();
+        this.hitX = other.hitX.clone();
+        this.hitY = other.hitY.clone();
+        this.hitZ = other.hitZ.clone();
+        this.knockbackX = other.knockbackX.clone();
+        this.knockbackY = other.knockbackY.clone();
+        this.knockbackZ = other.knockbackZ.clone();
+        this.pellets = other.pellets.clone();
+        this.next = other.next.clone();
+        this.size = other.size;
+    }
+
+    /**
+     * Queues a hit. If pellet coalescing is enabled and another pellet of the same shot already hit the target
+     * during this tick, the hit is coalesced into that entry.
+     *
+     * @param targetRef      The entity that was hit.
+     * @param shooterRef     The entity that fired the round.
+     * @param projectileRef  The projectile entity, or {@code null} for hitscan and simulated rounds.
+     * @param shotRef        The shot the round belongs to, or {@code null} if unknown.
+     * @param finalDamage    The damage of the hit after falloff and hit zone multipliers.
+     * @param hitZone        The ordinal of the {@link HitZone} that was hit.
+     * @param hitPosition    The position where the target was hit. Only read, never stored.
+     * @param flightDir      The direction the round was travelling in. Does not need to be normalized.
+     * @param knockbackForce The force of the knockback.
+     * @return The index of the entry the hit was added to.
+     */
+    public int add(Ref<EntityStore> targetRef, Ref<EntityStore> shooterRef, Ref<EntityStore> projectileRef, ShotDescriptor shotRef,
+                   float finalDamage, int hitZone, Vector3d hitPosition, Vector3d flightDir, float knockbackForce) {
+        Integer head = heads.get(targetRef);
+        int i = -1;
+        if (shotRef != null && HFF.get().getConfigData().isCoalescePelletHits()) {
+            i = head != null ? head : -1;
+            while (i != -1 && shot[i] != shotRef) {
+                i = next[i];
+            }
+        }
+
+        if (i == -1) {
+            if (size == target.length) {
+                grow(size * 2);
+            }
+
+            i = size++;
+            this.target[i] = targetRef;
+            this.shooter[i] = shooterRef;
+            this.projectile[i] = projectileRef;
+            this.shot[i] = shotRef;
+            this.damage[i] = 0;
+            this.zone[i] = (byte) hitZone;
+            this.hitX[i] = hitPosition.x;
+            this.hitY[i] = hitPosition.y;
+            this.hitZ[i] = hitPosition.z;
+            this.knockbackX[i] = 0;
+            this.knockbackY[i] = 0;
+            this.knockbackZ[i] = 0;
+            this.pellets[i] = 0;
+            this.next[i] = head != null ? head : -1;
+            heads.put(targetRef, i);
+        }
+
+        double length = Math.sqrt(flightDir.x * flightDir.x + flightDir.y * flightDir.y + flightDir.z * flightDir.z);
+        float scale = length > 0 ? (float) (knockbackForce / length) : 0;
+
+        this.damage[i] += finalDamage;
+        this.zone[i] = (byte) Math.min(this.zone[i], hitZone);
+        this.knockbackX[i] += (float) flightDir.x * scale;
+        this.knockbackY[i] += (float) flightDir.y * scale + knockbackForce * 0.2f;
+        this.knockbackZ[i] += (float) flightDir.z * scale;
+        this.pellets[i]++;
+        return i;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the entity that was hit by the entry at the given index.
+     *
+     * @param index The index.
+     * @return The reference to the target.
+     */
+    public Ref<EntityStore> getTarget(int index) {
+        return target[index];
+    }
+
+    /**
+     * Returns the entity that fired the entry at the given index.
+     *
+     * @param index The index.
+     * @return The reference to the shooter.
+     */
+    public Ref<EntityStore> getShooter(int index) {
+        return shooter[index];
+    }
+
+    /**
+     * Returns the projectile entity of the first hit of the entry at the given index.
+     *
+     * @param index The index.
+     * @return The reference to the projectile, or {@code null} for hitscan and simulated rounds.
+     */
+    public Ref<EntityStore> getProjectile(int index) {
+        return projectile[index];
+    }
+
+    /**
+     * Returns the summed damage of the entry at the given index.
+     *
+     * @param index The index.
+     * @return The summed damage.
+     */
+    public float getDamage(int index) {
+        return damage[index];
+    }
+
+    /**
+     * Returns the most severe zone hit by the entry at the given index.
+     *
+     * @param index The index.
+     * @return The hit zone.
+     */
+    public HitZone getHitZone(int index) {
+        return HitZone.of(zone[index]);
+    }
+
+    /**
+     * Returns the shot of the entry at the given index.
+     *
+     * @param index The index.
+     * @return The shot, or {@code null} if unknown.
+     */
+    public ShotDescriptor getShot(int index) {
+        return shot[index];
+    }
+
+    /**
+     * Returns the number of pellets coalesced into the entry at the given index.
+     *
+     * @param index The index.
+     * @return The number of pellets.
+     */
+    public int getPelletCount(int index) {
+        return pellets[index];
+    }
+
+    /**
+     * Writes the position of the first hit of the entry at the given index into a vector.
+     *
+     * @param index The index.
+     * @param out   The vector to write to.
+     * @return The given vector.
+     */
+    public Vector3d getHitPosition(int index, Vector3d out) {
+        out.x = hitX[index];
+        out.y = hitY[index];
+        out.z = hitZ[index];
+        return out;
+    }
+
+    /**
+     * Writes the accumulated knockback velocity of the entry at the given index into a vector.
+     *
+     * @param index The index.
+     * @param out   The vector to write to.
+     * @return The given vector.
+     */
+    public Vector3d getKnockback(int index, Vector3d out) {
+        out.x = knockbackX[index];
+        out.y = knockbackY[index];
+        out.z = knockbackZ[index];
+        return out;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(target, 0, size, null);
+        Arrays.fill(shooter, 0, size, null);
+        Arrays.fill(projectile, 0, size, null);
+        Arrays.fill(shot, 0, size, null);
+        heads.clear();
+        size = 0;
+    }
+
+    /**
+     * Creates a copy of this resource.
+     *
+     * @return A copy of this resource.
+     */
+    @NullableDecl
+    @Override
+    public Resource<EntityStore> clone() {
+        return new HitQueueResource(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        target = new Ref[capacity];
+        shooter = new Ref[capacity];
+        projectile = new Ref[capacity];
+        shot = new ShotDescriptor[capacity];
+        damage = new float[capacity];
+        zone = new byte[capacity];
+        hitX = new double[capacity];
+        hitY = new double[capacity];
+        hitZ = new double[capacity];
+        knockbackX = new float[capacity];
+        knockbackY = new float[capacity];
+        knockbackZ = new float[capacity];
+        pellets = new int[capacity];
+        next = new int[capacity];
+    }
+
+    private void grow(int capacity) {
+        target = Arrays.copyOf(target, capacity);
+        shooter = Arrays.copyOf(shooter, capacity);
+        projectile = Arrays.copyOf(projectile, capacity);
+        shot = Arrays.copyOf(shot, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        zone = Arrays.copyOf(zone, capacity);
+        hitX = Arrays.copyOf(hitX, capacity);
+        hitY = Arrays.copyOf(hitY, capacity);
+        hitZ = Arrays.copyOf(hitZ, capacity);
+        knockbackX = Arrays.copyOf(knockbackX, capacity);
+        knockbackY = Arrays.copyOf(knockbackY, capacity);
+        knockbackZ = Arrays.copyOf(knockbackZ, capacity);
+        pellets = Arrays.copyOf(pellets, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+}
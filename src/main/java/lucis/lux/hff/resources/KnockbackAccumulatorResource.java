@@ -0,0 +1,157 @@
+package lucis.lux.hff.resources;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code KnockbackAccumulatorResource} class is a per-world resource that sums up the knockback of all firearm
+ * hits a target takes during a tick.
+ *
+ * <p>Instead of attaching a knockback to every damage application, the
+ * {@link lucis.lux.hff.systems.HitResolutionSystem} adds the knockback of each resolved hit to the accumulator of the
+ * target. At the end of the tick, the {@link lucis.lux.hff.systems.KnockbackFlushSystem} applies a single velocity
+ * change per target and clears the accumulator, so the number of knockbacks does not depend on the rate of fire, the
+ * number of pellets or the number of shooters.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     knockbackAccumulator.add(targetRef, knockbackX, knockbackY, knockbackZ);
+ * </pre>
+ */
+public class KnockbackAccumulatorResource implements Resource<EntityStore> {
+
+    /**
+     * Maps targets to their index in the accumulator arrays.
+     */
+    private final Map<Ref<EntityStore>, Integer> indices;
+
+    /**
+     * The targets with accumulated knockback.
+     */
+    private Ref<EntityStore>[] refs;
+
+    /**
+     * The accumulated knockback velocity of each target.
+     */
+    private float[] x, y, z;
+
+    /**
+     * The number of targets with accumulated knockback.
+     */
+    private int size;
+
+    /**
+     * Constructs a new, empty {@code KnockbackAccumulatorResource}.
+     */
+    @SuppressWarnings("unchecked")
+    public KnockbackAccumulatorResource() {
+        this.indices = new HashMap<>();
+        this.refs = new Ref[16];
+        this.x = new float[16];
+        this.y = new float[16];
+        this.z = new float[16];
+    }
+
+    /**
+     * Constructs a new {@code KnockbackAccumulatorResource} by copying the state from another resource.
+     *
+     * @param other The resource to copy.
+     */
+    public KnockbackAccumulatorResource(KnockbackAccumulatorResource other) {
+        this.indices = new HashMap<>(other.indices);
+        this.refs = other.refs.clone();
+        this.x = other.x.clone();
+        this.y = other.y.clone();
+        this.z = other.z.clone();
+        this.size = other.size;
+    }
+
+    /**
+     * Adds a knockback velocity to the accumulator of a target.
+     *
+     * @param ref The reference to the target.
+     * @param kbX The x component of the knockback velocity.
+     * @param kbY The y component of the knockback velocity.
+     * @param kbZ The z component of the knockback velocity.
+     */
+    public void add(Ref<EntityStore> ref, double kbX, double kbY, double kbZ) {
+        Integer index = indices.get(ref);
+        if (index == null) {
+            if (size == refs.length) {
+                refs = Arrays.copyOf(refs, size * 2);
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+                z = Arrays.copyOf(z, size * 2);
+            }
+            index = size++;
+            indices.put(ref, index);
+            refs[index] = ref;
+            x[index] = 0;
+            y[index] = 0;
+            z[index] = 0;
+        }
+        x[index] += (float) kbX;
+        y[index] += (float) kbY;
+        z[index] += (float) kbZ;
+    }
+
+    /**
+     * Returns the number of targets with accumulated knockback.
+     *
+     * @return The number of targets.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the target at the given index.
+     *
+     * @param index The index.
+     * @return The reference to the target.
+     */
+    public Ref<EntityStore> getRef(int index) {
+        return refs[index];
+    }
+
+    /**
+     * Writes the accumulated knockback velocity of the target at the given index into a vector.
+     *
+     * @param index The index.
+     * @param out   The vector to write to.
+     * @return The given vector.
+     */
+    public Vector3d getVelocity(int index, Vector3d out) {
+        out.x = x[index];
+        out.y = y[index];
+        out.z = z[index];
+        return out;
+    }
+
+    /**
+     * Clears all accumulated knockback.
+     */
+    public void clear() {
+        Arrays.fill(refs, 0, size, null);
+        indices.clear();
+        size = 0;
+    }
+
+    /**
+     * Creates a copy of this resource.
+     *
+     * @return A copy of this resource.
+     */
+    @NullableDecl
+    @Override
+    public Resource<EntityStore> clone() {
+        return new KnockbackAccumulatorResource(this);
+    }
+}
@@ -0,0 +1,189 @@
+package lucis.lux.hff.resources;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code ProjectileLifetimeResource} class is a per-world resource that keeps track of when HFF projectiles
+ * have to be despawned. It is implemented as a timing wheel: every projectile is placed into the bucket of the
+ * tick in which it expires, so advancing the wheel by one tick only touches the projectiles that actually expire.
+ *
+ * <p>Projectiles whose lifetime exceeds the span of the wheel stay in their bucket until the wheel has come around
+ * often enough for them to expire.</p>
+ *
+ * <p>This resource is filled by the {@link lucis.lux.hff.systems.ProjectileTrackingSystem} and drained by the
+ * {@link lucis.lux.hff.systems.ProjectileLifetimeSystem}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     // Schedule a projectile to be despawned in 100 ticks
+ *     lifetimeResource.schedule(projectileRef, 100);
+ *
+ *     // Advance the wheel by one tick and retrieve the expired projectiles
+ *     List&lt;Ref&lt;EntityStore&gt;&gt; expired = lifetimeResource.advance();
+ * </pre>
+ */
+public class ProjectileLifetimeResource implements Resource<EntityStore> {
+
+    /**
+     * The number of buckets in the wheel. Must be a power of two.
+     */
+    private static final int WHEEL_SIZE = 512;
+
+    /**
+     * The mask used to map a tick onto its bucket.
+     */
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /**
+     * The buckets of the wheel, indexed by the expiry tick modulo {@link #WHEEL_SIZE}.
+     */
+    private final Bucket[] wheel = new Bucket[WHEEL_SIZE];
+
+    /**
+     * A reusable list holding the projectiles that expired during the last call to {@link #advance()}.
+     */
+    private final List<Ref<EntityStore>> expired = new ArrayList<>();
+
+    /**
+     * The tick the wheel is currently at.
+     */
+    private long currentTick = 0;
+
+    /**
+     * Constructs a new, empty {@code ProjectileLifetimeResource}.
+     */
+    public ProjectileLifetimeResource() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Constructs a new {@code ProjectileLifetimeResource} by copying the state from another resource.
+     *
+     * @param other The resource to copy.
+     */
+    public ProjectileLifetimeResource(ProjectileLifetimeResource other) {
+        this.currentTick = other.currentTick;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Bucket(other.wheel[i]);
+        }
+    }
+
+    /**
+     * Returns the tick the wheel is currently at.
+     *
+     * @return The current tick.
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Schedules a projectile to be despawned after the given amount of ticks.
+     *
+     * @param projectile    The reference to the projectile entity.
+     * @param lifetimeTicks The number of ticks the projectile is allowed to live. Values below 1 are treated as 1.
+     */
+    public void schedule(Ref<EntityStore> projectile, long lifetimeTicks) {
+        long expiry = currentTick + Math.max(1, lifetimeTicks);
+        wheel[(int) (expiry & WHEEL_MASK)].add(projectile, expiry);
+    }
+
+    /**
+     * Advances the wheel by one tick and collects all projectiles that expire in the new tick.
+     * The returned list is reused and only valid until the next call.
+     *
+     * @return The projectiles that expired in this tick.
+     */
+    public List<Ref<EntityStore>> advance() {
+        expired.clear();
+        currentTick++;
+        wheel[(int) (currentTick & WHEEL_MASK)].drain(currentTick, expired);
+        return expired;
+    }
+
+    /**
+     * Creates a copy of this resource.
+     *
+     * @return A copy of this resource.
+     */
+    @NullableDecl
+    @Override
+    public Resource<EntityStore> clone() {
+        return new ProjectileLifetimeResource(this);
+    }
+
+    /**
+     * A single bucket of the wheel, storing the projectiles and their expiry ticks in parallel arrays.
+     */
+    private static final class Bucket {
+
+        /**
+         * The projectiles in this bucket.
+         */
+        private Ref<EntityStore>[] refs;
+
+        /**
+         * The expiry tick of each projectile in this bucket.
+         */
+        private long[] expiries;
+
+        /**
+         * The number of projectiles in this bucket.
+         */
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private Bucket() {
+            this.refs = new Ref[8];
+            this.expiries = new long[8];
+        }
+
+        private Bucket(Bucket other) {
+            this.refs = other.refs.clone();
+            this.expiries = other.expiries.clone();
+            this.size = other.size;
+        }
+
+        private void add(Ref<EntityStore> ref, long expiry) {
+            if (size == refs.length) {
+                refs = Arrays.copyOf(refs, size * 2);
+                expiries = Arrays.copyOf(expiries, size * 2);
+            }
+            refs[size] = ref;
+            expiries[size] = expiry;
+            size++;
+        }
+
+        /**
+         * Moves all entries that expire at or before the given tick into the output list and compacts the rest.
+         *
+         * @param tick The current tick.
+         * @param out  The list receiving the expired projectiles.
+         */
+        private void drain(long tick, List<Ref<EntityStore>> out) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (expiries[i] <= tick) {
+                    out.add(refs[i]);
+                } else {
+                    refs[kept] = refs[i];
+                    expiries[kept] = expiries[i];
+                    kept++;
+                }
+            }
+            for (int i = kept; i < size; i++) {
+                refs[i] = null;
+            }
+            size = kept;
+        }
+    }
+}
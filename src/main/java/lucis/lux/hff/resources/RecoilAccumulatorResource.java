@@ -0,0 +1,160 @@
+package lucis.lux.hff.resources;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code RecoilAccumulatorResource} class is a per-world resource that sums up the recoil of all shots a
+ * player fires during a tick.
+ *
+ * <p>Instead of sending one location change per shot, shots add their recoil to the accumulator of the shooter.
+ * At the end of the tick, the {@link lucis.lux.hff.systems.RecoilFlushSystem} sends a single location change per
+ * player and clears the accumulator, so the number of location changes does not depend on the rate of fire or the
+ * number of pellets.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     recoilAccumulator.add(playerRef, horizontalRecoil, verticalRecoil);
+ * </pre>
+ */
+public class RecoilAccumulatorResource implements Resource<EntityStore> {
+
+    /**
+     * Maps players to their index in the accumulator arrays.
+     */
+    private final Map<Ref<EntityStore>, Integer> indices;
+
+    /**
+     * The players with accumulated recoil.
+     */
+    private Ref<EntityStore>[] refs;
+
+    /**
+     * The accumulated horizontal recoil of each player.
+     */
+    private float[] horizontal;
+
+    /**
+     * The accumulated vertical recoil of each player.
+     */
+    private float[] vertical;
+
+    /**
+     * The number of players with accumulated recoil.
+     */
+    private int size;
+
+    /**
+     * Constructs a new, empty {@code RecoilAccumulatorResource}.
+     */
+    @SuppressWarnings("unchecked")
+    public RecoilAccumulatorResource() {
+        this.indices = new HashMap<>();
+        this.refs = new Ref[16];
+        this.horizontal = new float[16];
+        this.vertical = new float[16];
+    }
+
+    /**
+     * Constructs a new {@code RecoilAccumulatorResource} by copying the state from another resource.
+     *
+     * @param other The resource to copy.
+     */
+    public RecoilAccumulatorResource(RecoilAccumulatorResource other) {
+        this.indices = new HashMap<>(other.indices);
+        this.refs = other.refs.clone();
+        this.horizontal = other.horizontal.clone();
+        this.vertical = other.vertical.clone();
+        this.size = other.size;
+    }
+
+    /**
+     * Adds the recoil of a shot to the accumulator of a player.
+     *
+     * @param ref        The reference to the player.
+     * @param horizontal The horizontal recoil of the shot.
+     * @param vertical   The vertical recoil of the shot.
+     */
+    public void add(Ref<EntityStore> ref, float horizontal, float vertical) {
+        Integer index = indices.get(ref);
+        if (index == null) {
+            if (size == refs.length) {
+                refs = Arrays.copyOf(refs, size * 2);
+                this.horizontal = Arrays.copyOf(this.horizontal, size * 2);
+                this.vertical = Arrays.copyOf(this.vertical, size * 2);
+            }
+            index = size++;
+            indices.put(ref, index);
+            refs[index] = ref;
+            this.horizontal[index] = 0;
+            this.vertical[index] = 0;
+        }
+        this.horizontal[index] += horizontal;
+        this.vertical[index] += vertical;
+    }
+
+    /**
+     * Returns the number of players with accumulated recoil.
+     *
+     * @return The number of players.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the player at the given index.
+     *
+     * @param index The index.
+     * @return The reference to the player.
+     */
+    public Ref<EntityStore> getRef(int index) {
+        return refs[index];
+    }
+
+    /**
+     * Returns the accumulated horizontal recoil of the player at the given index.
+     *
+     * @param index The index.
+     * @return The accumulated horizontal recoil.
+     */
+    public float getHorizontal(int index) {
+        return horizontal[index];
+    }
+
+    /**
+     * Returns the accumulated vertical recoil of the player at the given index.
+     *
+     * @param index The index.
+     * @return The accumulated vertical recoil.
+     */
+    public float getVertical(int index) {
+        return vertical[index];
+    }
+
+    /**
+     * Clears all accumulated recoil.
+     */
+    public void clear() {
+        Arrays.fill(refs, 0, size, null);
+        indices.clear();
+        size = 0;
+    }
+
+    /**
+     * Creates a copy of this resource.
+     *
+     * @return A copy of this resource.
+     */
+    @NullableDecl
+    @Override
+    public Resource<EntityStore> clone() {
+        return new RecoilAccumulatorResource(this);
+    }
+}
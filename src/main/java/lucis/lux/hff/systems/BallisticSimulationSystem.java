@@ -0,0 +1,168 @@
+package lucis.lux.hff.systems;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.data.HitboxTable;
+import lucis.lux.hff.data.ShotDescriptor;
+import lucis.lux.hff.resources.BallisticSimulationResource;
+import lucis.lux.hff.util.ExplosionResolver;
+import lucis.lux.hff.util.HitboxResolver;
+import lucis.lux.hff.util.HitscanResolver;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * The {@code BallisticSimulationSystem} class is a {@link TickingSystem} that steps all rounds stored in the
+ * {@link BallisticSimulationResource}.
+ *
+ * <p>Each tick, every round is updated as follows:</p>
+ * <ol>
+ *     <li>Gravity is subtracted from its vertical velocity and drag scales its whole velocity.</li>
+ *     <li>The segment the round travels in this tick is traced against blocks and entities using the
+ *     {@link HitscanResolver}.</li>
+ *     <li>If an entity was hit, damage is applied with the same falloff and hit zones as projectile entities and
+ *     the round is removed. Explosive rounds detonate on the entity or on the block that stops them using the
+ *     {@link ExplosionResolver}.</li>
+ *     <li>Blocks the round has enough penetration power for are passed and reduce its power, which in turn reduces
+ *     its damage. If a block stops the round at a shallow enough angle, it ricochets and loses part of its speed
+ *     and damage.</li>
+ *     <li>If a block stopped the round, the round leaves its maximum range or exceeds the configured
+ *     {@code MaxProjectileLifespan}, the round is removed.</li>
+ * </ol>
+ *
+ * <p>The ECS is only touched when a round hits something, so the cost of a tick is dominated by the segment
+ * traces and grows linearly with the number of rounds in flight.</p>
+ *
+ * @see BallisticSimulationResource
+ */
+public class BallisticSimulationSystem extends TickingSystem<EntityStore> {
+
+    /**
+     * The resource type of the ballistic simulation.
+     */
+    private final ResourceType<EntityStore, BallisticSimulationResource> simulationResourceType;
+
+    /**
+     * Constructs a new {@code BallisticSimulationSystem}.
+     *
+     * @param simulationResourceType The resource type of the ballistic simulation.
+     */
+    public BallisticSimulationSystem(ResourceType<EntityStore, BallisticSimulationResource> simulationResourceType) {
+        this.simulationResourceType = simulationResourceType;
+    }
+
+    /**
+     * Steps all rounds in flight by one tick.
+     *
+     * @param dt          The delta time since the last tick.
+     * @param systemIndex The index of this system.
+     * @param store       The component store.
+     */
+    @Override
+    public void tick(float dt, int systemIndex, @NonNullDecl Store<EntityStore> store) {
+        BallisticSimulationResource sim = store.getResource(simulationResourceType);
+        sim.advanceTick();
+
+        if (sim.size() == 0) {
+            return;
+        }
+
+        long maxLifespanTicks = Long.MAX_VALUE;
+        float lifespan = HFF.get().getConfigData().getMaxProjectileLifespan();
+        if (lifespan > 0) {
+            maxLifespanTicks = (long) Math.ceil(lifespan * store.getExternalData().getWorld().getTps());
+        }
+
+        Vector3d origin = sim.getSegmentOrigin();
+        Vector3d direction = sim.getSegmentDirection();
+        HitscanResolver.Hit hit = sim.getHit();
+        int hits = 0;
+
+        for (int i = 0; i < sim.size(); i++) {
+            // Integrate gravity and drag
+            sim.accelerate(i, dt);
+            sim.getVelocity(i, direction);
+
+            double speed = Math.sqrt(direction.x * direction.x + direction.y * direction.y + direction.z * direction.z);
+            double step = speed * dt;
+
+            if (step > 0) {
+                sim.getPosition(i, origin);
+                direction.x /= speed;
+                direction.y /= speed;
+                direction.z /= speed;
+
+                Ref<EntityStore> shooter = sim.getShooter(i);
+                ShotDescriptor shot = sim.getShot(i);
+                if (HitscanResolver.resolve(shooter, origin, direction, step, sim.getPenetration(i), store, hit)) {
+                    applyHit(sim, i, hit, direction, store);
+                    sim.remove(i--);
+                    hits++;
+                    continue;
+                }
+
+                if (hit.isBlocked()) {
+                    if (shot.isExplosive()) {
+                        ExplosionResolver.detonate(shooter, null, null, shot, sim.getDamage(i), hit.getPosition(), direction, store);
+                        sim.remove(i--);
+                        continue;
+                    }
+                    if (!HitscanResolver.ricochet(hit, direction, shot.getAmmo() != null ? shot.getAmmo().ricochetAngle() : 0.0f)) {
+                        sim.remove(i--);
+                        continue;
+                    }
+
+                    // Continue from the impact point in the reflected direction with reduced speed and damage
+                    double bounceSpeed = speed * HitscanResolver.RICOCHET_ENERGY;
+                    sim.setVelocity(i, direction.x * bounceSpeed, direction.y * bounceSpeed, direction.z * bounceSpeed);
+                    sim.setPosition(i, hit.getPosition());
+                    sim.setDamage(i, sim.getDamage(i) * HitscanResolver.RICOCHET_ENERGY);
+                    sim.setPenetration(i, hit.getPowerAt(hit.getDistance()));
+                } else {
+                    sim.move(i, dt);
+                    sim.setPenetration(i, hit.getPowerAt(step));
+                }
+            }
+
+            if (sim.isExpired(i, maxLifespanTicks)) {
+                sim.remove(i--);
+            }
+        }
+
+        if (hits > 0 && HFF.get().getConfigData().isDebugMode()) {
+            HFF.get().getLogger().atInfo().log("Simulated rounds hit " + hits + " targets, " + sim.size() + " still in flight");
+        }
+    }
+
+    /**
+     * Resolves the zone a simulated round hit and queues its damage on the entity in the {@link lucis.lux.hff.resources.HitQueueResource}.
+     * Explosive rounds detonate instead.
+     *
+     * @param sim       The ballistic simulation.
+     * @param i         The index of the round.
+     * @param hit       The hit result.
+     * @param direction The direction the round was travelling in.
+     * @param store     The component store.
+     */
+    private void applyHit(BallisticSimulationResource sim, int i, HitscanResolver.Hit hit, Vector3d direction, Store<EntityStore> store) {
+        Vector3d hitPosition = hit.getPosition();
+        ShotDescriptor shot = sim.getShot(i);
+        if (shot.isExplosive()) {
+            ExplosionResolver.detonate(sim.getShooter(i), null, hit.getTarget(), shot, sim.getDamage(i), hitPosition, direction, store);
+            return;
+        }
+
+        HitboxTable hitbox = HitboxResolver.getTable(hit.getTarget(), store);
+        int zone = HitboxResolver.resolveZone(hit.getTarget(), hitbox, hitPosition, direction, store);
+        float finalDamage = sim.getDamage(i) * shot.getDamageMultiplier(Math.sqrt(sim.distanceSquaredToOrigin(i, hitPosition)))
+                * shot.getPenetrationMultiplier(hit.getPowerAt(hit.getDistance()))
+                * hitbox.getDamageMultiplier(zone, shot.getArmorPenetration());
+
+        store.getResource(HFF.get().getHitQueueResourceType())
+                .add(hit.getTarget(), sim.getShooter(i), null, shot, finalDamage, zone, hitPosition, direction, shot.getKnockbackForce());
+    }
+}
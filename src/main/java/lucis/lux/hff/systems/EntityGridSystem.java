@@ -0,0 +1,87 @@
+package lucis.lux.hff.systems;
+
+import com.hypixel.hytale.component.*;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.tick.EntityTickingSystem;
+import com.hypixel.hytale.math.shape.Box;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.modules.entity.component.BoundingBox;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.components.DamageComponent;
+import lucis.lux.hff.resources.EntityGridResource;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * The {@code EntityGridSystem} class is an {@link EntityTickingSystem} that keeps the {@link EntityGridResource}
+ * up to date with the bounds of every hittable entity.
+ *
+ * <p>Each tick, the world-space bounds of every entity with a {@link TransformComponent} and a {@link BoundingBox}
+ * are written into the grid. Entities are only moved between cells when they cross a cell border, so the cost of
+ * this system is a constant amount of work per entity.</p>
+ *
+ * <p>HFF projectiles, identified by their {@link DamageComponent}, are not indexed, since rounds never hit each
+ * other.</p>
+ *
+ * @see EntityGridResource
+ * @see EntityGridTrackingSystem
+ */
+public class EntityGridSystem extends EntityTickingSystem<EntityStore> {
+
+    /**
+     * The component type used to exclude HFF projectiles.
+     */
+    private final ComponentType<EntityStore, DamageComponent> damageComponentType;
+
+    /**
+     * The resource type of the entity grid.
+     */
+    private final ResourceType<EntityStore, EntityGridResource> gridResourceType;
+
+    /**
+     * Constructs a new {@code EntityGridSystem}.
+     *
+     * @param damageComponentType The component type used to exclude HFF projectiles.
+     * @param gridResourceType    The resource type of the entity grid.
+     */
+    public EntityGridSystem(ComponentType<EntityStore, DamageComponent> damageComponentType, ResourceType<EntityStore, EntityGridResource> gridResourceType) {
+        this.damageComponentType = damageComponentType;
+        this.gridResourceType = gridResourceType;
+    }
+
+    /**
+     * Writes the current world-space bounds of an entity into the grid.
+     *
+     * @param dt             The delta time since the last tick.
+     * @param i              The index of the entity in the archetype chunk.
+     * @param archetypeChunk The chunk of entities of the same archetype.
+     * @param store          The component store.
+     * @param commandBuffer  The command buffer for applying changes.
+     */
+    @Override
+    public void tick(float dt, int i, @NonNullDecl ArchetypeChunk<EntityStore> archetypeChunk, @NonNullDecl Store<EntityStore> store, @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+        TransformComponent transform = archetypeChunk.getComponent(i, TransformComponent.getComponentType());
+        BoundingBox boundingBox = archetypeChunk.getComponent(i, BoundingBox.getComponentType());
+
+        Vector3d pos = transform.getPosition();
+        Box box = boundingBox.getBoundingBox();
+
+        store.getResource(gridResourceType).update(
+                archetypeChunk.getReferenceTo(i),
+                pos.x + box.getMin().x, pos.y + box.getMin().y, pos.z + box.getMin().z,
+                pos.x + box.getMax().x, pos.y + box.getMax().y, pos.z + box.getMax().z);
+    }
+
+    /**
+     * Defines the query for selecting entities to tick. This system ticks every entity with a
+     * {@link TransformComponent} and a {@link BoundingBox} that is not an HFF projectile.
+     *
+     * @return The query for selecting entities.
+     */
+    @NullableDecl
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.and(TransformComponent.getComponentType(), BoundingBox.getComponentType(), Query.not(damageComponentType));
+    }
+}
@@ -0,0 +1,83 @@
+package lucis.lux.hff.systems;
+
+import com.hypixel.hytale.component.*;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.RefSystem;
+import com.hypixel.hytale.server.core.modules.entity.component.BoundingBox;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.components.DamageComponent;
+import lucis.lux.hff.resources.EntityGridResource;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * The {@code EntityGridTrackingSystem} class is a {@link RefSystem} that removes entities from the
+ * {@link EntityGridResource} as soon as they leave the world, so the grid never hands out stale references.
+ *
+ * <p>Entities are inserted by the {@link EntityGridSystem} on their first tick, so nothing has to be done when an
+ * entity is added.</p>
+ *
+ * @see EntityGridSystem
+ * @see EntityGridResource
+ */
+public class EntityGridTrackingSystem extends RefSystem<EntityStore> {
+
+    /**
+     * The component type used to exclude HFF projectiles.
+     */
+    private final ComponentType<EntityStore, DamageComponent> damageComponentType;
+
+    /**
+     * The resource type of the entity grid.
+     */
+    private final ResourceType<EntityStore, EntityGridResource> gridResourceType;
+
+    /**
+     * Constructs a new {@code EntityGridTrackingSystem}.
+     *
+     * @param damageComponentType The component type used to exclude HFF projectiles.
+     * @param gridResourceType    The resource type of the entity grid.
+     */
+    public EntityGridTrackingSystem(ComponentType<EntityStore, DamageComponent> damageComponentType, ResourceType<EntityStore, EntityGridResource> gridResourceType) {
+        this.damageComponentType = damageComponentType;
+        this.gridResourceType = gridResourceType;
+    }
+
+    /**
+     * Called when a hittable entity is added to the store. The entity is inserted on its first tick.
+     *
+     * @param ref           The reference to the entity.
+     * @param addReason     The reason the entity was added.
+     * @param store         The component store.
+     * @param commandBuffer The command buffer for applying changes.
+     */
+    @Override
+    public void onEntityAdded(@NonNullDecl Ref<EntityStore> ref, @NonNullDecl AddReason addReason, @NonNullDecl Store<EntityStore> store, @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+    }
+
+    /**
+     * Called when a hittable entity is removed from the store. Removes the entity from the grid.
+     *
+     * @param ref           The reference to the entity.
+     * @param removeReason  The reason the entity was removed.
+     * @param store         The component store.
+     * @param commandBuffer The command buffer for applying changes.
+     */
+    @Override
+    public void onEntityRemove(@NonNullDecl Ref<EntityStore> ref, @NonNullDecl RemoveReason removeReason, @NonNullDecl Store<EntityStore> store, @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+        store.getResource(gridResourceType).remove(ref);
+    }
+
+    /**
+     * Defines the query for selecting entities. This system reacts to the same entities that are indexed by the
+     * {@link EntityGridSystem}.
+     *
+     * @return The query for selecting entities.
+     */
+    @NullableDecl
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.and(TransformComponent.getComponentType(), BoundingBox.getComponentType(), Query.not(damageComponentType));
+    }
+}
@@ -0,0 +1,129 @@
+package lucis.lux.hff.systems;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.modules.entity.damage.Damage;
+import com.hypixel.hytale.server.core.modules.entity.damage.DamageCause;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.enums.HitZone;
+import lucis.lux.hff.events.FirearmHitEvent;
+import lucis.lux.hff.events.HFFEvents;
+import lucis.lux.hff.resources.HitQueueResource;
+import lucis.lux.hff.resources.KnockbackAccumulatorResource;
+import lucis.lux.hff.util.DamageCalculator;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * The {@code HitResolutionSystem} class is a {@link TickingSystem} that resolves all hits collected in the
+ * {@link HitQueueResource} once per tick.
+ *
+ * <p>For every entry in the queue, which holds the coalesced pellets of one shot on one target, the system:</p>
+ * <ol>
+ *     <li>Dispatches a {@link FirearmHitEvent.Pre} event carrying the pellet count, which can cancel the hits or
+ *     change their summed damage.</li>
+ *     <li>Applies the summed damage to the target in a single damage application.</li>
+ *     <li>Adds the accumulated knockback of the entry to the {@link KnockbackAccumulatorResource}, which applies one
+ *     knockback per target at the end of the tick, no matter how many shots hit it. If Hytale cancelled the damage,
+ *     for example because the target is invulnerable or PvP is disabled, no knockback is added.</li>
+ *     <li>Dispatches a {@link FirearmHitEvent.Post} event.</li>
+ * </ol>
+ *
+ * <p>The {@code Projectile} damage cause is looked up and the {@link HFFEvents} handles are checked for listeners once
+ * per tick instead of once per hit. The queue is cleared afterwards.</p>
+ *
+ * @see HitQueueResource
+ */
+public class HitResolutionSystem extends TickingSystem<EntityStore> {
+
+    /**
+     * The resource type of the hit queue.
+     */
+    private final ResourceType<EntityStore, HitQueueResource> hitQueueResourceType;
+
+    /**
+     * The resource type of the knockback accumulator.
+     */
+    private final ResourceType<EntityStore, KnockbackAccumulatorResource> knockbackResourceType;
+
+    /**
+     * Constructs a new {@code HitResolutionSystem}.
+     *
+     * @param hitQueueResourceType  The resource type of the hit queue.
+     * @param knockbackResourceType The resource type of the knockback accumulator.
+     */
+    public HitResolutionSystem(ResourceType<EntityStore, HitQueueResource> hitQueueResourceType,
+                               ResourceType<EntityStore, KnockbackAccumulatorResource> knockbackResourceType) {
+        this.hitQueueResourceType = hitQueueResourceType;
+        this.knockbackResourceType = knockbackResourceType;
+    }
+
+    /**
+     * Resolves all queued hits and clears the queue.
+     *
+     * @param dt          The delta time since the last tick.
+     * @param systemIndex The index of this system.
+     * @param store       The component store.
+     */
+    @Override
+    public void tick(float dt, int systemIndex, @NonNullDecl Store<EntityStore> store) {
+        HitQueueResource queue = store.getResource(hitQueueResourceType);
+        if (queue.size() == 0) {
+            return;
+        }
+
+        DamageCause cause = DamageCause.getAssetMap().getAsset("Projectile");
+        boolean preListened = HFFEvents.HIT_PRE.hasListener();
+        boolean postListened = HFFEvents.HIT_POST.hasListener();
+        boolean debug = HFF.get().getConfigData().isDebugMode();
+        KnockbackAccumulatorResource knockback = store.getResource(knockbackResourceType);
+        Vector3d hitPosition = new Vector3d();
+        Vector3d kbVelocity = new Vector3d();
+
+        for (int i = 0; i < queue.size(); i++) {
+            Ref<EntityStore> target = queue.getTarget(i);
+            if (!target.isValid()) {
+                continue;
+            }
+
+            Ref<EntityStore> shooter = queue.getShooter(i);
+            Ref<EntityStore> projectile = queue.getProjectile(i);
+            float finalDamage = queue.getDamage(i);
+            int pelletCount = queue.getPelletCount(i);
+            HitZone hitZone = queue.getHitZone(i);
+
+            if (preListened) {
+                FirearmHitEvent.Pre pre = HFFEvents.HIT_PRE.dispatch(new FirearmHitEvent.Pre(target, shooter, projectile, finalDamage, pelletCount, hitZone));
+
+                if (pre.isCancelled()) {
+                    continue;
+                }
+                finalDamage = pre.getFinalDamage();
+            }
+
+            Damage.Source source = projectile != null && projectile.isValid()
+                    ? new Damage.ProjectileSource(shooter, projectile)
+                    : new Damage.EntitySource(shooter);
+
+            boolean applied = DamageCalculator.applyDamage(target, source, cause, finalDamage, queue.getHitPosition(i, hitPosition), null, store);
+
+            // Knockback is applied outside of Hytale's damage pipeline, so it must respect its decision
+            if (applied) {
+                queue.getKnockback(i, kbVelocity);
+                knockback.add(target, kbVelocity.x, kbVelocity.y, kbVelocity.z);
+            }
+
+            if (postListened) {
+                HFFEvents.HIT_POST.dispatch(new FirearmHitEvent.Post(target, shooter, projectile, finalDamage, pelletCount, hitZone));
+            }
+        }
+
+        if (debug) {
+            HFF.get().getLogger().atInfo().log("Resolved " + queue.size() + " batched hits");
+        }
+        queue.clear();
+    }
+}
@@ -0,0 +1,83 @@
+package lucis.lux.hff.systems;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.protocol.ChangeVelocityType;
+import com.hypixel.hytale.server.core.entity.knockback.KnockbackComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.resources.KnockbackAccumulatorResource;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * The {@code KnockbackFlushSystem} class is a {@link TickingSystem} that applies the knockback accumulated in the
+ * {@link KnockbackAccumulatorResource} once per tick.
+ *
+ * <p>For every target that was hit during the tick, a single {@link KnockbackComponent} carrying the summed velocity
+ * is put on the target, which Hytale's knockback systems turn into one velocity change. If the target already has a
+ * knockback that adds to its velocity, for example from a melee hit in the same tick, the firearm knockback is added
+ * to it instead. The accumulator is cleared afterwards.</p>
+ *
+ * <p>Only hits whose damage was not cancelled by Hytale's damage systems are accumulated by the
+ * {@link HitResolutionSystem}, so a target that ignores the damage, such as an invulnerable player, is not pushed
+ * either.</p>
+ *
+ * @see KnockbackAccumulatorResource
+ */
+public class KnockbackFlushSystem extends TickingSystem<EntityStore> {
+
+    /**
+     * The resource type of the knockback accumulator.
+     */
+    private final ResourceType<EntityStore, KnockbackAccumulatorResource> knockbackResourceType;
+
+    /**
+     * Constructs a new {@code KnockbackFlushSystem}.
+     *
+     * @param knockbackResourceType The resource type of the knockback accumulator.
+     */
+    public KnockbackFlushSystem(ResourceType<EntityStore, KnockbackAccumulatorResource> knockbackResourceType) {
+        this.knockbackResourceType = knockbackResourceType;
+    }
+
+    /**
+     * Applies one knockback per target with accumulated knockback and clears the accumulator.
+     *
+     * @param dt          The delta time since the last tick.
+     * @param systemIndex The index of this system.
+     * @param store       The component store.
+     */
+    @Override
+    public void tick(float dt, int systemIndex, @NonNullDecl Store<EntityStore> store) {
+        KnockbackAccumulatorResource knockback = store.getResource(knockbackResourceType);
+        if (knockback.size() == 0) {
+            return;
+        }
+
+        for (int i = 0; i < knockback.size(); i++) {
+            Ref<EntityStore> ref = knockback.getRef(i);
+            if (!ref.isValid()) {
+                continue;
+            }
+
+            Vector3d velocity = knockback.getVelocity(i, new Vector3d());
+
+            KnockbackComponent existing = store.getComponent(ref, KnockbackComponent.getComponentType());
+            if (existing != null && existing.getVelocityType() == ChangeVelocityType.Add && existing.getVelocity() != null) {
+                existing.getVelocity().x += velocity.x;
+                existing.getVelocity().y += velocity.y;
+                existing.getVelocity().z += velocity.z;
+                continue;
+            }
+
+            KnockbackComponent component = new KnockbackComponent();
+            component.setVelocity(velocity);
+            component.setVelocityType(ChangeVelocityType.Add);
+            component.setDuration(0.0f);
+            store.putComponent(ref, KnockbackComponent.getComponentType(), component);
+        }
+        knockback.clear();
+    }
+}
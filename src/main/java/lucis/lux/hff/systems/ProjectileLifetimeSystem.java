@@ -0,0 +1,67 @@
+package lucis.lux.hff.systems;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.RemoveReason;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.resources.ProjectileLifetimeResource;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import java.util.List;
+
+/**
+ * The {@code ProjectileLifetimeSystem} class is a {@link TickingSystem} that despawns HFF projectiles once they
+ * have exceeded their lifespan or their maximum range.
+ *
+ * <p>Each tick, the system advances the {@link ProjectileLifetimeResource} by one tick and removes every projectile
+ * that expires in that tick. Projectiles that already hit something and were despawned by their interactions are
+ * skipped, because their references are no longer valid.</p>
+ *
+ * <p>Since the lifetime wheel only hands out the expired projectiles, the cost of this system is proportional to
+ * the number of projectiles that expire, not to the number of projectiles in flight.</p>
+ *
+ * @see ProjectileTrackingSystem
+ * @see ProjectileLifetimeResource
+ */
+public class ProjectileLifetimeSystem extends TickingSystem<EntityStore> {
+
+    /**
+     * The resource type of the lifetime wheel.
+     */
+    private final ResourceType<EntityStore, ProjectileLifetimeResource> lifetimeResourceType;
+
+    /**
+     * Constructs a new {@code ProjectileLifetimeSystem}.
+     *
+     * @param lifetimeResourceType The resource type of the lifetime wheel.
+     */
+    public ProjectileLifetimeSystem(ResourceType<EntityStore, ProjectileLifetimeResource> lifetimeResourceType) {
+        this.lifetimeResourceType = lifetimeResourceType;
+    }
+
+    /**
+     * Advances the lifetime wheel and removes all expired projectiles.
+     *
+     * @param dt          The delta time since the last tick.
+     * @param systemIndex The index of this system.
+     * @param store       The component store.
+     */
+    @Override
+    public void tick(float dt, int systemIndex, @NonNullDecl Store<EntityStore> store) {
+        List<Ref<EntityStore>> expired = store.getResource(lifetimeResourceType).advance();
+
+        for (int i = 0; i < expired.size(); i++) {
+            Ref<EntityStore> ref = expired.get(i);
+            if (ref.isValid()) {
+                store.removeEntity(ref, RemoveReason.REMOVE);
+            }
+        }
+
+        if (!expired.isEmpty() && HFF.get().getConfigData().isDebugMode()) {
+            HFF.get().getLogger().atInfo().log("Despawned " + expired.size() + " expired projectiles");
+        }
+    }
+}
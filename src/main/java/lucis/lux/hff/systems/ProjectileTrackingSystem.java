@@ -0,0 +1,110 @@
+package lucis.lux.hff.systems;
+
+import com.hypixel.hytale.component.*;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.RefSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.components.DamageComponent;
+import lucis.lux.hff.resources.ProjectileLifetimeResource;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * The {@code ProjectileTrackingSystem} class is a {@link RefSystem} that schedules every HFF projectile
+ * in the {@link ProjectileLifetimeResource} as soon as it enters the world.
+ *
+ * <p>The lifetime of a projectile is the shorter of:</p>
+ * <ul>
+ *     <li>The configured maximum projectile lifespan ({@code MaxProjectileLifespan}).</li>
+ *     <li>The time the projectile needs to travel its {@link DamageComponent#getMaxRange()} at its launch speed.</li>
+ * </ul>
+ *
+ * <p>Projectiles are identified by their {@link DamageComponent}. Scheduling happens once per projectile, so the
+ * per-tick cost of the {@link ProjectileLifetimeSystem} only depends on the number of projectiles that expire.</p>
+ *
+ * @see ProjectileLifetimeSystem
+ * @see ProjectileLifetimeResource
+ */
+public class ProjectileTrackingSystem extends RefSystem<EntityStore> {
+
+    /**
+     * The component type used to identify HFF projectiles.
+     */
+    private final ComponentType<EntityStore, DamageComponent> damageComponentType;
+
+    /**
+     * The resource type of the lifetime wheel.
+     */
+    private final ResourceType<EntityStore, ProjectileLifetimeResource> lifetimeResourceType;
+
+    /**
+     * Constructs a new {@code ProjectileTrackingSystem}.
+     *
+     * @param damageComponentType  The component type used to identify HFF projectiles.
+     * @param lifetimeResourceType The resource type of the lifetime wheel.
+     */
+    public ProjectileTrackingSystem(ComponentType<EntityStore, DamageComponent> damageComponentType, ResourceType<EntityStore, ProjectileLifetimeResource> lifetimeResourceType) {
+        this.damageComponentType = damageComponentType;
+        this.lifetimeResourceType = lifetimeResourceType;
+    }
+
+    /**
+     * Called when a projectile with a {@link DamageComponent} is added to the store. Computes the lifetime
+     * of the projectile in ticks and schedules it in the lifetime wheel.
+     *
+     * @param ref           The reference to the projectile.
+     * @param addReason     The reason the entity was added.
+     * @param store         The component store.
+     * @param commandBuffer The command buffer for applying changes.
+     */
+    @Override
+    public void onEntityAdded(@NonNullDecl Ref<EntityStore> ref, @NonNullDecl AddReason addReason, @NonNullDecl Store<EntityStore> store, @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+        DamageComponent damage = store.getComponent(ref, damageComponentType);
+        if (damage == null) {
+            return;
+        }
+
+        double lifespan = HFF.get().getConfigData().getMaxProjectileLifespan();
+        if (lifespan <= 0) {
+            lifespan = Double.MAX_VALUE;
+        }
+
+        double speed = damage.getFlightDirection().length();
+        if (speed > 0 && damage.getMaxRange() > 0) {
+            lifespan = Math.min(lifespan, damage.getMaxRange() / speed);
+        }
+
+        if (lifespan == Double.MAX_VALUE) {
+            return;
+        }
+
+        float tps = store.getExternalData().getWorld().getTps();
+        store.getResource(lifetimeResourceType).schedule(ref, (long) Math.ceil(lifespan * tps));
+    }
+
+    /**
+     * Called when a projectile is removed from the store. Expired entries are validated when the wheel reaches
+     * them, so nothing has to be done here.
+     *
+     * @param ref           The reference to the projectile.
+     * @param removeReason  The reason the entity was removed.
+     * @param store         The component store.
+     * @param commandBuffer The command buffer for applying changes.
+     */
+    @Override
+    public void onEntityRemove(@NonNullDecl Ref<EntityStore> ref, @NonNullDecl RemoveReason removeReason, @NonNullDecl Store<EntityStore> store, @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+    }
+
+    /**
+     * Defines the query for selecting entities. This system only reacts to entities that have a
+     * {@link DamageComponent}.
+     *
+     * @return The query for selecting entities.
+     */
+    @NullableDecl
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.and(damageComponentType);
+    }
+}
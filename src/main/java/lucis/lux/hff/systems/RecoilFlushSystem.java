@@ -0,0 +1,66 @@
+package lucis.lux.hff.systems;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.resources.RecoilAccumulatorResource;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * The {@code RecoilFlushSystem} class is a {@link TickingSystem} that applies the recoil accumulated in the
+ * {@link RecoilAccumulatorResource} once per tick.
+ *
+ * <p>For every player that fired during the tick, a single location change is sent, scaled by the configured
+ * {@code GlobalRecoilMultiplier}. The accumulator is cleared afterwards.</p>
+ *
+ * @see RecoilAccumulatorResource
+ */
+public class RecoilFlushSystem extends TickingSystem<EntityStore> {
+
+    /**
+     * The resource type of the recoil accumulator.
+     */
+    private final ResourceType<EntityStore, RecoilAccumulatorResource> recoilResourceType;
+
+    /**
+     * Constructs a new {@code RecoilFlushSystem}.
+     *
+     * @param recoilResourceType The resource type of the recoil accumulator.
+     */
+    public RecoilFlushSystem(ResourceType<EntityStore, RecoilAccumulatorResource> recoilResourceType) {
+        this.recoilResourceType = recoilResourceType;
+    }
+
+    /**
+     * Sends one location change per player with accumulated recoil and clears the accumulator.
+     *
+     * @param dt          The delta time since the last tick.
+     * @param systemIndex The index of this system.
+     * @param store       The component store.
+     */
+    @Override
+    public void tick(float dt, int systemIndex, @NonNullDecl Store<EntityStore> store) {
+        RecoilAccumulatorResource recoil = store.getResource(recoilResourceType);
+        if (recoil.size() == 0) {
+            return;
+        }
+
+        float multiplier = HFF.get().getConfigData().getGlobalRecoilMultiplier();
+        for (int i = 0; i < recoil.size(); i++) {
+            Ref<EntityStore> ref = recoil.getRef(i);
+            if (!ref.isValid()) {
+                continue;
+            }
+
+            Player player = store.getComponent(ref, Player.getComponentType());
+            if (player != null) {
+                player.addLocationChange(ref, recoil.getHorizontal(i) * multiplier, recoil.getVertical(i) * multiplier, 0, store);
+            }
+        }
+        recoil.clear();
+    }
+}
@@ -0,0 +1,78 @@
+package lucis.lux.hff.systems;
+
+import com.hypixel.hytale.component.*;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.RefSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.components.ReloadingComponent;
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * The {@code ReloadCleanupSystem} class is a {@link RefSystem} that removes the {@link ReloadingComponent} of
+ * entities loaded from storage.
+ *
+ * <p>A reload only lives as long as the {@link ReloadSystem} ticks it. Everything it needs, such as the firearm and
+ * the pending slots, is transient, so a component loaded from a save, including one written by an older version,
+ * describes no reload at all. Removing it on load makes the next reload press start a reload instead of cancelling
+ * the stale one. Nothing is lost, as the items of a reload are only taken once it completes.</p>
+ *
+ * @see ReloadSystem
+ * @see ReloadingComponent
+ */
+public class ReloadCleanupSystem extends RefSystem<EntityStore> {
+
+    /**
+     * The component type of the reloading state.
+     */
+    private final ComponentType<EntityStore, ReloadingComponent> reloadingComponentType;
+
+    /**
+     * Constructs a new {@code ReloadCleanupSystem}.
+     *
+     * @param reloadingComponentType The component type of the reloading state.
+     */
+    public ReloadCleanupSystem(ComponentType<EntityStore, ReloadingComponent> reloadingComponentType) {
+        this.reloadingComponentType = reloadingComponentType;
+    }
+
+    /**
+     * Called when an entity with a {@link ReloadingComponent} is added to the store. Removes the component if the
+     * entity was loaded from storage.
+     *
+     * @param ref           The reference to the entity.
+     * @param addReason     The reason the entity was added.
+     * @param store         The component store.
+     * @param commandBuffer The command buffer for applying changes.
+     */
+    @Override
+    public void onEntityAdded(@NonNullDecl Ref<EntityStore> ref, @NonNullDecl AddReason addReason, @NonNullDecl Store<EntityStore> store, @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+        if (addReason == AddReason.LOAD) {
+            commandBuffer.removeComponent(ref, reloadingComponentType);
+        }
+    }
+
+    /**
+     * Called when an entity with a {@link ReloadingComponent} is removed from the store. Nothing has to be done.
+     *
+     * @param ref           The reference to the entity.
+     * @param removeReason  The reason the entity was removed.
+     * @param store         The component store.
+     * @param commandBuffer The command buffer for applying changes.
+     */
+    @Override
+    public void onEntityRemove(@NonNullDecl Ref<EntityStore> ref, @NonNullDecl RemoveReason removeReason, @NonNullDecl Store<EntityStore> store, @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+    }
+
+    /**
+     * Defines the query for selecting entities. This system only reacts to entities with a
+     * {@link ReloadingComponent}.
+     *
+     * @return The query for selecting entities.
+     */
+    @NullableDecl
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.and(reloadingComponentType);
+    }
+}
@@ -1,30 +1,50 @@
 package lucis.lux.hff.systems;
 
+import com.hypixel.hytale.codec.Codec;
 import com.hypixel.hytale.component.*;
 import com.hypixel.hytale.component.query.Query;
 import com.hypixel.hytale.component.system.tick.EntityTickingSystem;
+import com.hypixel.hytale.math.vector.Vector3f;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.entity.movement.MovementStatesComponent;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.inventory.transaction.ItemStackTransaction;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.modules.entity.item.ItemComponent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import lucis.lux.hff.HFF;
 import lucis.lux.hff.components.ReloadingComponent;
+import lucis.lux.hff.data.FirearmState;
+import lucis.lux.hff.data.MagazineIndex;
+import lucis.lux.hff.data.registry.Registries;
+import lucis.lux.hff.events.HFFEvents;
+import lucis.lux.hff.events.ReloadEvent;
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
+import java.util.UUID;
+
 /**
- * The {@code ReloadSystem} class is an {@link EntityTickingSystem} responsible for monitoring and managing
- * the reloading process of a firearm in real-time. This system checks, for player movement
- * and interrupts the reloading process if necessary.
+ * The {@code ReloadSystem} class is an {@link EntityTickingSystem} that drives the reloading process of a firearm
+ * in real-time.
  *
  * <p>This system performs the following tasks during each tick:
  * <ul>
- *     <li>Checks if the player is moving (sprinting or jumping) using the {@link MovementStatesComponent}.</li>
- *     <li>Interrupts the reloading process if the player moves.</li>
+ *     <li>Interrupts the reload if the player is moving (sprinting or jumping), using the {@link MovementStatesComponent}.</li>
+ *     <li>Advances the reload and, once its duration has elapsed, takes the pending rounds or the pending magazine
+ *     out of their slots and loads them into the {@link FirearmState}. Items that have left their slots in the
+ *     meantime are skipped. An interrupted reload leaves the items where they are.</li>
+ *     <li>Dispatches a {@link ReloadEvent.Post} event once the reload completes or is interrupted.</li>
  * </ul></p>
  *
  * <p>The system is designed to work within the Entity Component System (ECS) architecture of Hytale
- * and is registered during plugin initialization. It only ticks entities that have a {@link ReloadingComponent}.</p>
+ * and is registered during plugin initialization. It only ticks entities that have a {@link ReloadingComponent}.
+ * The component is added by the {@link lucis.lux.hff.interactions.ReloadInteraction} when a reload starts and
+ * removed by this system when it ends, so the cost of the system scales with the number of concurrent reloads
+ * rather than with the number of players. Because it runs on the world thread, all changes to the firearm's state
+ * are committed there.</p>
  *
  * <p>This system is part of the HFF (Hytale Firearm Framework) plugin and is used in conjunction with
  * the {@link ReloadingComponent} to provide realistic firearm reloading mechanics.</p>
@@ -49,15 +69,15 @@ public class ReloadSystem extends EntityTickingSystem<EntityStore> {
     }
 
     /**
-     * Ticks the system for each entity with a {@link ReloadingComponent}. This method checks if the player
-     * is moving and interrupts the reloading process if necessary.
+     * Ticks the system for each entity with a {@link ReloadingComponent}.
      *
      * <p>The following steps are performed during each tick:</p>
      * <ol>
      *     <li>Retrieves the {@link ReloadingComponent} for the entity.</li>
-     *     <li>Gets the player reference and checks if it is valid.</li>
-     *     <li>Gets the player's {@link MovementStatesComponent} to check for movement.</li>
-     *     <li>If the player is moving (sprinting or jumping), the reloading process is interrupted.</li>
+     *     <li>Ends the reload if it was interrupted elsewhere, for example by shooting.</li>
+     *     <li>Gets the player's {@link MovementStatesComponent} and interrupts the reload if the player is moving.</li>
+     *     <li>Advances the reload and completes it once its duration has elapsed.</li>
+     *     <li>Removes the {@link ReloadingComponent} once the reload has completed or was interrupted.</li>
      * </ol>
      *
      * @param v              The delta time since the last tick.
@@ -77,15 +97,189 @@ public class ReloadSystem extends EntityTickingSystem<EntityStore> {
             return;
         }
 
-        Player player = (Player) commandBuffer.getComponent(ref, Player.getComponentType());
+        if (!reloading.isReloading()) {
+            interrupt(ref, reloading, commandBuffer, "Reload interrupted");
+            return;
+        }
 
         MovementStatesComponent movementState = (MovementStatesComponent) store.getComponent(ref, MovementStatesComponent.getComponentType());
 
-        if (movementState != null && (movementState.getMovementStates().jumping || movementState.getMovementStates().sprinting) && reloading.isReloading()) {
-            reloading.setReloading(false);
-            if (HFF.get().getConfigData().isDebugMode()) {
-                player.sendMessage(Message.raw("Reload interrupted: player sprinted or jumped"));
+        if (movementState != null && (movementState.getMovementStates().jumping || movementState.getMovementStates().sprinting)) {
+            interrupt(ref, reloading, commandBuffer, "Reload interrupted: player sprinted or jumped");
+            return;
+        }
+
+        if (reloading.advance(v)) {
+            complete(ref, reloading, commandBuffer);
+        }
+    }
+
+    /**
+     * Completes a reload by taking the pending rounds or the pending magazine out of the player's inventory and
+     * loading them into the firearm. A previously inserted magazine is returned to the player's storage, or dropped
+     * at the player's feet if the storage is full. The reload fails if none of the pending items are still in their
+     * slots.
+     *
+     * @param ref           The reference to the reloading player.
+     * @param reloading     The reloading component of the player.
+     * @param commandBuffer The command buffer for applying changes.
+     */
+    private void complete(Ref<EntityStore> ref, ReloadingComponent reloading, CommandBuffer<EntityStore> commandBuffer) {
+        Player player = commandBuffer.getComponent(ref, Player.getComponentType());
+        FirearmState state = reloading.getWeaponUuid() != null ? Registries.FIREARM_STATES.get(reloading.getWeaponUuid()) : null;
+
+        if (state == null || player == null) {
+            interrupt(ref, reloading, commandBuffer, "Reload failed: firearm state or player not found");
+            return;
+        }
+
+        int loaded = loadPendingRounds(reloading, state);
+        boolean inserted = reloading.getPendingMagazineName() != null && insertPendingMagazine(ref, player, reloading, state, commandBuffer);
+
+        if (loaded == 0 && !inserted) {
+            interrupt(ref, reloading, commandBuffer, "Reload failed: the items have left the inventory");
+            return;
+        }
+
+        Registries.FIREARM_STATES.update(reloading.getWeaponUuid(), state);
+
+        if (HFF.get().getConfigData().isDebugMode()) {
+            player.sendMessage(Message.raw("Reload complete"));
+        }
+
+        dispatchPost(player, reloading, true);
+        reloading.reset();
+        commandBuffer.removeComponent(ref, reloadingComponentType);
+    }
+
+    /**
+     * Takes the pending rounds out of their slots and loads them into the firearm. A slot only gives up as many
+     * rounds as it still holds, and no more rounds are taken than the firearm has room for.
+     *
+     * @param reloading The reloading component of the player.
+     * @param state     The state of the firearm.
+     * @return The number of rounds loaded.
+     */
+    private int loadPendingRounds(ReloadingComponent reloading, FirearmState state) {
+        int room = reloading.getStats().projectileCapacity() - state.getCurrentAmmoCount();
+        int loaded = 0;
+
+        for (int t = 0; t < reloading.getPendingSources() && loaded < room; t++) {
+            ItemContainer container = reloading.getPendingContainer(t);
+            short slot = reloading.getPendingSlot(t);
+            String ammoId = reloading.getPendingAmmoId(t);
+
+            ItemStack stack = container.getItemStack(slot);
+            if (stack == null || !ammoId.equals(stack.getItemId())) {
+                continue;
+            }
+
+            int count = Math.min(Math.min(reloading.getPendingCount(t), stack.getQuantity()), room - loaded);
+            if (count <= 0) {
+                continue;
             }
+
+            container.removeItemStackFromSlot(slot, count);
+            state.loadProjectiles(ammoId, count);
+            loaded += count;
+        }
+        return loaded;
+    }
+
+    /**
+     * Takes the pending magazine out of its slot and inserts it into the firearm. The previously inserted magazine
+     * is handed back to the player.
+     *
+     * @param ref           The reference to the reloading player.
+     * @param player        The reloading player.
+     * @param reloading     The reloading component of the player.
+     * @param state         The state of the firearm.
+     * @param commandBuffer The command buffer for applying changes.
+     * @return {@code true} if the magazine was still in its slot and has been inserted.
+     */
+    private boolean insertPendingMagazine(Ref<EntityStore> ref, Player player, ReloadingComponent reloading, FirearmState state,
+                                          CommandBuffer<EntityStore> commandBuffer) {
+        ItemContainer container = reloading.getPendingMagazineContainer();
+        short slot = reloading.getPendingMagazineSlot();
+        UUID uuid = reloading.getPendingMagazineUuid();
+
+        ItemStack magazine = container.getItemStack(slot);
+        if (magazine == null || uuid == null || !uuid.equals(magazine.getFromMetadataOrNull("HFF_STATE", Codec.UUID_BINARY))) {
+            return false;
+        }
+
+        container.removeItemStackFromSlot(slot, 1);
+        MagazineIndex.of(player).remove(uuid);
+
+        if (state.getInsertedMagazineUuid() != null) {
+            ItemStack returnedMagazine = new ItemStack(state.getInsertedMagazineName());
+            returnedMagazine = returnedMagazine.withMetadata("HFF_STATE", Codec.UUID_BINARY, state.getInsertedMagazineUuid());
+            giveOrDrop(ref, player, returnedMagazine, commandBuffer);
+        }
+
+        state.setInsertedMagazineUuid(uuid);
+        state.setInsertedMagazineName(reloading.getPendingMagazineName());
+        return true;
+    }
+
+    /**
+     * Adds an item to the player's storage and drops whatever does not fit at the player's position, so no item is
+     * lost when the storage is full.
+     *
+     * @param ref           The reference to the player.
+     * @param player        The player.
+     * @param item          The item to hand out.
+     * @param commandBuffer The command buffer for spawning the dropped item.
+     */
+    private void giveOrDrop(Ref<EntityStore> ref, Player player, ItemStack item, CommandBuffer<EntityStore> commandBuffer) {
+        ItemStackTransaction transaction = player.getInventory().getStorage().addItemStack(item);
+        ItemStack remainder = transaction.getRemainder();
+        if (remainder == null || remainder.isEmpty()) {
+            return;
+        }
+
+        TransformComponent transform = commandBuffer.getComponent(ref, TransformComponent.getComponentType());
+        Holder<EntityStore> drop = transform != null
+                ? ItemComponent.generateItemDrop(commandBuffer, remainder, transform.getPosition().clone(), Vector3f.ZERO, 0, 0, 0)
+                : null;
+
+        if (drop == null) {
+            HFF.get().getLogger().atSevere().log("Could not drop " + remainder.getItemId() + " for a player with a full storage");
+            return;
+        }
+        commandBuffer.addEntity(drop, AddReason.SPAWN);
+    }
+
+    /**
+     * Interrupts a reload. Nothing has been taken out of the player's inventory yet, so nothing has to be returned.
+     *
+     * @param ref           The reference to the reloading player.
+     * @param reloading     The reloading component of the player.
+     * @param commandBuffer The command buffer for applying changes.
+     * @param reason        The debug message sent to the player.
+     */
+    private void interrupt(Ref<EntityStore> ref, ReloadingComponent reloading, CommandBuffer<EntityStore> commandBuffer, String reason) {
+        Player player = commandBuffer.getComponent(ref, Player.getComponentType());
+
+        if (player != null && HFF.get().getConfigData().isDebugMode()) {
+            player.sendMessage(Message.raw(reason));
+        }
+
+        dispatchPost(player, reloading, false);
+        reloading.reset();
+        commandBuffer.removeComponent(ref, reloadingComponentType);
+    }
+
+    /**
+     * Dispatches a {@link ReloadEvent.Post} event for the reload that just ended.
+     *
+     * @param player    The reloading player.
+     * @param reloading The reloading component of the player.
+     * @param success   Whether the reload completed.
+     */
+    private void dispatchPost(Player player, ReloadingComponent reloading, boolean success) {
+        if (HFFEvents.RELOAD_POST.hasListener() && reloading.getStats() != null) {
+            HFFEvents.RELOAD_POST.dispatch(new ReloadEvent.Post(player, reloading.getWeapon(), reloading.getStats(), success));
         }
     }
 
@@ -100,4 +294,4 @@ public class ReloadSystem extends EntityTickingSystem<EntityStore> {
     public Query getQuery() {
         return Query.and(reloadingComponentType);
     }
-}
\ No newline at end of file
+}
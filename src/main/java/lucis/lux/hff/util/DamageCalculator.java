@@ -0,0 +1,151 @@
+package lucis.lux.hff.util;
+
+import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector4d;
+import com.hypixel.hytale.protocol.ChangeVelocityType;
+import com.hypixel.hytale.server.core.entity.knockback.KnockbackComponent;
+import com.hypixel.hytale.server.core.modules.entity.damage.Damage;
+import com.hypixel.hytale.server.core.modules.entity.damage.DamageCause;
+import com.hypixel.hytale.server.core.modules.entity.damage.DamageSystems;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.data.FalloffCurve;
+import lucis.lux.hff.data.FalloffTable;
+import lucis.lux.hff.data.FirearmState;
+import lucis.lux.hff.data.HotFirearmStats;
+
+/**
+ * A utility class containing the damage math shared by every way an HFF round can hit a target,
+ * whether it was carried by a projectile entity or resolved instantly as a hitscan.
+ *
+ * <p>Shots fired by a firearm use a precompiled {@link FalloffTable} obtained through
+ * {@link #getFalloffTable(FirearmState, HotFirearmStats, FalloffCurve)}, so the damage of a hit is
+ * {@code damage * table.sample(distance)}. {@link #getFinalDamage} evaluates the linear falloff directly
+ * and is kept for callers without a table.</p>
+ */
+public class DamageCalculator {
+
+    /**
+     * Calculates the final damage based on the distance between the shot's origin and the hit position.
+     * The damage is reduced linearly from the optimal range to the maximum range and scaled by the
+     * global damage multiplier.
+     *
+     * @param damage              The base damage of the round.
+     * @param optimalRange        The range up to which the round deals full damage.
+     * @param maxRange            The range at which the minimum damage is reached.
+     * @param minDamageMultiplier The damage multiplier applied at and beyond the maximum range.
+     * @param distance            The distance between the shot's origin and the hit position.
+     * @return The final damage after applying distance-based falloff.
+     */
+    public static float getFinalDamage(float damage, float optimalRange, float maxRange, float minDamageMultiplier, double distance) {
+        float finalDamage = damage;
+
+        if (distance > optimalRange) {
+            if (distance >= maxRange) {
+                finalDamage *= minDamageMultiplier;
+            } else {
+                float rangeDiff = maxRange - optimalRange;
+                float distPastOptimal = (float) (distance - optimalRange);
+
+                float falloffPercentage = distPastOptimal / rangeDiff;
+
+                float maxDamageLoss = 1.0f - minDamageMultiplier;
+                finalDamage *= (1.0f - (falloffPercentage * maxDamageLoss));
+            }
+        }
+
+        finalDamage *= HFF.get().getConfigData().getGlobalDamageMultiplier();
+        return finalDamage;
+    }
+
+    /**
+     * Returns the damage falloff table of a firearm, compiling it only when the curve, the statistics or the
+     * global damage multiplier have changed since the last shot. The global damage multiplier is folded into the table.
+     *
+     * @param state The firearm's state, which caches the table.
+     * @param stats The firearm's statistics.
+     * @param curve The falloff curve of the ammunition or the firearm, or {@code null} for a linear falloff.
+     * @return The falloff table.
+     */
+    public static FalloffTable getFalloffTable(FirearmState state, HotFirearmStats stats, FalloffCurve curve) {
+        if (curve == null) {
+            curve = FalloffCurve.LINEAR;
+        }
+
+        float scale = HFF.get().getConfigData().getGlobalDamageMultiplier();
+        FalloffTable table = state.getCachedFalloff(stats, curve, scale);
+        if (table == null) {
+            table = curve.compile(stats.optimalRange, stats.maxRange, stats.minDamageMultiplier, scale);
+            state.cacheFalloff(stats, table);
+        }
+        return table;
+    }
+
+    /**
+     * Applies firearm damage and knockback to a target.
+     *
+     * @param target            The entity that was hit.
+     * @param source            The source of the damage.
+     * @param finalDamage       The damage to apply.
+     * @param hitPosition       The position where the target was hit.
+     * @param flightDir         The direction the round was travelling in. Does not need to be normalized.
+     * @param knockbackForce    The force of the knockback.
+     * @param componentAccessor The component accessor for applying changes.
+     * @return {@code true} if the damage was applied, {@code false} if Hytale cancelled it.
+     */
+    public static boolean applyDamage(Ref<EntityStore> target, Damage.Source source, float finalDamage, Vector3d hitPosition, Vector3d flightDir, float knockbackForce, ComponentAccessor<EntityStore> componentAccessor) {
+        // Calculate the knockback direction and force
+        Vector3d impactDir = flightDir.clone();
+        impactDir.normalize();
+
+        Vector3d kbVelocity = new Vector3d(
+                impactDir.getX() * knockbackForce,
+                (impactDir.getY() * knockbackForce) + (knockbackForce * 0.2f),
+                impactDir.getZ() * knockbackForce);
+
+        return applyDamage(target, source, DamageCause.getAssetMap().getAsset("Projectile"), finalDamage, hitPosition, kbVelocity, componentAccessor);
+    }
+
+    /**
+     * Applies firearm damage and an already calculated knockback velocity to a target.
+     * Used by the {@link lucis.lux.hff.systems.HitResolutionSystem}, which resolves the damage cause once per tick
+     * and passes no knockback, since knockback is summed per target and applied once by the
+     * {@link lucis.lux.hff.systems.KnockbackFlushSystem}.
+     *
+     * <p>Hytale's damage systems may cancel the damage, for example if the target is invulnerable, in creative mode,
+     * already dead or protected because PvP is disabled. A cancelled damage applies no knockback either, so callers
+     * that apply knockback themselves must check the returned value.</p>
+     *
+     * @param target            The entity that was hit.
+     * @param source            The source of the damage.
+     * @param cause             The cause of the damage.
+     * @param finalDamage       The damage to apply.
+     * @param hitPosition       The position where the target was hit.
+     * @param kbVelocity        The knockback velocity to add to the target, or {@code null} for no knockback.
+     * @param componentAccessor The component accessor for applying changes.
+     * @return {@code true} if the damage was applied, {@code false} if Hytale cancelled it.
+     */
+    public static boolean applyDamage(Ref<EntityStore> target, Damage.Source source, DamageCause cause, float finalDamage, Vector3d hitPosition, Vector3d kbVelocity, ComponentAccessor<EntityStore> componentAccessor) {
+        Damage damageObj = new Damage(source, cause, finalDamage);
+
+        // Store the hit location in the damage object
+        damageObj.putMetaObject(Damage.HIT_LOCATION, Vector4d.newPosition(hitPosition));
+
+        if (kbVelocity != null) {
+            // Create a knockback component to apply to the target
+            KnockbackComponent knockback = new KnockbackComponent();
+            knockback.setVelocity(kbVelocity);
+            knockback.setVelocityType(ChangeVelocityType.Add);
+            knockback.setDuration(0.0f);
+
+            // Store the knockback component in the damage object
+            damageObj.putMetaObject(Damage.KNOCKBACK_COMPONENT, knockback);
+        }
+
+        // Apply the damage and knockback to the target
+        DamageSystems.executeDamage(target, componentAccessor, damageObj);
+        return !damageObj.isCancelled();
+    }
+}
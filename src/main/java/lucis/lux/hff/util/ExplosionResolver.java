@@ -0,0 +1,256 @@
+package lucis.lux.hff.util;
+
+import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.data.AmmoData;
+import lucis.lux.hff.data.HitboxTable;
+import lucis.lux.hff.data.ShotDescriptor;
+import lucis.lux.hff.enums.HitZone;
+import lucis.lux.hff.events.FirearmHitEvent;
+import lucis.lux.hff.events.HFFEvents;
+import lucis.lux.hff.resources.EntityGridResource;
+import lucis.lux.hff.resources.HitQueueResource;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A utility class that resolves the detonation of an explosive round, see {@link AmmoData#isExplosive()}.
+ *
+ * <p>A detonation happens in the following steps:</p>
+ * <ol>
+ *     <li>The {@link EntityGridResource} is queried for the entities whose bounds reach into the blast radius, so
+ *     only entities in the cells around the explosion are considered. The shooter is skipped unless the
+ *     ammunition enables {@link AmmoData#selfDamage()}.</li>
+ *     <li>Each of them takes blast damage scaled by {@code (1 - distance / blastRadius) ^ blastFalloff}, measured to
+ *     the closest point of its bounds, unless a block between the explosion and the center of its bounds shields it.
+ *     Blocks with a hardness of {@code 0} do not shield.</li>
+ *     <li>The fragments are traced as rays up to the blast radius along directions spread evenly over a sphere using
+ *     the {@link HitscanResolver}. Each fragment that hits an entity adds its damage, scaled by the
+ *     {@link HitZone} it hit.</li>
+ *     <li>A {@link FirearmHitEvent.Area} event is dispatched, which can cancel the explosion or change the damage of
+ *     each target.</li>
+ *     <li>The summed damage of each target is queued in the {@link HitQueueResource}, so the damage of the explosion
+ *     is applied in the same batched pass through Hytale's damage systems as all other hits of the tick. The
+ *     knockback pushes every target away from the center.</li>
+ * </ol>
+ *
+ * <p>The fragment directions are computed once per fragment count and cached.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     if (shot.isExplosive()) {
+ *         ExplosionResolver.detonate(shooterRef, null, hit.getTarget(), shot, ammo.damage(), hit.getPosition(), direction, commandBuffer);
+ *     }
+ * </pre>
+ */
+public class ExplosionResolver {
+
+    /**
+     * The distance the center of an explosion is moved back along the flight direction of the round, so it does not
+     * lie inside the block or entity the round hit.
+     */
+    private static final double CENTER_OFFSET = 0.05;
+
+    /**
+     * The fragment directions, cached by fragment count. Each entry holds three floats per fragment.
+     */
+    private static final Map<Integer, float[]> FRAGMENT_DIRECTIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Detonates an explosive round and queues the damage of the explosion.
+     *
+     * @param shooter           The entity that fired the round. It is only damaged by the explosion if the
+     *                          ammunition enables {@link AmmoData#selfDamage()}.
+     * @param projectile        The projectile entity, or {@code null} for hitscan and simulated rounds. It is never
+     *                          damaged by its own explosion.
+     * @param directTarget      The entity the round hit, or {@code null} if it detonated on a block.
+     * @param shot              The shot the round belongs to.
+     * @param damage            The blast damage at the center of the explosion.
+     * @param position          The position where the round hit.
+     * @param direction         The direction the round was travelling in. Does not need to be normalized.
+     * @param componentAccessor The component accessor used to access the world and its entities.
+     * @return The number of entities that take damage from the explosion.
+     */
+    public static int detonate(Ref<EntityStore> shooter, Ref<EntityStore> projectile, Ref<EntityStore> directTarget, ShotDescriptor shot,
+                               float damage, Vector3d position, Vector3d direction, ComponentAccessor<EntityStore> componentAccessor) {
+        AmmoData ammo = shot.getAmmo();
+        float radius = ammo.blastRadius();
+
+        Vector3d center = position.clone();
+        double length = Math.sqrt(direction.x * direction.x + direction.y * direction.y + direction.z * direction.z);
+        if (length > 0) {
+            center.x -= direction.x / length * CENTER_OFFSET;
+            center.y -= direction.y / length * CENTER_OFFSET;
+            center.z -= direction.z / length * CENTER_OFFSET;
+        }
+
+        World world = componentAccessor.getExternalData().getWorld();
+        EntityGridResource grid = componentAccessor.getResource(HFF.get().getEntityGridResourceType());
+        int count = grid.querySphere(center.x, center.y, center.z, radius);
+
+        // Copy the candidates, as the fragment traces below query the grid again
+        @SuppressWarnings("unchecked")
+        Ref<EntityStore>[] targets = new Ref[count];
+        float[] damages = new float[count];
+        double[] centers = new double[count * 3];
+        int size = 0;
+        Vector3d targetCenter = new Vector3d();
+
+        for (int i = 0; i < count; i++) {
+            int slot = grid.getResult(i);
+            Ref<EntityStore> candidate = grid.getRef(slot);
+            if (!candidate.isValid() || candidate.equals(projectile) || (!ammo.selfDamage() && candidate.equals(shooter))) {
+                continue;
+            }
+
+            targets[size] = candidate;
+            damages[size] = 0.0f;
+
+            double distance = Math.sqrt(grid.distanceSquared(slot, center.x, center.y, center.z));
+            grid.getCenter(slot, targetCenter);
+            centers[size * 3] = targetCenter.x;
+            centers[size * 3 + 1] = targetCenter.y;
+            centers[size * 3 + 2] = targetCenter.z;
+            if (candidate.equals(directTarget) || !isShielded(world, center, targetCenter)) {
+                float falloff = (float) Math.pow(Math.max(0.0, 1.0 - distance / radius), ammo.blastFalloff());
+                damages[size] = damage * falloff;
+            }
+            size++;
+        }
+
+        int fragmentHits = 0;
+        if (ammo.fragmentCount() > 0 && ammo.fragmentDamage() > 0 && size > 0) {
+            float[] directions = getFragmentDirections(ammo.fragmentCount());
+            HitscanResolver.Hit hit = new HitscanResolver.Hit();
+            Vector3d fragment = new Vector3d();
+
+            for (int f = 0; f < directions.length; f += 3) {
+                fragment.x = directions[f];
+                fragment.y = directions[f + 1];
+                fragment.z = directions[f + 2];
+                if (!HitscanResolver.resolve(projectile, center, fragment, radius, componentAccessor, hit)) {
+                    continue;
+                }
+
+                int index = indexOf(targets, size, hit.getTarget());
+                if (index < 0) {
+                    continue;
+                }
+
+                HitboxTable hitbox = HitboxResolver.getTable(hit.getTarget(), componentAccessor);
+                int zone = HitboxResolver.resolveZone(hit.getTarget(), hitbox, hit.getPosition(), fragment, componentAccessor);
+                damages[index] += ammo.fragmentDamage() * hitbox.getDamageMultiplier(zone, shot.getArmorPenetration());
+                fragmentHits++;
+            }
+        }
+
+        if (HFFEvents.HIT_AREA.hasListener()) {
+            FirearmHitEvent.Area event = HFFEvents.HIT_AREA.dispatch(new FirearmHitEvent.Area(directTarget, shooter, projectile, center, radius,
+                    Arrays.copyOf(targets, size), damages.length == size ? damages : Arrays.copyOf(damages, size), fragmentHits));
+
+            if (event.isCancelled()) {
+                return 0;
+            }
+            for (int i = 0; i < size; i++) {
+                damages[i] = event.getDamage(i);
+            }
+        }
+
+        HitQueueResource queue = componentAccessor.getResource(HFF.get().getHitQueueResourceType());
+        Vector3d push = new Vector3d();
+        int damaged = 0;
+        for (int i = 0; i < size; i++) {
+            if (damages[i] <= 0) {
+                continue;
+            }
+
+            // Push the target away from the center, or along the flight direction if it is at the center
+            targetCenter.x = centers[i * 3];
+            targetCenter.y = centers[i * 3 + 1];
+            targetCenter.z = centers[i * 3 + 2];
+            push.x = targetCenter.x - center.x;
+            push.y = targetCenter.y - center.y;
+            push.z = targetCenter.z - center.z;
+            if (push.x == 0 && push.y == 0 && push.z == 0) {
+                push.x = direction.x;
+                push.y = direction.y;
+                push.z = direction.z;
+            }
+
+            queue.add(targets[i], shooter, projectile, shot, damages[i], HitZone.TORSO.ordinal(), targetCenter, push, shot.getKnockbackForce());
+            damaged++;
+        }
+
+        if (HFF.get().getConfigData().isDebugMode()) {
+            HFF.get().getLogger().atInfo().log("Explosion at " + center + " caught " + size + " entities, damaged " + damaged
+                    + ", " + fragmentHits + " fragment hits");
+        }
+        return damaged;
+    }
+
+    /**
+     * Checks whether a block between the center of an explosion and a target shields the target from the blast.
+     *
+     * @param world  The world to trace in.
+     * @param center The center of the explosion.
+     * @param target The point of the target to trace to.
+     * @return {@code true} if a block stops the trace before it reaches the target.
+     */
+    private static boolean isShielded(World world, Vector3d center, Vector3d target) {
+        double dx = target.x - center.x;
+        double dy = target.y - center.y;
+        double dz = target.z - center.z;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (distance == 0) {
+            return false;
+        }
+        return HitscanResolver.traceBlocks(world, center.x, center.y, center.z,
+                dx / distance, dy / distance, dz / distance, distance) < distance;
+    }
+
+    /**
+     * Returns the index of a target in the given array.
+     *
+     * @param targets The targets.
+     * @param size    The number of targets.
+     * @param target  The target to find.
+     * @return The index of the target, or {@code -1} if it is not in the array.
+     */
+    private static int indexOf(Ref<EntityStore>[] targets, int size, Ref<EntityStore> target) {
+        for (int i = 0; i < size; i++) {
+            if (targets[i].equals(target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the directions of the fragments of an explosion. The directions lie on a Fibonacci sphere, which spreads
+     * them evenly over all directions.
+     *
+     * @param count The number of fragments.
+     * @return Three floats per fragment holding its normalized direction.
+     */
+    private static float[] getFragmentDirections(int count) {
+        return FRAGMENT_DIRECTIONS.computeIfAbsent(count, n -> {
+            float[] directions = new float[n * 3];
+            double goldenAngle = Math.PI * (3.0 - Math.sqrt(5.0));
+            for (int i = 0; i < n; i++) {
+                double y = n == 1 ? 0.0 : 1.0 - 2.0 * i / (n - 1);
+                double ring = Math.sqrt(Math.max(0.0, 1.0 - y * y));
+                double theta = goldenAngle * i;
+                directions[i * 3] = (float) (Math.cos(theta) * ring);
+                directions[i * 3 + 1] = (float) y;
+                directions[i * 3 + 2] = (float) (Math.sin(theta) * ring);
+            }
+            return directions;
+        });
+    }
+}
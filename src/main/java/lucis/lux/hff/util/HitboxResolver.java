@@ -0,0 +1,89 @@
+package lucis.lux.hff.util;
+
+import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.math.shape.Box;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.modules.entity.component.BoundingBox;
+import com.hypixel.hytale.server.core.modules.entity.component.ModelComponent;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.data.HitboxTable;
+import lucis.lux.hff.data.registry.Registries;
+import lucis.lux.hff.enums.HitZone;
+
+/**
+ * A utility class that connects the {@link HitboxTable}s to the entities they belong to.
+ *
+ * <p>The table of an entity is looked up by the ID of its model in
+ * {@link Registries#HITBOX_TABLES}, falling back to {@link HitboxTable#HUMANOID}. The zone of a hit is then resolved
+ * against the entity's bounding box and yaw. Every way an HFF round can hit an entity uses this class, so projectile
+ * entities, hitscan shots and simulated rounds resolve hit zones the same way.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     HitboxTable table = HitboxResolver.getTable(target, commandBuffer);
+ *     int zone = HitboxResolver.resolveZone(target, table, hitPosition, direction, commandBuffer);
+ *     float finalDamage = damage * table.getDamageMultiplier(zone, ammo.armorPenetration());
+ * </pre>
+ */
+public class HitboxResolver {
+
+    /**
+     * Returns the hitbox table of an entity.
+     *
+     * @param target            The entity.
+     * @param componentAccessor The component accessor used to access the entity.
+     * @return The table registered for the entity's model, or {@link HitboxTable#HUMANOID}.
+     */
+    public static HitboxTable getTable(Ref<EntityStore> target, ComponentAccessor<EntityStore> componentAccessor) {
+        ModelComponent model = componentAccessor.getComponent(target, ModelComponent.getComponentType());
+        if (model != null && model.getModel() != null) {
+            HitboxTable table = Registries.HITBOX_TABLES.get(model.getModel().getModelAssetId());
+            if (table != null) {
+                return table;
+            }
+        }
+        return HitboxTable.HUMANOID;
+    }
+
+    /**
+     * Resolves the zone of an entity that a round hit. The ray is cast from just outside the entity's bounding box
+     * through the hit position along the flight direction, so the first hitbox the round would have entered is found
+     * regardless of whether the hit position lies on the surface or inside the bounds.
+     *
+     * @param target            The entity that was hit.
+     * @param table             The hitbox table of the entity.
+     * @param hitPosition       The position where the entity was hit.
+     * @param direction         The direction the round was travelling in. Does not need to be normalized.
+     * @param componentAccessor The component accessor used to access the entity.
+     * @return The ordinal of the {@link HitZone} that was hit, or {@link HitZone#TORSO} if the entity has no bounds.
+     */
+    public static int resolveZone(Ref<EntityStore> target, HitboxTable table, Vector3d hitPosition, Vector3d direction, ComponentAccessor<EntityStore> componentAccessor) {
+        TransformComponent transform = componentAccessor.getComponent(target, TransformComponent.getComponentType());
+        BoundingBox boundingBox = componentAccessor.getComponent(target, BoundingBox.getComponentType());
+        double length = Math.sqrt(direction.x * direction.x + direction.y * direction.y + direction.z * direction.z);
+        if (transform == null || boundingBox == null || length == 0) {
+            return HitZone.TORSO.ordinal();
+        }
+
+        Vector3d pos = transform.getPosition();
+        Box box = boundingBox.getBoundingBox();
+        double minX = pos.x + box.getMin().x, minY = pos.y + box.getMin().y, minZ = pos.z + box.getMin().z;
+        double maxX = pos.x + box.getMax().x, maxY = pos.y + box.getMax().y, maxZ = pos.z + box.getMax().z;
+
+        double dx = direction.x / length;
+        double dy = direction.y / length;
+        double dz = direction.z / length;
+
+        // Step back by the diagonal of the bounds so the ray starts outside the entity
+        double ex = maxX - minX, ey = maxY - minY, ez = maxZ - minZ;
+        double back = Math.sqrt(ex * ex + ey * ey + ez * ez);
+
+        return table.resolve(
+                hitPosition.x - dx * back, hitPosition.y - dy * back, hitPosition.z - dz * back,
+                dx, dy, dz,
+                minX, minY, minZ, maxX, maxY, maxZ,
+                transform.getRotation().getYaw(), back * 2);
+    }
+}
@@ -0,0 +1,402 @@
+package lucis.lux.hff.util;
+
+import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import lucis.lux.hff.HFF;
+import lucis.lux.hff.data.registry.BlockHardnessIndex;
+import lucis.lux.hff.resources.EntityGridResource;
+
+import java.util.Arrays;
+
+/**
+ * A utility class that resolves a shot instantly along a ray instead of spawning a projectile entity.
+ *
+ * <p>Resolution happens in two steps:</p>
+ * <ol>
+ *     <li>A voxel traversal walks the blocks along the ray until the first block the round cannot penetrate,
+ *     which limits the distance the shot can travel. The hardness of each block is read from the
+ *     {@link BlockHardnessIndex}; a round passes through blocks while its penetration power exceeds their hardness
+ *     and loses that much power.</li>
+ *     <li>The {@link EntityGridResource} is queried for the entities whose cells are crossed by the remaining
+ *     segment. Only these candidates are tested against the ray with a slab test on their bounding boxes.
+ *     The closest one is the target.</li>
+ * </ol>
+ *
+ * <p>If the round was stopped by a block, {@link #ricochet} decides whether it glances off the block and reflects
+ * its direction, so callers can trace the next segment from the impact point.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     HitscanResolver.Hit hit = new HitscanResolver.Hit();
+ *     if (HitscanResolver.resolve(shooterRef, origin, direction, stats.maxRange(), ammo.penetrationPower(), commandBuffer, hit)) {
+ *         Ref&lt;EntityStore&gt; target = hit.getTarget();
+ *         float remainingPower = hit.getPowerAt(hit.getDistance());
+ *     } else if (HitscanResolver.ricochet(hit, direction, ammo.ricochetAngle())) {
+ *         // Trace again from hit.getPosition() in the reflected direction
+ *     }
+ * </pre>
+ */
+public class HitscanResolver {
+
+    /**
+     * The fraction of its damage and velocity a round keeps when it ricochets.
+     */
+    public static final float RICOCHET_ENERGY = 0.6f;
+
+    /**
+     * The maximum number of times a hitscan round ricochets.
+     */
+    public static final int MAX_RICOCHETS = 2;
+
+    /**
+     * The distance a round is moved away from a block surface after a ricochet, so the next trace does not start
+     * inside the block.
+     */
+    private static final double SURFACE_OFFSET = 1.0e-3;
+
+    /**
+     * Resolves a hitscan shot that stops at the first solid block.
+     *
+     * @param shooter           The entity that fired the shot. It is never hit by its own shot.
+     * @param origin            The origin of the shot.
+     * @param direction         The normalized direction of the shot.
+     * @param maxDistance       The maximum distance the shot travels.
+     * @param componentAccessor The component accessor used to access the world and its entities.
+     * @param hit               The hit object receiving the result.
+     * @return {@code true} if an entity was hit, {@code false} otherwise.
+     */
+    public static boolean resolve(Ref<EntityStore> shooter, Vector3d origin, Vector3d direction, double maxDistance, ComponentAccessor<EntityStore> componentAccessor, Hit hit) {
+        return resolve(shooter, origin, direction, maxDistance, 0.0f, componentAccessor, hit);
+    }
+
+    /**
+     * Resolves a hitscan shot that penetrates blocks.
+     *
+     * @param shooter           The entity that fired the shot. It is never hit by its own shot.
+     * @param origin            The origin of the shot.
+     * @param direction         The normalized direction of the shot.
+     * @param maxDistance       The maximum distance the shot travels.
+     * @param penetrationPower  The total block hardness the shot can pass through.
+     * @param componentAccessor The component accessor used to access the world and its entities.
+     * @param hit               The hit object receiving the result.
+     * @return {@code true} if an entity was hit, {@code false} otherwise.
+     */
+    public static boolean resolve(Ref<EntityStore> shooter, Vector3d origin, Vector3d direction, double maxDistance, float penetrationPower, ComponentAccessor<EntityStore> componentAccessor, Hit hit) {
+        hit.reset();
+
+        World world = componentAccessor.getExternalData().getWorld();
+        double reach = traceBlocks(world, origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, maxDistance, penetrationPower, hit);
+
+        EntityGridResource grid = componentAccessor.getResource(HFF.get().getEntityGridResourceType());
+        int count = grid.querySegment(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, reach);
+
+        double closest = reach;
+        for (int i = 0; i < count; i++) {
+            int slot = grid.getResult(i);
+            Ref<EntityStore> candidate = grid.getRef(slot);
+            if (candidate.equals(shooter) || !candidate.isValid()) {
+                continue;
+            }
+
+            double t = grid.intersect(slot, origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, closest);
+            if (t >= 0 && t < closest) {
+                closest = t;
+                hit.target = candidate;
+            }
+        }
+
+        if (hit.target != null) {
+            // The entity was hit before the round reached the block that would have stopped it
+            hit.blockId = -1;
+        }
+        hit.distance = hit.target != null ? closest : reach;
+        hit.position.x = origin.x + direction.x * hit.distance;
+        hit.position.y = origin.y + direction.y * hit.distance;
+        hit.position.z = origin.z + direction.z * hit.distance;
+        return hit.target != null;
+    }
+
+    /**
+     * Walks the blocks along a ray using a 3D DDA (Amanatides and Woo) and returns the distance
+     * to the first non-empty block.
+     *
+     * @param world       The world to trace in.
+     * @param ox          The x coordinate of the ray origin.
+     * @param oy          The y coordinate of the ray origin.
+     * @param oz          The z coordinate of the ray origin.
+     * @param dx          The x component of the normalized ray direction.
+     * @param dy          The y component of the normalized ray direction.
+     * @param dz          The z component of the normalized ray direction.
+     * @param maxDistance The maximum distance to trace.
+     * @return The distance to the first non-empty block, or {@code maxDistance} if none was found.
+     */
+    public static double traceBlocks(World world, double ox, double oy, double oz, double dx, double dy, double dz, double maxDistance) {
+        return traceBlocks(world, ox, oy, oz, dx, dy, dz, maxDistance, 0.0f, null);
+    }
+
+    /**
+     * Walks the blocks along a ray using a 3D DDA (Amanatides and Woo) and returns the distance to the first block
+     * the ray cannot penetrate. Blocks are passed while the remaining penetration power exceeds their hardness, or if
+     * their hardness is {@code 0}. If a hit object is given, the penetrated blocks and the block that stopped the ray
+     * are recorded in it.
+     *
+     * @param world            The world to trace in.
+     * @param ox               The x coordinate of the ray origin.
+     * @param oy               The y coordinate of the ray origin.
+     * @param oz               The z coordinate of the ray origin.
+     * @param dx               The x component of the normalized ray direction.
+     * @param dy               The y component of the normalized ray direction.
+     * @param dz               The z component of the normalized ray direction.
+     * @param maxDistance      The maximum distance to trace.
+     * @param penetrationPower The total block hardness the ray can pass through.
+     * @param hit              The hit object receiving the penetrated and the stopping block, or {@code null}.
+     * @return The distance to the first block the ray cannot penetrate, or {@code maxDistance} if none was found.
+     */
+    public static double traceBlocks(World world, double ox, double oy, double oz, double dx, double dy, double dz, double maxDistance,
+                                     float penetrationPower, Hit hit) {
+        int x = (int) Math.floor(ox);
+        int y = (int) Math.floor(oy);
+        int z = (int) Math.floor(oz);
+
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        int stepZ = dz > 0 ? 1 : -1;
+
+        double tDeltaX = dx != 0 ? Math.abs(1.0 / dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? Math.abs(1.0 / dy) : Double.POSITIVE_INFINITY;
+        double tDeltaZ = dz != 0 ? Math.abs(1.0 / dz) : Double.POSITIVE_INFINITY;
+
+        double tMaxX = dx > 0 ? (x + 1 - ox) * tDeltaX : dx < 0 ? (ox - x) * tDeltaX : Double.POSITIVE_INFINITY;
+        double tMaxY = dy > 0 ? (y + 1 - oy) * tDeltaY : dy < 0 ? (oy - y) * tDeltaY : Double.POSITIVE_INFINITY;
+        double tMaxZ = dz > 0 ? (z + 1 - oz) * tDeltaZ : dz < 0 ? (oz - z) * tDeltaZ : Double.POSITIVE_INFINITY;
+
+        if (hit != null) {
+            hit.power = penetrationPower;
+        }
+
+        float power = penetrationPower;
+        int axis = -1;
+        double t = 0.0;
+        while (t <= maxDistance) {
+            int block = world.getBlock(x, y, z);
+            if (block != 0) {
+                float hardness = BlockHardnessIndex.get(block);
+                if (hardness > 0 && hardness >= power) {
+                    if (hit != null) {
+                        hit.blockId = block;
+                        hit.normalX = axis == 0 ? -stepX : 0;
+                        hit.normalY = axis == 1 ? -stepY : 0;
+                        hit.normalZ = axis == 2 ? -stepZ : 0;
+                    }
+                    return t;
+                }
+                if (hardness > 0) {
+                    power -= hardness;
+                    if (hit != null) {
+                        hit.addCrossing(t, hardness);
+                    }
+                }
+            }
+            if (tMaxX < tMaxY && tMaxX < tMaxZ) {
+                x += stepX;
+                t = tMaxX;
+                tMaxX += tDeltaX;
+                axis = 0;
+            } else if (tMaxY < tMaxZ) {
+                y += stepY;
+                t = tMaxY;
+                tMaxY += tDeltaY;
+                axis = 1;
+            } else {
+                z += stepZ;
+                t = tMaxZ;
+                tMaxZ += tDeltaZ;
+                axis = 2;
+            }
+        }
+        return maxDistance;
+    }
+
+    /**
+     * Lets a round that was stopped by a block ricochet. The round ricochets if the angle between its direction and
+     * the surface of the block is at most the given angle. In that case the direction is reflected off the surface
+     * and the position of the hit is moved just outside the block, so the next segment can be traced from it.
+     *
+     * @param hit           The hit result of the segment that was stopped by a block.
+     * @param direction     The normalized direction of the round. Reflected in place if the round ricochets.
+     * @param ricochetAngle The largest angle in degrees between the direction and the surface at which the round
+     *                      ricochets, or {@code 0} to disable ricochets.
+     * @return {@code true} if the round ricocheted.
+     */
+    public static boolean ricochet(Hit hit, Vector3d direction, float ricochetAngle) {
+        if (ricochetAngle <= 0 || !hit.isBlocked() || (hit.normalX | hit.normalY | hit.normalZ) == 0) {
+            return false;
+        }
+
+        double dot = direction.x * hit.normalX + direction.y * hit.normalY + direction.z * hit.normalZ;
+        double angle = Math.toDegrees(Math.asin(Math.min(1.0, Math.abs(dot))));
+        if (angle > ricochetAngle) {
+            return false;
+        }
+
+        direction.x -= 2 * dot * hit.normalX;
+        direction.y -= 2 * dot * hit.normalY;
+        direction.z -= 2 * dot * hit.normalZ;
+        hit.position.x += hit.normalX * SURFACE_OFFSET;
+        hit.position.y += hit.normalY * SURFACE_OFFSET;
+        hit.position.z += hit.normalZ * SURFACE_OFFSET;
+        return true;
+    }
+
+    /**
+     * The result of a hitscan resolution. Instances can be reused between shots.
+     */
+    public static final class Hit {
+
+        /**
+         * The position where the shot stopped.
+         */
+        private final Vector3d position = new Vector3d();
+
+        /**
+         * The entity that was hit, or {@code null} if no entity was hit.
+         */
+        private Ref<EntityStore> target;
+
+        /**
+         * The distance from the origin to the position where the shot stopped.
+         */
+        private double distance;
+
+        /**
+         * The numeric ID of the block that stopped the shot, or {@code -1} if no block stopped it.
+         */
+        private int blockId = -1;
+
+        /**
+         * The normal of the block face the shot hit.
+         */
+        private int normalX, normalY, normalZ;
+
+        /**
+         * The penetration power the shot started the trace with.
+         */
+        private float power;
+
+        /**
+         * The distance at which the shot entered each penetrated block.
+         */
+        private double[] crossingDistance = new double[8];
+
+        /**
+         * The hardness of each penetrated block.
+         */
+        private float[] crossingHardness = new float[8];
+
+        /**
+         * The number of penetrated blocks.
+         */
+        private int crossings;
+
+        /**
+         * Clears the result so the object can be reused.
+         */
+        public void reset() {
+            target = null;
+            distance = 0.0;
+            blockId = -1;
+            normalX = 0;
+            normalY = 0;
+            normalZ = 0;
+            power = 0.0f;
+            crossings = 0;
+        }
+
+        /**
+         * Records a penetrated block.
+         *
+         * @param t        The distance at which the shot entered the block.
+         * @param hardness The hardness of the block.
+         */
+        private void addCrossing(double t, float hardness) {
+            if (crossings == crossingDistance.length) {
+                crossingDistance = Arrays.copyOf(crossingDistance, crossings * 2);
+                crossingHardness = Arrays.copyOf(crossingHardness, crossings * 2);
+            }
+            crossingDistance[crossings] = t;
+            crossingHardness[crossings] = hardness;
+            crossings++;
+        }
+
+        /**
+         * Returns whether the shot was stopped by a block.
+         *
+         * @return {@code true} if a block stopped the shot.
+         */
+        public boolean isBlocked() {
+            return blockId >= 0;
+        }
+
+        /**
+         * Returns the numeric ID of the block that stopped the shot.
+         *
+         * @return The block ID, or {@code -1} if no block stopped the shot.
+         */
+        public int getBlockId() {
+            return blockId;
+        }
+
+        /**
+         * Returns the number of blocks the shot penetrated.
+         *
+         * @return The number of penetrated blocks.
+         */
+        public int getPenetratedBlocks() {
+            return crossings;
+        }
+
+        /**
+         * Returns the penetration power the shot has left at a distance along the trace.
+         *
+         * @param at The distance from the origin.
+         * @return The remaining penetration power.
+         */
+        public float getPowerAt(double at) {
+            float remaining = power;
+            for (int i = 0; i < crossings && crossingDistance[i] < at; i++) {
+                remaining -= crossingHardness[i];
+            }
+            return remaining;
+        }
+
+        /**
+         * Returns the entity that was hit.
+         *
+         * @return The hit entity, or {@code null} if no entity was hit.
+         */
+        public Ref<EntityStore> getTarget() {
+            return target;
+        }
+
+        /**
+         * Returns the distance from the origin to the position where the shot stopped.
+         *
+         * @return The distance travelled.
+         */
+        public double getDistance() {
+            return distance;
+        }
+
+        /**
+         * Returns the position where the shot stopped.
+         *
+         * @return The stop position.
+         */
+        public Vector3d getPosition() {
+            return position;
+        }
+    }
+}
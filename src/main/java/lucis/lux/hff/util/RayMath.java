@@ -0,0 +1,69 @@
+package lucis.lux.hff.util;
+
+/**
+ * A utility class containing allocation-free ray math used by HFF's hit detection.
+ * All methods work on primitive coordinates so they can be called in tight loops
+ * without creating temporary vectors.
+ */
+public class RayMath {
+
+    /**
+     * Intersects a ray with an axis-aligned bounding box using the slab method.
+     *
+     * @param ox   The x coordinate of the ray origin.
+     * @param oy   The y coordinate of the ray origin.
+     * @param oz   The z coordinate of the ray origin.
+     * @param dx   The x component of the ray direction.
+     * @param dy   The y component of the ray direction.
+     * @param dz   The z component of the ray direction.
+     * @param minX The minimum x coordinate of the box.
+     * @param minY The minimum y coordinate of the box.
+     * @param minZ The minimum z coordinate of the box.
+     * @param maxX The maximum x coordinate of the box.
+     * @param maxY The maximum y coordinate of the box.
+     * @param maxZ The maximum z coordinate of the box.
+     * @param maxT The maximum ray parameter to consider.
+     * @return The ray parameter of the entry point, {@code 0} if the origin lies inside the box,
+     * or {@code -1} if the ray misses the box within {@code maxT}.
+     */
+    public static double intersectAabb(double ox, double oy, double oz,
+                                       double dx, double dy, double dz,
+                                       double minX, double minY, double minZ,
+                                       double maxX, double maxY, double maxZ,
+                                       double maxT) {
+        double tMin = 0.0;
+        double tMax = maxT;
+
+        if (dx != 0.0) {
+            double inv = 1.0 / dx;
+            double t1 = (minX - ox) * inv;
+            double t2 = (maxX - ox) * inv;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        } else if (ox < minX || ox > maxX) {
+            return -1;
+        }
+
+        if (dy != 0.0) {
+            double inv = 1.0 / dy;
+            double t1 = (minY - oy) * inv;
+            double t2 = (maxY - oy) * inv;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        } else if (oy < minY || oy > maxY) {
+            return -1;
+        }
+
+        if (dz != 0.0) {
+            double inv = 1.0 / dz;
+            double t1 = (minZ - oz) * inv;
+            double t2 = (maxZ - oz) * inv;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        } else if (oz < minZ || oz > maxZ) {
+            return -1;
+        }
+
+        return tMin <= tMax ? tMin : -1;
+    }
+}
@@ -0,0 +1,241 @@
+package lucis.lux.hff.util;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@code SpreadGenerator} class generates randomized shot directions inside a spread cone without allocating
+ * and without touching the shared {@link Math#random()} generator.
+ *
+ * <p>Every thread owns its own generator, obtained through {@link #get()}. A generator combines:</p>
+ * <ul>
+ *     <li>A SplitMix64 random number generator that can be seeded for deterministic spread patterns.</li>
+ *     <li>A sine table shared by all generators, built once and independent of the spread. The offsets of a shot
+ *     are positions in the unit cone scaled by the current spread, and their sine and cosine are interpolated from
+ *     the table, so changing the spread between shots, players or weapons costs nothing.</li>
+ *     <li>The cached sine and cosine of the shooter's orientation, recomputed only when the orientation changes,
+ *     so all pellets of a shot share the same trigonometry.</li>
+ * </ul>
+ *
+ * <p>Directions can either be drawn randomly, or taken from fixed positions inside the cone to follow a
+ * {@link lucis.lux.hff.data.FirearmPattern spread pattern}.</p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     SpreadGenerator spread = SpreadGenerator.get();
+ *     spread.aim(orientation.yaw, orientation.pitch, spreadRadians);
+ *     for (int i = 0; i &lt; pellets; i++) {
+ *         spread.next(direction);
+ *     }
+ * </pre>
+ */
+public final class SpreadGenerator {
+
+    /**
+     * The number of positions in the unit spread cone. Must be a power of two.
+     */
+    private static final int TABLE_SIZE = 1024;
+
+    /**
+     * The mask used to map a random number onto a position in the unit spread cone.
+     */
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+
+    /**
+     * The number of intervals of the sine table between {@code 0} and {@code PI / 2}.
+     */
+    private static final int SINE_STEPS = 4096;
+
+    /**
+     * Converts an angle in radians into a position in the sine table.
+     */
+    private static final double SINE_SCALE = SINE_STEPS / (Math.PI / 2);
+
+    /**
+     * The sine of evenly distributed angles between {@code 0} and {@code PI / 2}. Interpolating linearly between
+     * entries is accurate to about {@code 2e-8}.
+     */
+    private static final double[] SINE = new double[SINE_STEPS + 1];
+
+    /**
+     * The evenly distributed positions between {@code -1} and {@code 1} in the unit spread cone.
+     */
+    private static final double[] UNIT_OFFSETS = new double[TABLE_SIZE];
+
+    /**
+     * The generator of each thread.
+     */
+    private static final ThreadLocal<SpreadGenerator> GENERATORS = ThreadLocal.withInitial(SpreadGenerator::new);
+
+    static {
+        for (int i = 0; i <= SINE_STEPS; i++) {
+            SINE[i] = Math.sin(i / SINE_SCALE);
+        }
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            UNIT_OFFSETS[i] = 2.0 * i / TABLE_MASK - 1.0;
+        }
+    }
+
+    /**
+     * The spread of the current shot in radians.
+     */
+    private double spread;
+
+    /**
+     * The orientation the cached trigonometry was computed for.
+     */
+    private double yaw = Double.NaN, pitch = Double.NaN;
+
+    /**
+     * The cached trigonometry of the current orientation.
+     */
+    private double sinYaw, cosYaw, sinPitch, cosPitch;
+
+    /**
+     * The state of the SplitMix64 generator.
+     */
+    private long state;
+
+    /**
+     * Constructs a new generator seeded from {@link ThreadLocalRandom}.
+     */
+    private SpreadGenerator() {
+        this.state = ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Returns the generator of the current thread.
+     *
+     * @return The generator of the current thread.
+     */
+    public static SpreadGenerator get() {
+        return GENERATORS.get();
+    }
+
+    /**
+     * Seeds the generator. Shots generated after seeding with the same value follow the same spread pattern.
+     *
+     * @param seed The seed.
+     */
+    public void seed(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Prepares the generator for the next shot.
+     *
+     * @param yaw    The yaw of the shooter in radians.
+     * @param pitch  The pitch of the shooter in radians.
+     * @param spread The maximum deviation from the orientation in radians, on each axis. Clamped to {@code PI / 2}.
+     */
+    public void aim(double yaw, double pitch, double spread) {
+        if (yaw != this.yaw || pitch != this.pitch) {
+            this.yaw = yaw;
+            this.pitch = pitch;
+            this.sinYaw = Math.sin(yaw);
+            this.cosYaw = Math.cos(yaw);
+            this.sinPitch = Math.sin(pitch);
+            this.cosPitch = Math.cos(pitch);
+        }
+
+        this.spread = Math.min(Math.abs(spread), Math.PI / 2);
+    }
+
+    /**
+     * Writes the next normalized direction inside the spread cone into the given vector.
+     *
+     * @param out The vector receiving the direction.
+     * @return The given vector.
+     */
+    public Vector3d next(Vector3d out) {
+        long bits = nextLong();
+        return direction((int) bits & TABLE_MASK, (int) (bits >>> 32) & TABLE_MASK, out);
+    }
+
+    /**
+     * Writes the normalized direction at a fixed position inside the spread cone into the given vector.
+     * This is used for deterministic spread patterns and does not consume a random number.
+     *
+     * @param yawOffset   The yaw offset in units of the spread cone, from {@code -1} to {@code 1}.
+     * @param pitchOffset The pitch offset in units of the spread cone, from {@code -1} to {@code 1}.
+     * @param out         The vector receiving the direction.
+     * @return The given vector.
+     */
+    public Vector3d next(float yawOffset, float pitchOffset, Vector3d out) {
+        return direction(toTableIndex(yawOffset), toTableIndex(pitchOffset), out);
+    }
+
+    /**
+     * Maps an offset in units of the spread cone onto the nearest position in the unit spread cone.
+     *
+     * @param offset The offset, from {@code -1} to {@code 1}.
+     * @return The index of the position.
+     */
+    private static int toTableIndex(float offset) {
+        float clamped = Math.max(-1.0f, Math.min(1.0f, offset));
+        return Math.round((clamped + 1.0f) * 0.5f * TABLE_MASK);
+    }
+
+    /**
+     * Writes the direction given by two positions in the unit spread cone, scaled by the current spread, into the
+     * given vector.
+     *
+     * @param yawIndex   The index of the yaw offset.
+     * @param pitchIndex The index of the pitch offset.
+     * @param out        The vector receiving the direction.
+     * @return The given vector.
+     */
+    private Vector3d direction(int yawIndex, int pitchIndex, Vector3d out) {
+        double yawOffset = UNIT_OFFSETS[yawIndex] * spread;
+        double pitchOffset = UNIT_OFFSETS[pitchIndex] * spread;
+        double yawSin = sin(yawOffset), yawCos = cos(yawOffset);
+        double pitchSin = sin(pitchOffset), pitchCos = cos(pitchOffset);
+
+        // sin(a + b) = sin(a)cos(b) + cos(a)sin(b), cos(a + b) = cos(a)cos(b) - sin(a)sin(b)
+        double sy = sinYaw * yawCos + cosYaw * yawSin;
+        double cy = cosYaw * yawCos - sinYaw * yawSin;
+        double sp = sinPitch * pitchCos + cosPitch * pitchSin;
+        double cp = cosPitch * pitchCos - sinPitch * pitchSin;
+
+        out.x = -sy * cp;
+        out.y = sp;
+        out.z = -cy * cp;
+        return out;
+    }
+
+    /**
+     * Returns the sine of an angle by interpolating the sine table.
+     *
+     * @param angle The angle in radians, from {@code -PI / 2} to {@code PI / 2}.
+     * @return The sine of the angle.
+     */
+    private static double sin(double angle) {
+        double x = Math.abs(angle) * SINE_SCALE;
+        int i = (int) x;
+        double value = i >= SINE_STEPS ? 1.0 : SINE[i] + (SINE[i + 1] - SINE[i]) * (x - i);
+        return angle < 0 ? -value : value;
+    }
+
+    /**
+     * Returns the cosine of an angle by interpolating the sine table.
+     *
+     * @param angle The angle in radians, from {@code -PI / 2} to {@code PI / 2}.
+     * @return The cosine of the angle.
+     */
+    private static double cos(double angle) {
+        return sin(Math.PI / 2 - Math.abs(angle));
+    }
+
+    /**
+     * Returns the next value of the SplitMix64 generator.
+     *
+     * @return A pseudo-random long.
+     */
+    private long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,69 +1,83 @@
 package lucis.lux.hff.util;
 
-import lucis.lux.hff.data.AttachmentData;
+import com.hypixel.hytale.component.ComponentAccessor;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import lucis.lux.hff.data.FirearmState;
 import lucis.lux.hff.data.FirearmStats;
-import lucis.lux.hff.data.registry.Registries;
+import lucis.lux.hff.data.HotFirearmStats;
+import lucis.lux.hff.modifiers.CompiledModifierProgram;
+import lucis.lux.hff.modifiers.ModifierContext;
+import lucis.lux.hff.modifiers.ModifierPipeline;
 
 /**
  * A utility class responsible for combining a firearm's intrinsic base statistics
- * with the extrinsic modifiers provided by its currently installed attachments.
+ * with the extrinsic modifiers provided by the {@link ModifierPipeline}, such as its installed attachments.
+ *
+ * <p>Results are memoized in the {@link FirearmState}. They are only recalculated when the base statistics
+ * change, an attachment is installed or removed, the firearm changes hands, or the modifier set of the pipeline
+ * changes for its holder.</p>
  */
 public class StatCalculator {
 
     /**
-     * Calculates and generates a new, modified {@link FirearmStats} object based on  the
-     * weapons active attachments.
+     * Returns the modified {@link FirearmStats} of a firearm.
      *
-     * <p>The calculation follows a cumulative multiplication model for most modifiers.
-     * For any given floating-point stat, the formula applied is:
+     * <p>The modifiers of all registered providers are compiled into a {@link CompiledModifierProgram} and
+     * applied in order. With only the default attachment provider, the formula applied to most stats is:
      * $FinalStat = BaseStat \times \prod_{i=1}^{n} Modifier_i$
      * </p>
      *
      * <p>Flat bonuses (such as extra magazine capacity) are calculated using cumulative addition.</p>
      *
-     * @param baseStats The immutable base statistics of the firearm.
-     * @param state     The current runtime state containing the active attachments.
-     * @return A new build {@link FirearmStats} instance reflecting all active modifiers,
-     * or the original {@code baseStats} if no attachment are installed.
+     * @param baseStats         The immutable base statistics of the firearm.
+     * @param state             The current runtime state containing the active attachments.
+     * @param holder            A reference to the entity holding the firearm, or {@code null} if it has no holder.
+     * @param componentAccessor The component accessor used to access the holder, or {@code null}.
+     * @return A {@link FirearmStats} instance reflecting all active modifiers,
+     * or the original {@code baseStats} if no modifiers apply.
      */
-    public static FirearmStats getModifiedStats(FirearmStats baseStats, FirearmState state) {
-        if (state.getAttachments().isEmpty()) {
-            return baseStats;
-        }
+    public static FirearmStats getModifiedStats(FirearmStats baseStats, FirearmState state,
+                                                Ref<EntityStore> holder, ComponentAccessor<EntityStore> componentAccessor) {
+        long stamp = ((long) ModifierPipeline.getVersion(holder) << 32) | (state.getAttachmentVersion() & 0xFFFFFFFFL);
 
-        // Initialize multiplier accumulators
-        float totalRecoilMult = 1.0f;
-        float totalSpreadMult = 1.0f;
-        float totalVelocityMult = 1.0f;
-        float totalReloadMult = 1.0f;
-        float totalRpmMult = 1.0f;
+        FirearmStats cached = state.getCachedStats(baseStats, stamp);
+        if (cached != null) {
+            return cached;
+        }
 
-        // Initialize flat stat accumulators
-        int totalExtraCapacity = 0;
+        ModifierContext context = holder != null ? new ModifierContext(holder, componentAccessor) : ModifierContext.NONE;
+        FirearmStats stats = ModifierPipeline.compile(context, baseStats, state).apply(baseStats);
+        state.cacheStats(baseStats, stamp, stats);
+        return stats;
+    }
 
-        // Aggregate modifiers from all active attachments
-        for (String attachmentId : state.getAttachments().values()) {
-            AttachmentData att = Registries.ATTACHMENT_DATA.get(attachmentId);
-            if (att != null) {
-                totalRecoilMult *= att.recoilMultiplier();
-                totalSpreadMult *= att.spreadMultiplier();
-                totalVelocityMult *= att.velocityMultiplier();
-                totalReloadMult *= att.reloadTimeMultiplier();
-                totalRpmMult *= att.rpmMultiplier();
-                totalExtraCapacity += att.extraMagazineCapacity();
-            }
-        }
+    /**
+     * Returns the modified {@link FirearmStats} of a firearm that has no holder, for example to display them.
+     * Providers that depend on the holder or the world do not contribute.
+     *
+     * @param baseStats The immutable base statistics of the firearm.
+     * @param state     The current runtime state containing the active attachments.
+     * @return A {@link FirearmStats} instance reflecting all active modifiers,
+     * or the original {@code baseStats} if no modifiers apply.
+     */
+    public static FirearmStats getModifiedStats(FirearmStats baseStats, FirearmState state) {
+        return getModifiedStats(baseStats, state, null, null);
+    }
 
-        // Build and return a fresh, immutable stats object
-        return baseStats.toBuilder()
-                .verticalRecoil(baseStats.verticalRecoil() * totalRecoilMult)
-                .horizontalRecoil(baseStats.horizontalRecoil() * totalRecoilMult)
-                .spreadBase(baseStats.spreadBase() * totalSpreadMult)
-                .projectileVelocity(baseStats.projectileVelocity() * totalVelocityMult)
-                .reloadTime(baseStats.reloadTime() * totalReloadMult)
-                .rpm(baseStats.rpm() * totalRpmMult)
-                .projectileCapacity(baseStats.projectileCapacity() + totalExtraCapacity)
-                .build();
+    /**
+     * Returns the {@link HotFirearmStats} view of a firearm's modified statistics.
+     * The view is derived once per modifier set and cached alongside the modified statistics.
+     *
+     * @param baseStats         The immutable base statistics of the firearm.
+     * @param state             The current runtime state containing the active attachments.
+     * @param holder            A reference to the entity holding the firearm, or {@code null} if it has no holder.
+     * @param componentAccessor The component accessor used to access the holder, or {@code null}.
+     * @return The hot view of the modified statistics.
+     */
+    public static HotFirearmStats getHotStats(FirearmStats baseStats, FirearmState state,
+                                              Ref<EntityStore> holder, ComponentAccessor<EntityStore> componentAccessor) {
+        getModifiedStats(baseStats, state, holder, componentAccessor);
+        return state.getCachedHotStats();
     }
-}
\ No newline at end of file
+}